@@ -0,0 +1,27 @@
+package at.sessa.thesisbenchmark.jmh;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * In-process stand-in without any network transfer, for when no database is started. The difference to the other
+ * drivers is the cost of their wire protocol.
+ */
+public class DuckDbFetchBenchmark extends FetchBenchmark {
+    @Override
+    protected Connection openConnection() throws SQLException {
+        return DriverManager.getConnection("jdbc:duckdb:");
+    }
+
+    @Override
+    protected String createTable() {
+        return "CREATE TABLE " + TABLE + " (d DOUBLE, n DECIMAL(15,2), dt DATE, c CHAR(25))";
+    }
+
+    @Override
+    protected String fillTable(int rows) {
+        return "INSERT INTO " + TABLE + " SELECT i * 1.01, i * 1.01, DATE '1992-01-01' + CAST(i % 2557 AS INTEGER), " +
+                "'Customer#' || lpad(CAST(i AS VARCHAR), 9, '0') FROM range(1, " + (rows + 1) + ") t(i)";
+    }
+}
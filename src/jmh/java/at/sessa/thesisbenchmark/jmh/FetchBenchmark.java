@@ -0,0 +1,189 @@
+package at.sessa.thesisbenchmark.jmh;
+
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.query.BoundQuery;
+import at.sessa.thesisbenchmark.service.MeasuringQueryExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches a table with the column types of TPC-H through one driver and decodes every value on the client. The
+ * table lives in a local database, so the time is dominated by the transfer and decoding in the driver and the JVM,
+ * which is the part of every reported query time that is not spent in the engine.
+ * The connection of every subclass is configured with system properties, e.g. -Djmh.postgres.url=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class FetchBenchmark {
+    static final String TABLE = "jmh_fetch";
+
+    @Param({"100000"})
+    public int rowCount;
+
+    @Param({"100", "1000", "10000"})
+    public int fetchSize;
+
+    // Columns of the fetched table, named after their TPC-H counterparts
+    @Param({"double", "numeric", "date", "char25", "all"})
+    public String columns;
+
+    // getObject decodes like MeasuringQueryExecutor, typed uses the getter of the column type and executor runs the
+    // MeasuringQueryExecutor of the benchmark itself
+    @Param({"getObject", "typed", "executor"})
+    public String handler;
+
+    private Connection connection;
+    private MeasuringQueryExecutor executor;
+    private String query;
+    private int[] columnTypes;
+
+    protected abstract Connection openConnection() throws SQLException;
+
+    /**
+     * Statement creating the table with the columns d (double), n (decimal(15,2)), dt (date) and c (char(25)).
+     */
+    protected abstract String createTable();
+
+    /**
+     * Statement filling the empty table with the given number of rows.
+     */
+    protected abstract String fillTable(int rows);
+
+    /**
+     * Whether the connection needs a transaction for the driver to honour the fetch size.
+     */
+    protected boolean needsTransaction() {
+        return false;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = openConnection();
+        if(tableRowCount() != rowCount) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + TABLE);
+                statement.execute(createTable());
+                statement.execute(fillTable(rowCount));
+            }
+        }
+        query = "SELECT " + columnList() + " FROM " + TABLE;
+        try (PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+            columnTypes = new int[resultSet.getMetaData().getColumnCount()];
+            for(int i = 0; i < columnTypes.length; i++) {
+                columnTypes[i] = resultSet.getMetaData().getColumnType(i + 1);
+            }
+        }
+        executor = new MeasuringQueryExecutor(new SingleConnectionDataSource(connection, true), fetchSize, null);
+        connection.setAutoCommit(!needsTransaction());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        connection.close();
+    }
+
+    @Benchmark
+    public long fetch(Blackhole blackhole) throws SQLException {
+        if("executor".equals(handler)) {
+            QueryMeasurement measurement = executor.execute(new BoundQuery(query, List.of(), true), 0);
+            if(measurement.isFailed()) {
+                throw new SQLException(measurement.getFailure());
+            }
+            return measurement.getRowCount();
+        }
+
+        long rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean typed = "typed".equals(handler);
+                while(resultSet.next()) {
+                    for(int i = 1; i <= columnTypes.length; i++) {
+                        if(typed) {
+                            consumeTyped(resultSet, i, columnTypes[i - 1], blackhole);
+                        } else {
+                            blackhole.consume(resultSet.getObject(i));
+                        }
+                    }
+                    rows++;
+                }
+            }
+        }
+        if(needsTransaction()) {
+            connection.commit();
+        }
+        return rows;
+    }
+
+    private static void consumeTyped(ResultSet resultSet, int i, int columnType, Blackhole blackhole) throws SQLException {
+        switch (columnType) {
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                blackhole.consume(resultSet.getDouble(i));
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                blackhole.consume(resultSet.getBigDecimal(i));
+                break;
+            case Types.DATE:
+                blackhole.consume(resultSet.getDate(i));
+                break;
+            default:
+                blackhole.consume(resultSet.getString(i));
+        }
+    }
+
+    private String columnList() {
+        switch (columns) {
+            case "double": return "d";
+            case "numeric": return "n";
+            case "date": return "dt";
+            case "char25": return "c";
+            case "all": return "d, n, dt, c";
+            default: throw new IllegalArgumentException(columns);
+        }
+    }
+
+    private long tableRowCount() {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    static String property(String name, String defaultValue) {
+        return System.getProperty("jmh." + name, defaultValue);
+    }
+}
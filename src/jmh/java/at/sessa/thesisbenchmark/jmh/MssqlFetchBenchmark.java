@@ -0,0 +1,41 @@
+package at.sessa.thesisbenchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Fetches through mssql-jdbc from a locally started SQL Server, by default the one of the benchmark. TDS always
+ * transfers binary values, the driver only honours the fetch size with a server cursor instead.
+ */
+public class MssqlFetchBenchmark extends FetchBenchmark {
+    @Param({"direct", "cursor"})
+    public String selectMethod;
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", property("mssql.username", "sa"));
+        properties.setProperty("password", property("mssql.password", "Password1"));
+        properties.setProperty("selectMethod", selectMethod);
+        properties.setProperty("responseBuffering", "adaptive");
+        return DriverManager.getConnection(property("mssql.url", "jdbc:sqlserver://localhost;databaseName=springbootdb"), properties);
+    }
+
+    @Override
+    protected String createTable() {
+        return "CREATE TABLE " + TABLE + " (d FLOAT, n DECIMAL(15,2), dt DATE, c CHAR(25))";
+    }
+
+    @Override
+    protected String fillTable(int rows) {
+        return "WITH digits AS (SELECT d FROM (VALUES (0),(1),(2),(3),(4),(5),(6),(7),(8),(9)) v(d)), " +
+                "numbers AS (SELECT TOP (" + rows + ") ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) i " +
+                "FROM digits a, digits b, digits c, digits d, digits e, digits f, digits g) " +
+                "INSERT INTO " + TABLE + " SELECT i * 1.01, i * 1.01, DATEADD(DAY, i % 2557, '1992-01-01'), " +
+                "CONCAT('Customer#', RIGHT(CONCAT('000000000', i), 9)) FROM numbers";
+    }
+}
@@ -0,0 +1,50 @@
+package at.sessa.thesisbenchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Fetches through pgjdbc from a locally started Postgres, by default the one of the benchmark.
+ */
+public class PostgresFetchBenchmark extends FetchBenchmark {
+    // The driver only transfers binary values for prepared statements, prepareThreshold -1 does so from the first execution
+    @Param({"text", "binary"})
+    public String transfer;
+
+    @Override
+    protected Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", property("postgres.username", "postgres"));
+        properties.setProperty("password", property("postgres.password", "password"));
+        if("binary".equals(transfer)) {
+            properties.setProperty("binaryTransfer", "true");
+            properties.setProperty("prepareThreshold", "-1");
+        } else {
+            properties.setProperty("binaryTransfer", "false");
+        }
+        return DriverManager.getConnection(property("postgres.url", "jdbc:postgresql://localhost:5432/postgres"), properties);
+    }
+
+    @Override
+    protected String createTable() {
+        return "CREATE TABLE " + TABLE + " (d DOUBLE PRECISION, n DECIMAL(15,2), dt DATE, c CHAR(25))";
+    }
+
+    @Override
+    protected String fillTable(int rows) {
+        return "INSERT INTO " + TABLE + " SELECT i * 1.01, i * 1.01, date '1992-01-01' + i % 2557, 'Customer#' || lpad(i::text, 9, '0') " +
+                "FROM generate_series(1, " + rows + ") i";
+    }
+
+    /**
+     * Outside a transaction the driver fetches the whole result at once and ignores the fetch size.
+     */
+    @Override
+    protected boolean needsTransaction() {
+        return true;
+    }
+}
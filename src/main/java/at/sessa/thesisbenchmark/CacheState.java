@@ -0,0 +1,26 @@
+package at.sessa.thesisbenchmark;
+
+/**
+ * State of the database and OS caches a measured execution started with.
+ */
+public enum CacheState {
+    // Whatever the preceding queries left in the caches
+    FIRST_EXECUTION,
+    // Engine restarted or buffers dropped, and OS page cache dropped
+    FLUSHED,
+    // Warmed by the preceding executions of the same query
+    WARM,
+    // Every table explicitly read into the caches beforehand
+    PREWARMED;
+
+    @Override
+    public String toString() {
+        switch (this) {
+            case FIRST_EXECUTION: return "F";
+            case FLUSHED: return "D";
+            case WARM: return "W";
+            case PREWARMED: return "P";
+            default: throw new IllegalArgumentException();
+        }
+    }
+}
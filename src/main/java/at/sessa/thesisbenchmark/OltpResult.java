@@ -0,0 +1,105 @@
+package at.sessa.thesisbenchmark;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Latencies of the OLTP transactions issued while the query set ran. The latency of a transaction is measured from
+ * the time the generator scheduled it, the service time from the time a worker started it; the two only differ while
+ * transactions queue up behind a stall.
+ */
+public class OltpResult {
+    private final String databaseType;
+    private final int ratePerSecond;
+    private final long elapsedInNs;
+    private final List<OperationResult> operations = new ArrayList<>();
+
+    public OltpResult(String databaseType, int ratePerSecond, long elapsedInNs) {
+        this.databaseType = databaseType;
+        this.ratePerSecond = ratePerSecond;
+        this.elapsedInNs = elapsedInNs;
+    }
+
+    public void addOperation(OperationResult operation) {
+        operations.add(operation);
+    }
+
+    public List<OperationResult> getOperations() {
+        return operations;
+    }
+
+    public long getElapsedInNs() {
+        return elapsedInNs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(String.format(Locale.ROOT, "%s OLTP at %d/s for %.1f s%n", databaseType, ratePerSecond, elapsedInNs / 1e9));
+        stringBuilder.append("operation,scheduled,completed,errors,per second,p50 (ms),p99 (ms),max (ms),service p50 (ms),service p99 (ms)\n");
+
+        operations.forEach(v -> {
+            stringBuilder.append(v.describe(elapsedInNs));
+            stringBuilder.append("\n");
+        });
+
+        return stringBuilder.toString();
+    }
+
+    public static class OperationResult {
+        private final String operation;
+        private final long scheduled;
+        private final long errors;
+        private final Histogram latency;
+        private final Histogram serviceTime;
+
+        /**
+         * Histograms in ns of the transactions that completed without an error.
+         */
+        public OperationResult(String operation, long scheduled, long errors, Histogram latency, Histogram serviceTime) {
+            this.operation = operation;
+            this.scheduled = scheduled;
+            this.errors = errors;
+            this.latency = latency;
+            this.serviceTime = serviceTime;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getScheduled() {
+            return scheduled;
+        }
+
+        public long getCompleted() {
+            return latency.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public double getPerSecond(long elapsedInNs) {
+            return getCompleted() * 1e9 / Math.max(elapsedInNs, 1);
+        }
+
+        private String describe(long elapsedInNs) {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", operation, scheduled, getCompleted(), errors,
+                    getPerSecond(elapsedInNs), latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                    latency.getMaxValue() / 1e6, serviceTime.getValueAtPercentile(50) / 1e6, serviceTime.getValueAtPercentile(99) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package at.sessa.thesisbenchmark;
+
+public class QueryMeasurement {
+    private final long timeToFirstRowInNs;
+    private final long timeToLastRowInNs;
+    private final long rowCount;
+    private final long bytesDecoded;
+    private final Exception failure;
+    private final long connectionAcquisitionInNs;
+    private final Long resultChecksum;
+
+    public QueryMeasurement(long timeToFirstRowInNs, long timeToLastRowInNs, long rowCount, long bytesDecoded, Exception failure) {
+        this(timeToFirstRowInNs, timeToLastRowInNs, rowCount, bytesDecoded, failure, 0);
+    }
+
+    /**
+     * The times start once the connection is acquired, the acquisition itself is kept apart.
+     */
+    public QueryMeasurement(long timeToFirstRowInNs, long timeToLastRowInNs, long rowCount, long bytesDecoded, Exception failure,
+                            long connectionAcquisitionInNs) {
+        this(timeToFirstRowInNs, timeToLastRowInNs, rowCount, bytesDecoded, failure, connectionAcquisitionInNs, null);
+    }
+
+    /**
+     * The result checksum is null if the rows were not checksummed, e.g. because the execution failed.
+     */
+    public QueryMeasurement(long timeToFirstRowInNs, long timeToLastRowInNs, long rowCount, long bytesDecoded, Exception failure,
+                            long connectionAcquisitionInNs, Long resultChecksum) {
+        this.timeToFirstRowInNs = timeToFirstRowInNs;
+        this.timeToLastRowInNs = timeToLastRowInNs;
+        this.rowCount = rowCount;
+        this.bytesDecoded = bytesDecoded;
+        this.failure = failure;
+        this.connectionAcquisitionInNs = connectionAcquisitionInNs;
+        this.resultChecksum = resultChecksum;
+    }
+
+    public long getTimeToFirstRowInNs() {
+        return timeToFirstRowInNs;
+    }
+
+    public long getTimeToLastRowInNs() {
+        return timeToLastRowInNs;
+    }
+
+    public long getTimeInNs() {
+        return timeToLastRowInNs;
+    }
+
+    public long getTimeInMs() {
+        return timeToLastRowInNs / 1_000_000;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
+    public long getConnectionAcquisitionInNs() {
+        return connectionAcquisitionInNs;
+    }
+
+    /**
+     * Order insensitive checksum of the normalized rows, see ResultChecksum.
+     */
+    public Long getResultChecksum() {
+        return resultChecksum;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public QueryOutcome getOutcome() {
+        return QueryOutcome.of(failure);
+    }
+
+    @Override
+    public String toString() {
+        return (timeToFirstRowInNs / 1_000_000)+","+(timeToLastRowInNs / 1_000_000)+","+rowCount+","+bytesDecoded;
+    }
+}
@@ -0,0 +1,20 @@
+package at.sessa.thesisbenchmark;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * How an execution ended. Only successful executions have a meaningful duration.
+ */
+public enum QueryOutcome {
+    SUCCESS,
+    // Cancelled by the watchdog after exceeding its time budget
+    TIMEOUT,
+    ERROR;
+
+    public static QueryOutcome of(Exception failure) {
+        if(failure == null) {
+            return SUCCESS;
+        }
+        return failure instanceof SQLTimeoutException ? TIMEOUT : ERROR;
+    }
+}
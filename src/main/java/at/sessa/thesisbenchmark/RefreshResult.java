@@ -0,0 +1,83 @@
+package at.sessa.thesisbenchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class RefreshResult {
+    private final String databaseType;
+    private final List<RefreshMeasurement> measurements = new ArrayList<>();
+
+    public RefreshResult(String databaseType) {
+        this.databaseType = databaseType;
+    }
+
+    public void addMeasurement(RefreshMeasurement measurement) {
+        measurements.add(measurement);
+    }
+
+    public List<RefreshMeasurement> getMeasurements() {
+        return measurements;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(" function,pair,status,orders,rows,ms,rows/s\n");
+
+        measurements.forEach(v -> {
+            stringBuilder.append(v);
+            stringBuilder.append("\n");
+        });
+
+        return stringBuilder.toString();
+    }
+
+    public enum Status {
+        OK,
+        FAILED,
+        UNSUPPORTED
+    }
+
+    public static class RefreshMeasurement {
+        private final String function;
+        private final int pair;
+        private final Status status;
+        private final long orders;
+        private final long rows;
+        private final long timeInNs;
+
+        public RefreshMeasurement(String function, int pair, Status status, long orders, long rows, long timeInNs) {
+            this.function = function;
+            this.pair = pair;
+            this.status = status;
+            this.orders = orders;
+            this.rows = rows;
+            this.timeInNs = timeInNs;
+        }
+
+        public String getFunction() {
+            return function;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getTimeInNs() {
+            return timeInNs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%.3f,%.0f", function, pair, status, orders, rows,
+                    timeInNs / 1e6, rows * 1e9 / Math.max(timeInNs, 1));
+        }
+    }
+}
@@ -1,18 +1,125 @@
 package at.sessa.thesisbenchmark;
 
+import at.sessa.thesisbenchmark.monitoring.ResourceUsage;
+import at.sessa.thesisbenchmark.plan.QueryPlan;
+import org.HdrHistogram.Histogram;
+
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Result {
+    private static final int PLAN_SUMMARY_OPERATORS = 5;
+
     private final String databaseType;
     private final List<ResultTuple> queryExecutionTimes = new ArrayList<>();
+    private final Map<Integer, Map<ResultType, Histogram>> histograms = new TreeMap<>();
+    private final Map<Integer, Map<ResultType, QueryPlan>> plans = new TreeMap<>();
 
     public Result(String databaseType) {
         this.databaseType = databaseType;
     }
 
+    /**
+     * Keeps every execution, but only the times of successful ones enter the histograms.
+     */
     public void addQueryExecutionTime(ResultTuple resultTuple) {
         queryExecutionTimes.add(resultTuple);
+        if(resultTuple.getOutcome() == QueryOutcome.SUCCESS) {
+            getHistogram(resultTuple.queryId, resultTuple.resultType).recordValue(resultTuple.timeInNs);
+        }
+    }
+
+    public Histogram getHistogram(int queryId, ResultType resultType) {
+        return histograms
+                .computeIfAbsent(queryId, k -> new EnumMap<>(ResultType.class))
+                .computeIfAbsent(resultType, k -> new Histogram(3));
+    }
+
+    /**
+     * Median time of the successful hot executions of a query, or of its cold execution if it has no hot ones.
+     * NaN if no execution of the query succeeded.
+     */
+    public double medianTimeInNs(int queryId) {
+        Map<ResultType, Histogram> byType = histograms.getOrDefault(queryId, Map.of());
+        for(ResultType resultType : List.of(ResultType.HOT, ResultType.COLD)) {
+            Histogram histogram = byType.get(resultType);
+            if(histogram != null && histogram.getTotalCount() > 0) {
+                return histogram.getValueAtPercentile(50);
+            }
+        }
+        return Double.NaN;
+    }
+
+    public void addPlan(int queryId, ResultType resultType, QueryPlan plan) {
+        plans.computeIfAbsent(queryId, k -> new EnumMap<>(ResultType.class)).put(resultType, plan);
+    }
+
+    public Map<Integer, Map<ResultType, QueryPlan>> getPlans() {
+        return plans;
+    }
+
+    public String getDatabaseType() {
+        return databaseType;
+    }
+
+    public List<ResultTuple> getQueryExecutionTimes() {
+        return queryExecutionTimes;
+    }
+
+    public String histogramSummary() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(" query,type,count,mean,p50,p90,p99,max,stddev (ms)\n");
+
+        histograms.forEach((queryId, byType) -> byType.forEach((resultType, histogram) ->
+                stringBuilder.append(String.format(Locale.ROOT, "%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        queryId, resultType, histogram.getTotalCount(),
+                        histogram.getMean() / 1e6,
+                        histogram.getValueAtPercentile(50) / 1e6,
+                        histogram.getValueAtPercentile(90) / 1e6,
+                        histogram.getValueAtPercentile(99) / 1e6,
+                        histogram.getMaxValue() / 1e6,
+                        histogram.getStdDeviation() / 1e6))));
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Mean time of every query and type next to its ratio to the mean of the same query and type in the baseline.
+     */
+    public String degradationRelativeTo(Result baseline) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(String.format(" query,type,mean (ms),ratio to %s%n", baseline.databaseType));
+
+        histograms.forEach((queryId, byType) -> byType.forEach((resultType, histogram) -> {
+            Histogram baselineHistogram = baseline.histograms.getOrDefault(queryId, Map.of()).get(resultType);
+            double baselineMean = baselineHistogram == null ? 0 : baselineHistogram.getMean();
+            stringBuilder.append(String.format(Locale.ROOT, "%d,%s,%.3f,%.2fx%n", queryId, resultType,
+                    histogram.getMean() / 1e6, histogram.getMean() / Math.max(baselineMean, 1)));
+        }));
+
+        return stringBuilder.toString();
+    }
+
+    public String planSummary() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(" slowest operators per query,type\n");
+
+        plans.forEach((queryId, byType) -> byType.forEach((resultType, plan) -> {
+            stringBuilder.append(queryId).append(",").append(resultType).append(",").append(plan.getOperators().size()).append(" operators\n");
+            plan.getSlowestOperators(PLAN_SUMMARY_OPERATORS).forEach(o -> stringBuilder.append(o.toString().trim()).append("\n"));
+        }));
+
+        return stringBuilder.toString();
     }
 
     @Override
@@ -30,15 +137,20 @@ public class Result {
         return stringBuilder.toString();
     }
 
+    /**
+     * INSTRUMENTED executions captured a plan, their times include the overhead of the instrumentation.
+     */
     public enum ResultType {
         HOT,
-        COLD;
+        COLD,
+        INSTRUMENTED;
 
         @Override
         public String toString() {
             switch (this) {
                 case HOT: return "H";
                 case COLD: return "C";
+                case INSTRUMENTED: return "I";
                 default: throw new IllegalArgumentException();
             }
         }
@@ -46,18 +158,66 @@ public class Result {
 
     public static class ResultTuple {
         private final int queryId;
-        private final long timeInMs;
+        private final long timeInNs;
         private final ResultType resultType;
+        private final QueryMeasurement measurement;
+        private final CacheState cacheState;
+        private final ResourceUsage resourceUsage;
 
-        public ResultTuple(int queryId, long timeInMs, ResultType resultType) {
+        public ResultTuple(int queryId, long timeInNs, ResultType resultType) {
+            this(queryId, timeInNs, resultType, null, null, null);
+        }
+
+        public ResultTuple(int queryId, long timeInNs, ResultType resultType, QueryMeasurement measurement, CacheState cacheState,
+                           ResourceUsage resourceUsage) {
             this.queryId = queryId;
-            this.timeInMs = timeInMs;
+            this.timeInNs = timeInNs;
             this.resultType = resultType;
+            this.measurement = measurement;
+            this.cacheState = cacheState;
+            this.resourceUsage = resourceUsage;
+        }
+
+        public int getQueryId() {
+            return queryId;
+        }
+
+        public long getTimeInNs() {
+            return timeInNs;
+        }
+
+        public ResultType getResultType() {
+            return resultType;
+        }
+
+        public QueryMeasurement getMeasurement() {
+            return measurement;
+        }
+
+        public CacheState getCacheState() {
+            return cacheState;
+        }
+
+        public ResourceUsage getResourceUsage() {
+            return resourceUsage;
+        }
+
+        public QueryOutcome getOutcome() {
+            return measurement == null ? QueryOutcome.SUCCESS : measurement.getOutcome();
         }
 
         @Override
         public String toString() {
-            return queryId+","+timeInMs+","+resultType;
+            // Failed executions print their outcome in place of a time
+            String timeInMs = getOutcome() == QueryOutcome.SUCCESS ? String.format(Locale.ROOT, "%.3f", timeInNs / 1e6) : getOutcome().name();
+            String type = cacheState == null ? resultType.toString() : resultType+","+cacheState;
+            if(measurement == null) {
+                return queryId+","+timeInMs+","+type;
+            }
+            if(resourceUsage == null) {
+                return queryId+","+timeInMs+","+type+","+measurement;
+            }
+            return queryId+","+timeInMs+","+type+","+measurement+","+resourceUsage;
         }
     }
 }
@@ -0,0 +1,147 @@
+package at.sessa.thesisbenchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class Statistics {
+    private Statistics() {
+    }
+
+    public static double mean(List<Long> samples) {
+        return samples.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    /**
+     * Median of the samples, NaN if there are none.
+     */
+    public static double median(List<Long> samples) {
+        if(samples.isEmpty()) {
+            return Double.NaN;
+        }
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2.0;
+    }
+
+    public static double standardDeviation(List<Long> samples) {
+        if(samples.size() < 2) {
+            return 0;
+        }
+        double mean = mean(samples);
+        double sumOfSquares = samples.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum();
+        return Math.sqrt(sumOfSquares / (samples.size() - 1));
+    }
+
+    /**
+     * Half width of the two-sided confidence interval of the mean, based on the Student t distribution.
+     */
+    public static double confidenceIntervalHalfWidth(List<Long> samples, double confidenceLevel) {
+        if(samples.size() < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = studentTQuantile(1 - (1 - confidenceLevel) / 2, samples.size() - 1);
+        return t * standardDeviation(samples) / Math.sqrt(samples.size());
+    }
+
+    /**
+     * Two-sided p-value of Welch's t-test for different means of two samples with possibly unequal variances.
+     * Returns NaN if either sample has fewer than two values.
+     */
+    public static double welchTTestPValue(List<Long> first, List<Long> second) {
+        if(first.size() < 2 || second.size() < 2) {
+            return Double.NaN;
+        }
+        double firstVariance = Math.pow(standardDeviation(first), 2) / first.size();
+        double secondVariance = Math.pow(standardDeviation(second), 2) / second.size();
+        if(firstVariance + secondVariance == 0) {
+            return mean(first) == mean(second) ? 1 : 0;
+        }
+        double t = (mean(first) - mean(second)) / Math.sqrt(firstVariance + secondVariance);
+        double degreesOfFreedom = Math.pow(firstVariance + secondVariance, 2)
+                / (firstVariance * firstVariance / (first.size() - 1) + secondVariance * secondVariance / (second.size() - 1));
+        return 2 * (1 - studentTCdf(Math.abs(t), degreesOfFreedom));
+    }
+
+    public static double studentTCdf(double t, double degreesOfFreedom) {
+        double x = degreesOfFreedom / (degreesOfFreedom + t * t);
+        double tail = 0.5 * regularizedIncompleteBeta(x, degreesOfFreedom / 2, 0.5);
+        return t >= 0 ? 1 - tail : tail;
+    }
+
+    public static double studentTQuantile(double p, double degreesOfFreedom) {
+        double low = -1e4;
+        double high = 1e4;
+        for(int i = 0; i < 200; i++) {
+            double mid = (low + high) / 2;
+            if(studentTCdf(mid, degreesOfFreedom) < p) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    static double regularizedIncompleteBeta(double x, double a, double b) {
+        if(x <= 0) {
+            return 0;
+        }
+        if(x >= 1) {
+            return 1;
+        }
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        if(x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double epsilon = 1e-14;
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = Math.abs(d) < tiny ? tiny : d;
+        d = 1 / d;
+        double h = d;
+        for(int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + aa * d;
+            d = Math.abs(d) < tiny ? tiny : d;
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            d = 1 / d;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + aa * d;
+            d = Math.abs(d) < tiny ? tiny : d;
+            c = 1 + aa / c;
+            c = Math.abs(c) < tiny ? tiny : c;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if(Math.abs(delta - 1) < epsilon) {
+                break;
+            }
+        }
+        return h;
+    }
+
+    private static double logGamma(double x) {
+        double[] coefficients = {
+                76.18009172947146, -86.50532032941677, 24.01409824083091,
+                -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+        };
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for(double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
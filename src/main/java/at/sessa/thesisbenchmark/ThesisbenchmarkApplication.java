@@ -1,7 +1,40 @@
 package at.sessa.thesisbenchmark;
 
-import at.sessa.thesisbenchmark.service.BenchmarkSetupService;
+import at.sessa.thesisbenchmark.configuration.CacheProperties;
+import at.sessa.thesisbenchmark.configuration.GenericProperties;
+import at.sessa.thesisbenchmark.configuration.HtapProperties;
+import at.sessa.thesisbenchmark.configuration.PlanProperties;
+import at.sessa.thesisbenchmark.configuration.RefreshProperties;
+import at.sessa.thesisbenchmark.configuration.RepetitionProperties;
+import at.sessa.thesisbenchmark.configuration.ResourceProperties;
+import at.sessa.thesisbenchmark.configuration.StorageProperties;
+import at.sessa.thesisbenchmark.configuration.SweepProperties;
+import at.sessa.thesisbenchmark.configuration.ThroughputProperties;
+import at.sessa.thesisbenchmark.configuration.TuningProperties;
+import at.sessa.thesisbenchmark.configuration.WatchdogProperties;
+import at.sessa.thesisbenchmark.monitoring.BenchmarkMetrics;
+import at.sessa.thesisbenchmark.monitoring.ProcessResourceProbe;
+import at.sessa.thesisbenchmark.monitoring.ResourceProbe;
+import at.sessa.thesisbenchmark.monitoring.ResourceSampler;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.plan.QueryPlan;
+import at.sessa.thesisbenchmark.query.QueryCatalog;
+import at.sessa.thesisbenchmark.results.RegressionComparator;
+import at.sessa.thesisbenchmark.results.RunJournal;
+import at.sessa.thesisbenchmark.results.ResultStore;
+import at.sessa.thesisbenchmark.results.ResultVerifier;
+import at.sessa.thesisbenchmark.results.RunMetadata;
+import at.sessa.thesisbenchmark.results.ScalingAnalysis;
+import at.sessa.thesisbenchmark.results.StorageAnalysis;
+import at.sessa.thesisbenchmark.service.OltpWorkload;
 import at.sessa.thesisbenchmark.service.QueryExecutionService;
+import at.sessa.thesisbenchmark.service.QueryWatchdog;
+import at.sessa.thesisbenchmark.service.RefreshExecutionService;
+import at.sessa.thesisbenchmark.service.SessionSettings;
+import at.sessa.thesisbenchmark.service.ThroughputExecutionService;
+import at.sessa.thesisbenchmark.service.TuningExecutionService;
+import at.sessa.thesisbenchmark.target.BenchmarkTarget;
+import at.sessa.thesisbenchmark.target.DatasetCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -10,19 +43,84 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
 import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @SpringBootApplication(exclude = {DataSourceAutoConfiguration.class})
 public class ThesisbenchmarkApplication implements CommandLineRunner {
 	Logger logger = LoggerFactory.getLogger(ThesisbenchmarkApplication.class);
 
-	private final BenchmarkSetupService benchmarkSetupService;
+	private final List<BenchmarkTarget> benchmarkTargets;
+	private final DatasetCache datasetCache;
+	private final GenericProperties genericProperties;
+	private final RepetitionProperties repetitionProperties;
+	private final ThroughputProperties throughputProperties;
+	private final PlanProperties planProperties;
+	private final CacheProperties cacheProperties;
+	private final ResourceProperties resourceProperties;
+	private final ResultStore resultStore;
+	private final RegressionComparator regressionComparator;
+	private final QueryCatalog queryCatalog;
+	private final RefreshProperties refreshProperties;
+	private final WatchdogProperties watchdogProperties;
+	private final SweepProperties sweepProperties;
+	private final TuningProperties tuningProperties;
+	private final StorageProperties storageProperties;
+	private final BenchmarkMetrics benchmarkMetrics;
+	private final RunJournal runJournal;
+	private final HtapProperties htapProperties;
 
-	public ThesisbenchmarkApplication(BenchmarkSetupService benchmarkSetupService) {
-		this.benchmarkSetupService = benchmarkSetupService;
+	private BenchmarkTarget currentTarget;
+	private RunMetadata run;
+	private ScalingAnalysis scalingAnalysis;
+	private StorageAnalysis storageAnalysis;
+	private ResultVerifier resultVerifier;
+
+	public ThesisbenchmarkApplication(List<BenchmarkTarget> benchmarkTargets, DatasetCache datasetCache, GenericProperties genericProperties,
+									  RepetitionProperties repetitionProperties, ThroughputProperties throughputProperties,
+									  PlanProperties planProperties, CacheProperties cacheProperties,
+									  ResourceProperties resourceProperties, ResultStore resultStore,
+									  RegressionComparator regressionComparator, QueryCatalog queryCatalog,
+									  RefreshProperties refreshProperties, WatchdogProperties watchdogProperties,
+									  SweepProperties sweepProperties, TuningProperties tuningProperties,
+									  StorageProperties storageProperties, BenchmarkMetrics benchmarkMetrics,
+									  RunJournal runJournal, HtapProperties htapProperties) {
+		this.benchmarkTargets = benchmarkTargets;
+		this.datasetCache = datasetCache;
+		this.genericProperties = genericProperties;
+		this.repetitionProperties = repetitionProperties;
+		this.throughputProperties = throughputProperties;
+		this.planProperties = planProperties;
+		this.cacheProperties = cacheProperties;
+		this.resourceProperties = resourceProperties;
+		this.resultStore = resultStore;
+		this.regressionComparator = regressionComparator;
+		this.queryCatalog = queryCatalog;
+		this.refreshProperties = refreshProperties;
+		this.watchdogProperties = watchdogProperties;
+		this.sweepProperties = sweepProperties;
+		this.tuningProperties = tuningProperties;
+		this.storageProperties = storageProperties;
+		this.benchmarkMetrics = benchmarkMetrics;
+		this.runJournal = runJournal;
+		this.htapProperties = htapProperties;
 	}
 
+	/**
+	 * The web server only serves the metrics while the benchmark runs, the application exits once it is done.
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(ThesisbenchmarkApplication.class, args);
+		System.exit(SpringApplication.exit(SpringApplication.run(ThesisbenchmarkApplication.class, args)));
 	}
 
 	@Override
@@ -32,36 +130,365 @@ public class ThesisbenchmarkApplication implements CommandLineRunner {
 		} catch (Exception e) {
 			logger.error("Exception while benchmarking", e);
 		} finally {
-			benchmarkSetupService.cleanUpContainers();
+			if(currentTarget != null && runJournal.isEnabled()) {
+				logger.info("Keeping {} set up, starting the run again resumes it", currentTarget.getName());
+			} else if(currentTarget != null) {
+				currentTarget.tearDown();
+			}
 		}
 	}
 
 	private void executeBenchmark() {
-		QueryExecutionService queryExecutionService;
-
-		logger.info("Starting postgres row datasource benchmark");
-		DataSource postgresRowDatasource = benchmarkSetupService.setupPostgresRowDatasource();
-		queryExecutionService = new QueryExecutionService(postgresRowDatasource);
-		queryExecutionService.benchmark("postgres", "row");
-		benchmarkSetupService.cleanUpPostgresRowContainer();
-
-		logger.info("Starting postgres column datasource benchmark");
-		DataSource postgresColumnDataSource = benchmarkSetupService.setupPostgresColumnDatasource();
-		queryExecutionService = new QueryExecutionService(postgresColumnDataSource);
-		queryExecutionService.benchmark("postgres", "column");
-		benchmarkSetupService.cleanUpPostgresColumnContainer();
-
-		logger.info("Starting mssql row datasource benchmark");
-		DataSource mssqlRowDataSource = benchmarkSetupService.setupMssqlRowDataSource();
-		queryExecutionService = new QueryExecutionService(mssqlRowDataSource);
-		queryExecutionService.benchmark("mssql", "row");
-		benchmarkSetupService.cleanUpMssqlContainer("mssqlrow");
-
-
-		logger.info("Starting mssql column datasource benchmark");
-		DataSource mssqlColumnDataSource = benchmarkSetupService.setupMssqlColumnDataSource();
-		queryExecutionService = new QueryExecutionService(mssqlColumnDataSource);
-		queryExecutionService.benchmark("mssql", "column");
-		benchmarkSetupService.cleanUpMssqlContainer("mssqlcolumn");
+		if(!sweepProperties.isEnabled()) {
+			executeRun();
+			runJournal.clear();
+			return;
+		}
+
+		// Every scale factor is a run of its own, so that results and baselines stay comparable per scale factor
+		scalingAnalysis = new ScalingAnalysis(sweepProperties.getSuperLinearExponent());
+		RunMetadata firstRun = null;
+		for(String scaleFactor : sweepProperties.getScaleFactors()) {
+			logger.info("Starting sweep step at {}", scaleFactor);
+			genericProperties.setScaleFactor(scaleFactor);
+			executeRun();
+			firstRun = firstRun == null ? run : firstRun;
+		}
+		if(firstRun != null) {
+			logger.info(scalingAnalysis.summary());
+			resultStore.storeScaling(firstRun, scalingAnalysis);
+		}
+		runJournal.clear();
+	}
+
+	private void executeRun() {
+		run = runJournal.open(resultStore.startRun());
+		logger.info("Starting run {} with configuration {}", run.getRunId(), run.getConfigHash());
+		tearDownAbandonedTargets();
+		storageAnalysis = new StorageAnalysis();
+		// With random parameters the targets do not answer the same questions
+		resultVerifier = queryCatalog.isRandomParameters() ? null : new ResultVerifier();
+		Map<BenchmarkTarget, List<Map<String, String>>> combinationsByTarget = new LinkedHashMap<>();
+		for(BenchmarkTarget target : selectTargets()) {
+			combinationsByTarget.put(target, storageCombinations(target));
+		}
+		benchmarkMetrics.startRun(combinationsByTarget.values().stream().mapToInt(List::size).sum());
+		combinationsByTarget.forEach((target, combinations) -> combinations.forEach(c -> benchmarkTarget(target, c)));
+		if(!storageAnalysis.getEntries().isEmpty()) {
+			logger.info(storageAnalysis.summary());
+			resultStore.storeStorage(run, storageAnalysis);
+		}
+		if(resultVerifier != null && !resultVerifier.getEntries().isEmpty()) {
+			verifyResults();
+		}
+	}
+
+	private void verifyResults() {
+		logger.info(resultVerifier.summary());
+		for(ResultVerifier.Entry mismatch : resultVerifier.getMismatches()) {
+			if(mismatch.isUnstable()) {
+				logger.warn("Query {} returned {} different results on {}", mismatch.getQueryId(), mismatch.getDistinctChecksums(), mismatch.getTarget());
+			}
+			if(!mismatch.isMatching()) {
+				logger.warn("Query {} returned a different result on {} than on the other targets", mismatch.getQueryId(), mismatch.getTarget());
+			}
+		}
+		resultStore.storeVerification(run, resultVerifier);
+	}
+
+	/**
+	 * Sets the target up with the storage options overriding the configured ones and benchmarks it. Results of a
+	 * storage sweep are named after the target and the option values, e.g. postgres-column@pglz-150000-10000.
+	 */
+	private void benchmarkTarget(BenchmarkTarget target, Map<String, String> storageOptions) {
+		Map<String, String> configuredOptions = storageProperties.getOptions();
+		Map<String, String> options = new LinkedHashMap<>(configuredOptions);
+		options.putAll(storageOptions);
+		storageProperties.setOptions(options);
+		String name = storageOptions.isEmpty() ? target.getName() : target.getName() + "@" + String.join("-", storageOptions.values());
+		RunJournal.TargetJournal journal = runJournal.target(name, target.getName());
+		String storageDescription = describeStorage(target);
+		try {
+			benchmarkMetrics.startTarget(name, target.getLayout());
+			if(journal.isFinished()) {
+				logger.info("Skipping {}, it was benchmarked before the run was interrupted", name);
+				analyze(target, name, storageDescription, journal.getTableSizes(), journal.getResult());
+				benchmarkMetrics.completeTarget();
+				return;
+			}
+
+			logger.info("Starting {} datasource benchmark", name);
+			currentTarget = target;
+			if(journal.isDataModificationInterrupted()) {
+				// The refresh functions or OLTP transactions left the data half modified, it is loaded again
+				logger.info("Reloading {}, a phase modifying its data was interrupted", name);
+				target.tearDown();
+				journal.reload();
+			}
+			DataSource dataSource = datasetCache.setUp(target, journal);
+			Map<String, Long> tableSizes = journal.getTableSizes();
+			if(tableSizes.isEmpty()) {
+				tableSizes = target.getTableSizes();
+				if(!tableSizes.isEmpty()) {
+					resultStore.storeTableSizes(run, name, storageDescription, tableSizes);
+					journal.setTableSizes(tableSizes);
+				}
+			}
+
+			Result result = tuningProperties.isEnabled()
+					? benchmarkTunedDataSource(target, name, journal)
+					: benchmarkDataSource(dataSource, target, name, genericProperties.getFetchSize(), journal);
+			analyze(target, name, storageDescription, tableSizes, result);
+			journal.finished();
+			benchmarkMetrics.setPhase(BenchmarkMetrics.Phase.TEARDOWN);
+			target.tearDown();
+			currentTarget = null;
+			benchmarkMetrics.completeTarget();
+		} finally {
+			storageProperties.setOptions(configuredOptions);
+		}
+	}
+
+	private void analyze(BenchmarkTarget target, String name, String storageDescription, Map<String, Long> tableSizes, Result result) {
+		if(scalingAnalysis != null) {
+			scalingAnalysis.add(name, target.getVendor(), target.getLayout(), genericProperties.getNumericScaleFactor(), result);
+		}
+		if(!tableSizes.isEmpty()) {
+			storageAnalysis.add(name, storageDescription, tableSizes, result);
+		}
+		if(resultVerifier != null) {
+			resultVerifier.add(name, result);
+		}
+	}
+
+	/**
+	 * A run that was discarded for a different configuration may have left targets set up, whose containers would
+	 * prevent setting them up again.
+	 */
+	private void tearDownAbandonedTargets() {
+		for(String name : runJournal.getAbandonedTargets()) {
+			logger.info("Tearing down {}, left behind by a discarded run", name);
+			benchmarkTargets.stream().filter(t -> t.getName().equals(name)).findFirst().ifPresent(t -> {
+				try {
+					t.tearDown();
+				} catch (Exception e) {
+					logger.warn("Could not tear down {}", name, e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Every combination of the grid values of the storage placeholders of the target, or only the configured options
+	 * as an empty combination if the sweep is disabled or the target has no placeholders.
+	 */
+	private List<Map<String, String>> storageCombinations(BenchmarkTarget target) {
+		List<Map<String, String>> combinations = new ArrayList<>();
+		combinations.add(new LinkedHashMap<>());
+		if(!storageProperties.isSweep()) {
+			return combinations;
+		}
+		for(String placeholder : datasetCache.getStoragePlaceholders(target)) {
+			List<String> values = storageProperties.getGrid().getOrDefault(placeholder, List.of());
+			if(values.isEmpty()) {
+				continue;
+			}
+			List<Map<String, String>> extended = new ArrayList<>();
+			for(Map<String, String> combination : combinations) {
+				for(String value : values) {
+					Map<String, String> next = new LinkedHashMap<>(combination);
+					next.put(placeholder, value.trim());
+					extended.add(next);
+				}
+			}
+			combinations = extended;
+		}
+		return combinations;
+	}
+
+	// Storage options in effect for the schema of the target, e.g. cstore-compression=pglz;cstore-block-row-count=10000
+	private String describeStorage(BenchmarkTarget target) {
+		List<String> options = new ArrayList<>();
+		for(String placeholder : datasetCache.getStoragePlaceholders(target)) {
+			options.add(placeholder + "=" + storageProperties.getOptions().get(placeholder));
+		}
+		return String.join(";", options);
+	}
+
+	private List<BenchmarkTarget> selectTargets() {
+		List<BenchmarkTarget> selected = new ArrayList<>();
+		for(String name : genericProperties.getTargets()) {
+			selected.add(benchmarkTargets.stream()
+					.filter(t -> t.getName().equals(name.trim()))
+					.findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("Unknown benchmark target " + name)));
+		}
+		return selected;
+	}
+
+	private Result benchmarkTunedDataSource(BenchmarkTarget target, String name, RunJournal.TargetJournal journal) {
+		TuningExecutionService tuningExecutionService = new TuningExecutionService(target, queryCatalog, repetitionProperties,
+				tuningProperties, watchdogProperties);
+		benchmarkMetrics.setPhase(BenchmarkMetrics.Phase.TUNING);
+		TuningResult tuningResult = tuningExecutionService.tune();
+		resultStore.storeTuning(run, name, tuningResult);
+		// The tuning leaves the caches warm
+		target.restart();
+
+		SessionSettings best = tuningProperties.isApply() ? tuningResult.getBest() : null;
+		if(best == null) {
+			return benchmarkDataSource(target.getDataSource(), target, name, genericProperties.getFetchSize(), journal);
+		}
+		logger.info("Benchmarking {} with {}", name, best);
+		DataSource dataSource = tuningExecutionService.dataSourceFor(best);
+		try {
+			return benchmarkDataSource(dataSource, target, name, best.getFetchSize(), journal);
+		} finally {
+			tuningExecutionService.close(dataSource);
+		}
+	}
+
+	/**
+	 * Queries that the journal holds from an interrupted attempt are not executed again, and the results are only
+	 * stored once.
+	 */
+	private Result benchmarkDataSource(DataSource dataSource, BenchmarkTarget target, String name, int fetchSize,
+									   RunJournal.TargetJournal journal) {
+		PlanCapture planCapture = planProperties.isEnabled() ? target.getPlanCapture() : null;
+		if(planProperties.isEnabled() && planCapture == null) {
+			logger.warn("Capturing plans is not supported on {}", name);
+		}
+
+		try (QueryWatchdog queryWatchdog = createQueryWatchdog(dataSource, target);
+			 ResourceSampler resourceSampler = createResourceSampler(target)) {
+			QueryExecutionService queryExecutionService = new QueryExecutionService(dataSource, fetchSize, repetitionProperties, planCapture,
+					target, cacheProperties, resourceSampler, queryCatalog, queryWatchdog, benchmarkMetrics);
+			Result result = queryExecutionService.benchmark(target.getQueryDialect(), name, journal.getResult(), (queryId, tuples) -> journal.addQuery(tuples));
+			if(planCapture != null) {
+				writePlans(result, name);
+			}
+			if(!journal.isStored()) {
+				resultStore.store(run, name, target.getVendor(), target.getLayout(), engineVersion(dataSource), result);
+				regressionComparator.compare(run, name);
+				journal.stored();
+			}
+
+			if(throughputProperties.isEnabled() && !journal.isCompleted(RunJournal.Phase.THROUGHPUT)) {
+				logger.info("Starting {} throughput benchmark", name);
+				benchmarkMetrics.setPhase(BenchmarkMetrics.Phase.THROUGHPUT);
+				new ThroughputExecutionService(queryExecutionService, throughputProperties).throughput(target.getQueryDialect(), name);
+				journal.complete(RunJournal.Phase.THROUGHPUT);
+			}
+
+			if(refreshProperties.isEnabled() && !journal.isCompleted(RunJournal.Phase.REFRESH)) {
+				logger.info("Starting {} refresh benchmark", name);
+				benchmarkMetrics.setPhase(BenchmarkMetrics.Phase.REFRESH);
+				journal.start(RunJournal.Phase.REFRESH);
+				new RefreshExecutionService(dataSource, target.createTableSink(), target.supportsDeletes(), genericProperties.getNumericScaleFactor(),
+						refreshProperties).refresh(name);
+				// After a reload the refresh functions only bring the data back to the state the stored results saw
+				if(refreshProperties.isRerunQueries() && !journal.isStored(RunJournal.Phase.REFRESH)) {
+					String refreshedName = name + "-refreshed";
+					Result refreshedResult = queryExecutionService.benchmark(target.getQueryDialect(), refreshedName);
+					logger.info(refreshedResult.degradationRelativeTo(result));
+					resultStore.store(run, refreshedName, target.getVendor(), target.getLayout(), engineVersion(dataSource), refreshedResult);
+					regressionComparator.compare(run, refreshedName);
+					journal.stored(RunJournal.Phase.REFRESH);
+				}
+				journal.complete(RunJournal.Phase.REFRESH);
+			}
+
+			if(htapProperties.isEnabled() && !journal.isCompleted(RunJournal.Phase.HTAP)) {
+				logger.info("Starting {} HTAP benchmark", name);
+				journal.start(RunJournal.Phase.HTAP);
+				benchmarkHtap(queryExecutionService, dataSource, target, name, result);
+				journal.complete(RunJournal.Phase.HTAP);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Runs the query set again while the OLTP workload issues transactions on a pool of its own, so that they do not
+	 * wait for connections held by the queries. The results are named after the target with the suffix -htap.
+	 */
+	private void benchmarkHtap(QueryExecutionService queryExecutionService, DataSource dataSource, BenchmarkTarget target,
+							   String name, Result result) {
+		DataSource oltpDataSource = target.createDataSource(Map.of(), null);
+		if(oltpDataSource == null) {
+			logger.warn("{} cannot provide a separate data source, OLTP transactions share the one of the queries", name);
+			oltpDataSource = dataSource;
+		}
+		String htapName = name + "-htap";
+		OltpWorkload oltpWorkload = new OltpWorkload(oltpDataSource, target.supportsUpdates(), genericProperties.getNumericScaleFactor(),
+				htapProperties, benchmarkMetrics);
+		Result htapResult;
+		OltpResult oltpResult;
+		oltpWorkload.start();
+		try {
+			htapResult = queryExecutionService.benchmark(target.getQueryDialect(), htapName);
+		} finally {
+			oltpResult = oltpWorkload.stop(htapName);
+			if(oltpDataSource != dataSource && oltpDataSource instanceof Closeable) {
+				try {
+					((Closeable) oltpDataSource).close();
+				} catch (IOException e) {
+					logger.warn("Could not close the OLTP data source", e);
+				}
+			}
+		}
+		logger.info(htapResult.degradationRelativeTo(result));
+		resultStore.store(run, htapName, target.getVendor(), target.getLayout(), engineVersion(dataSource), htapResult);
+		resultStore.storeOltp(run, htapName, oltpResult);
+		regressionComparator.compare(run, htapName);
+	}
+
+	private QueryWatchdog createQueryWatchdog(DataSource dataSource, BenchmarkTarget target) {
+		if(!watchdogProperties.isEnabled()) {
+			return null;
+		}
+		if(target.getSessionTerminator() == null) {
+			logger.warn("Queries over their budget can only be cancelled, not killed, on {}", target.getName());
+		}
+		return new QueryWatchdog(dataSource, target.getSessionTerminator(), watchdogProperties);
+	}
+
+	private String engineVersion(DataSource dataSource) {
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			return metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion();
+		} catch (SQLException e) {
+			logger.warn("Could not determine the engine version", e);
+			return null;
+		}
+	}
+
+	private ResourceSampler createResourceSampler(BenchmarkTarget target) {
+		if(!resourceProperties.isEnabled()) {
+			return null;
+		}
+		ResourceProbe probe = resourceProperties.isProcessProbe()
+				? ProcessResourceProbe.self()
+				: target.createResourceProbe(resourceProperties.getCgroupRoot());
+		return new ResourceSampler(probe, resourceProperties.getSampleIntervalInMs());
+	}
+
+	private void writePlans(Result result, String name) {
+		Path directory = Paths.get(planProperties.getOutputDirectory(), name);
+		try {
+			Files.createDirectories(directory);
+			for(Map.Entry<Integer, Map<Result.ResultType, QueryPlan>> byQuery : result.getPlans().entrySet()) {
+				for(Map.Entry<Result.ResultType, QueryPlan> byType : byQuery.getValue().entrySet()) {
+					QueryPlan plan = byType.getValue();
+					for(int i = 0; i < plan.getRawPlans().size(); i++) {
+						String fileName = byQuery.getKey() + "-" + byType.getKey() + "-" + (i + 1) + "." + plan.getFormat();
+						Files.writeString(directory.resolve(fileName), plan.getRawPlans().get(i));
+					}
+				}
+			}
+			logger.info("Wrote plans of {} to {}", name, directory.toAbsolutePath());
+		} catch (IOException e) {
+			logger.error("Could not write plans of {}", name, e);
+		}
 	}
 }
@@ -0,0 +1,126 @@
+package at.sessa.thesisbenchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+public class ThroughputResult {
+    private final String databaseType;
+    private final int streams;
+    private final long elapsedInMs;
+    private final List<StreamResult> streamResults = new ArrayList<>();
+
+    public ThroughputResult(String databaseType, int streams, long elapsedInMs) {
+        this.databaseType = databaseType;
+        this.streams = streams;
+        this.elapsedInMs = elapsedInMs;
+    }
+
+    public void addStreamResult(StreamResult streamResult) {
+        streamResults.add(streamResult);
+    }
+
+    public int getStreams() {
+        return streams;
+    }
+
+    /**
+     * Only successful executions count as completed queries, failed, timed out and killed ones are reported apart.
+     */
+    public double getQueriesPerHour() {
+        long queries = streamResults.stream().flatMap(StreamResult::successfulMeasurements).count();
+        return queries * 3_600_000d / Math.max(elapsedInMs, 1);
+    }
+
+    public long getFailedQueries() {
+        return streamResults.stream().mapToLong(StreamResult::getFailedQueries).sum();
+    }
+
+    public double getMeanQueryTimeInMs() {
+        return streamResults.stream()
+                .flatMap(StreamResult::successfulMeasurements)
+                .mapToLong(QueryMeasurement::getTimeInMs)
+                .average()
+                .orElse(0);
+    }
+
+    public double getMeanQueryTimeInMs(int queryId) {
+        return streamResults.stream()
+                .map(s -> s.measurements.get(queryId))
+                .filter(m -> m != null && m.getOutcome() == QueryOutcome.SUCCESS)
+                .mapToLong(QueryMeasurement::getTimeInMs)
+                .average()
+                .orElse(0);
+    }
+
+    public String degradationRelativeTo(ThroughputResult baseline) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(String.format("%s streams=%d mean latency %.1f ms, %.2fx of streams=%d%n",
+                databaseType, streams, getMeanQueryTimeInMs(),
+                getMeanQueryTimeInMs() / Math.max(baseline.getMeanQueryTimeInMs(), 1), baseline.streams));
+
+        Set<Integer> queryIds = new TreeSet<>();
+        streamResults.forEach(s -> queryIds.addAll(s.measurements.keySet()));
+        for(int queryId : queryIds) {
+            double baselineTime = baseline.getMeanQueryTimeInMs(queryId);
+            stringBuilder.append(String.format("%d,%.1f,%.2fx%n", queryId, getMeanQueryTimeInMs(queryId),
+                    getMeanQueryTimeInMs(queryId) / Math.max(baselineTime, 1)));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(String.format(" streams=%d elapsed=%d ms queries/hour=%.1f failed=%d%n", streams, elapsedInMs,
+                getQueriesPerHour(), getFailedQueries()));
+
+        streamResults.forEach(v -> {
+            stringBuilder.append(v);
+            stringBuilder.append("\n");
+        });
+
+        return stringBuilder.toString();
+    }
+
+    public static class StreamResult {
+        private final int streamId;
+        private final long elapsedInMs;
+        private final Map<Integer, QueryMeasurement> measurements;
+
+        public StreamResult(int streamId, long elapsedInMs, LinkedHashMap<Integer, QueryMeasurement> measurements) {
+            this.streamId = streamId;
+            this.elapsedInMs = elapsedInMs;
+            this.measurements = measurements;
+        }
+
+        public long getElapsedInMs() {
+            return elapsedInMs;
+        }
+
+        public long getFailedQueries() {
+            return measurements.values().stream().filter(m -> m.getOutcome() != QueryOutcome.SUCCESS).count();
+        }
+
+        private Stream<QueryMeasurement> successfulMeasurements() {
+            return measurements.values().stream().filter(m -> m.getOutcome() == QueryOutcome.SUCCESS);
+        }
+
+        // Query id to time in ms, or to the outcome of an execution that did not succeed
+        @Override
+        public String toString() {
+            Map<Integer, Object> queryTimes = new LinkedHashMap<>();
+            measurements.forEach((queryId, m) -> queryTimes.put(queryId,
+                    m.getOutcome() == QueryOutcome.SUCCESS ? (Object) m.getTimeInMs() : m.getOutcome().name().toLowerCase()));
+            return streamId+","+elapsedInMs+","+queryTimes;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package at.sessa.thesisbenchmark;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public enum TpchTable {
+    REGION("R_REGIONKEY INTEGER", "R_NAME CHAR(25)", "R_COMMENT VARCHAR(152)"),
+    NATION("N_NATIONKEY INTEGER", "N_NAME CHAR(25)", "N_REGIONKEY INTEGER", "N_COMMENT VARCHAR(152)"),
+    SUPPLIER("S_SUPPKEY BIGINT", "S_NAME CHAR(25)", "S_ADDRESS VARCHAR(40)", "S_NATIONKEY INTEGER",
+            "S_PHONE CHAR(15)", "S_ACCTBAL DOUBLE", "S_COMMENT VARCHAR(101)"),
+    PART("P_PARTKEY BIGINT", "P_NAME VARCHAR(55)", "P_MFGR CHAR(25)", "P_BRAND CHAR(10)", "P_TYPE VARCHAR(25)",
+            "P_SIZE INTEGER", "P_CONTAINER CHAR(10)", "P_RETAILPRICE DOUBLE", "P_COMMENT VARCHAR(23)"),
+    CUSTOMER("C_CUSTKEY BIGINT", "C_NAME VARCHAR(25)", "C_ADDRESS VARCHAR(40)", "C_NATIONKEY INTEGER",
+            "C_PHONE CHAR(15)", "C_ACCTBAL DOUBLE", "C_MKTSEGMENT CHAR(10)", "C_COMMENT VARCHAR(117)"),
+    PARTSUPP("PS_PARTKEY BIGINT", "PS_SUPPKEY BIGINT", "PS_AVAILQTY BIGINT", "PS_SUPPLYCOST DOUBLE",
+            "PS_COMMENT VARCHAR(199)"),
+    ORDERS("O_ORDERKEY BIGINT", "O_CUSTKEY BIGINT", "O_ORDERSTATUS CHAR(1)", "O_TOTALPRICE DOUBLE",
+            "O_ORDERDATE DATE", "O_ORDERPRIORITY CHAR(15)", "O_CLERK CHAR(15)", "O_SHIPPRIORITY INTEGER",
+            "O_COMMENT VARCHAR(79)"),
+    LINEITEM("L_ORDERKEY BIGINT", "L_PARTKEY BIGINT", "L_SUPPKEY BIGINT", "L_LINENUMBER BIGINT",
+            "L_QUANTITY DOUBLE", "L_EXTENDEDPRICE DOUBLE", "L_DISCOUNT DOUBLE", "L_TAX DOUBLE",
+            "L_RETURNFLAG CHAR(1)", "L_LINESTATUS CHAR(1)", "L_SHIPDATE DATE", "L_COMMITDATE DATE",
+            "L_RECEIPTDATE DATE", "L_SHIPINSTRUCT CHAR(25)", "L_SHIPMODE CHAR(10)", "L_COMMENT VARCHAR(44)");
+
+    private final List<Column> columns;
+
+    TpchTable(String... columnDefinitions) {
+        List<Column> columns = new ArrayList<>();
+        for(String columnDefinition : columnDefinitions) {
+            columns.add(Column.parse(columnDefinition));
+        }
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public String getColumnList() {
+        return columns.stream().map(Column::getName).collect(Collectors.joining(", "));
+    }
+
+    public String getFileName() {
+        return name().toLowerCase() + ".tbl";
+    }
+
+    public static class Column {
+        private static final Pattern DEFINITION = Pattern.compile("(\\w+) (\\w+)(?:\\((\\d+)\\))?");
+
+        private final String name;
+        private final String typeName;
+        private final int length;
+
+        private Column(String name, String typeName, int length) {
+            this.name = name;
+            this.typeName = typeName;
+            this.length = length;
+        }
+
+        private static Column parse(String definition) {
+            Matcher matcher = DEFINITION.matcher(definition);
+            if(!matcher.matches()) {
+                throw new IllegalArgumentException(definition);
+            }
+            int length = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+            return new Column(matcher.group(1), matcher.group(2), length);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int getJdbcType() {
+            switch (typeName) {
+                case "INTEGER": return Types.INTEGER;
+                case "BIGINT": return Types.BIGINT;
+                case "DOUBLE": return Types.DOUBLE;
+                case "DATE": return Types.DATE;
+                case "CHAR": return Types.CHAR;
+                case "VARCHAR": return Types.VARCHAR;
+                default: throw new IllegalArgumentException(typeName);
+            }
+        }
+
+        public int getPrecision() {
+            switch (getJdbcType()) {
+                case Types.INTEGER: return 10;
+                case Types.BIGINT: return 19;
+                case Types.DOUBLE: return 15;
+                case Types.DATE: return 10;
+                default: return length;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package at.sessa.thesisbenchmark;
+
+import at.sessa.thesisbenchmark.service.SessionSettings;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class TuningResult {
+    private final String databaseType;
+    private final List<TuningMeasurement> measurements = new ArrayList<>();
+
+    public TuningResult(String databaseType) {
+        this.databaseType = databaseType;
+    }
+
+    public void addMeasurement(TuningMeasurement measurement) {
+        measurements.add(measurement);
+    }
+
+    public List<TuningMeasurement> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * Fastest settings of every query, among those under which the query succeeded.
+     */
+    public Map<Integer, TuningMeasurement> getBestPerQuery() {
+        Map<Integer, TuningMeasurement> best = new TreeMap<>();
+        for(TuningMeasurement measurement : measurements) {
+            if(!measurement.isFailed()) {
+                best.merge(measurement.queryId, measurement, (a, b) -> b.medianTimeInNs < a.medianTimeInNs ? b : a);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Settings with the smallest geometric mean of the median times of all queries, so that every query weighs the
+     * same regardless of its duration. Settings under which a query failed are not considered. Null if none is left.
+     */
+    public SessionSettings getBest() {
+        SessionSettings best = null;
+        double bestGeometricMean = Double.POSITIVE_INFINITY;
+        for(Map.Entry<SessionSettings, List<TuningMeasurement>> bySettings : bySettings().entrySet()) {
+            if(bySettings.getValue().stream().anyMatch(TuningMeasurement::isFailed)) {
+                continue;
+            }
+            double geometricMean = Math.exp(bySettings.getValue().stream()
+                    .mapToDouble(m -> Math.log(m.medianTimeInNs)).average().orElse(Double.POSITIVE_INFINITY));
+            if(geometricMean < bestGeometricMean) {
+                bestGeometricMean = geometricMean;
+                best = bySettings.getKey();
+            }
+        }
+        return best;
+    }
+
+    private Map<SessionSettings, List<TuningMeasurement>> bySettings() {
+        Map<SessionSettings, List<TuningMeasurement>> bySettings = new LinkedHashMap<>();
+        measurements.forEach(m -> bySettings.computeIfAbsent(m.settings, k -> new ArrayList<>()).add(m));
+        return bySettings;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(databaseType);
+        stringBuilder.append(" query,median (ms),settings\n");
+
+        measurements.forEach(v -> {
+            stringBuilder.append(v);
+            stringBuilder.append("\n");
+        });
+
+        stringBuilder.append(databaseType).append(" best settings per query\n");
+        getBestPerQuery().values().forEach(v -> stringBuilder.append(v).append("\n"));
+        stringBuilder.append(databaseType).append(" best settings overall: ").append(getBest()).append("\n");
+
+        return stringBuilder.toString();
+    }
+
+    public static class TuningMeasurement {
+        private final SessionSettings settings;
+        private final int queryId;
+        private final double medianTimeInNs;
+
+        /**
+         * A median of NaN marks a query that did not succeed under these settings.
+         */
+        public TuningMeasurement(SessionSettings settings, int queryId, double medianTimeInNs) {
+            this.settings = settings;
+            this.queryId = queryId;
+            this.medianTimeInNs = medianTimeInNs;
+        }
+
+        public SessionSettings getSettings() {
+            return settings;
+        }
+
+        public int getQueryId() {
+            return queryId;
+        }
+
+        public double getMedianTimeInNs() {
+            return medianTimeInNs;
+        }
+
+        public boolean isFailed() {
+            return Double.isNaN(medianTimeInNs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d,%s,%s", queryId, isFailed() ? "FAILED" : String.format(Locale.ROOT, "%.3f", medianTimeInNs / 1e6), settings);
+        }
+    }
+}
@@ -7,7 +7,10 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 
 public class Utility {
-    public static void execRuntime(String command) {
+    /**
+     * Executes a command, logs its output and returns its exit code, or -1 if it could not be executed.
+     */
+    public static int execRuntime(String command) {
         Logger logger = LoggerFactory.getLogger(Utility.class);
         try {
             Runtime rt = Runtime.getRuntime();
@@ -27,8 +30,38 @@ public class Utility {
             while ((s = stdError.readLine()) != null) {
                 logger.info(s);
             }
+
+            // Callers rely on the command having finished, e.g. on docker stop having stopped the container
+            return proc.waitFor();
+        } catch (Exception e) {
+            logger.error("Error while executing command", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Executes a command like execRuntime and throws if it did not exit with 0.
+     */
+    public static void execRuntimeChecked(String command) {
+        int exitCode = execRuntime(command);
+        if(exitCode != 0) {
+            throw new IllegalStateException("Command exited with " + exitCode + ": " + command);
+        }
+    }
+
+    /**
+     * Executes a command and returns its standard output, or an empty string if it could not be executed.
+     */
+    public static String execRuntimeOutput(String command) {
+        Logger logger = LoggerFactory.getLogger(Utility.class);
+        try {
+            Process proc = Runtime.getRuntime().exec(command);
+            String output = new String(proc.getInputStream().readAllBytes());
+            proc.waitFor();
+            return output;
         } catch (Exception e) {
             logger.error("Error while executing command", e);
+            return "";
         }
     }
 }
@@ -0,0 +1,29 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.cache")
+public class CacheProperties {
+    // Flushes all caches before the cold execution of every query instead of just running it first
+    private boolean trueCold = false;
+    // Reads all tables into the caches before the hot executions of every query
+    private boolean prewarm = false;
+
+    public boolean isTrueCold() {
+        return trueCold;
+    }
+
+    public void setTrueCold(boolean trueCold) {
+        this.trueCold = trueCold;
+    }
+
+    public boolean isPrewarm() {
+        return prewarm;
+    }
+
+    public void setPrewarm(boolean prewarm) {
+        this.prewarm = prewarm;
+    }
+}
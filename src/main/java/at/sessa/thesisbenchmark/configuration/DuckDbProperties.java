@@ -0,0 +1,37 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.duckdb")
+public class DuckDbProperties {
+    private String databasePath = "duckdb/thesisbenchmark.duckdb";
+    // Same limits as the docker containers of the other targets
+    private String memoryLimit = "32GB";
+    private int threads = 8;
+
+    public String getDatabasePath() {
+        return databasePath;
+    }
+
+    public void setDatabasePath(String databasePath) {
+        this.databasePath = databasePath;
+    }
+
+    public String getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public void setMemoryLimit(String memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
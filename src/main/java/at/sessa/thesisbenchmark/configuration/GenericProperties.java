@@ -3,11 +3,16 @@ package at.sessa.thesisbenchmark.configuration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @ConfigurationProperties(prefix = "at.sessa.thesisbenchmark")
 public class GenericProperties {
     private String scaleFactor;
     private String dockerTestdataMountPath;
+    private int fetchSize = 1000;
+    // Names of the targets to benchmark in this order, see BenchmarkTarget.getName
+    private List<String> targets = List.of("postgres-row", "postgres-column", "mssql-row", "mssql-column");
 
     public String getDockerTestdataMountPath() {
         return dockerTestdataMountPath;
@@ -17,6 +22,22 @@ public class GenericProperties {
         this.dockerTestdataMountPath = dockerTestdataMountPath;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public List<String> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<String> targets) {
+        this.targets = targets;
+    }
+
     public String getScaleFactor() {
         return scaleFactor;
     }
@@ -24,4 +45,11 @@ public class GenericProperties {
     public void setScaleFactor(String scaleFactor) {
         this.scaleFactor = scaleFactor;
     }
+
+    /**
+     * The scale factor as a number, taken from the digits of the test data directory name, e.g. 100 for scale100.
+     */
+    public double getNumericScaleFactor() {
+        return Double.parseDouble(scaleFactor.replaceAll("[^0-9.]", ""));
+    }
 }
@@ -0,0 +1,86 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.htap")
+public class HtapProperties {
+    // Runs the query set again while OLTP transactions are issued against the same tables
+    private boolean enabled = false;
+    // Transactions started per second, independent of how fast earlier ones complete
+    private int ratePerSecond = 200;
+    // Threads executing the transactions, each holds at most one connection of the OLTP pool
+    private int workers = 8;
+    // Relative shares of order lookups, new orders and order status updates
+    private int lookupWeight = 80;
+    private int insertWeight = 10;
+    private int updateWeight = 10;
+    // Transactions still queued when the query set is done are given this long to complete
+    private long drainTimeoutInMs = 30_000;
+    private long seed = 19920501L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getLookupWeight() {
+        return lookupWeight;
+    }
+
+    public void setLookupWeight(int lookupWeight) {
+        this.lookupWeight = lookupWeight;
+    }
+
+    public int getInsertWeight() {
+        return insertWeight;
+    }
+
+    public void setInsertWeight(int insertWeight) {
+        this.insertWeight = insertWeight;
+    }
+
+    public int getUpdateWeight() {
+        return updateWeight;
+    }
+
+    public void setUpdateWeight(int updateWeight) {
+        this.updateWeight = updateWeight;
+    }
+
+    public long getDrainTimeoutInMs() {
+        return drainTimeoutInMs;
+    }
+
+    public void setDrainTimeoutInMs(long drainTimeoutInMs) {
+        this.drainTimeoutInMs = drainTimeoutInMs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,28 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.journal")
+public class JournalProperties {
+    // Persists the completed steps of a run and resumes an interrupted run instead of starting a new one
+    private boolean enabled = false;
+    private String directory = "journal";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+}
@@ -0,0 +1,70 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.load")
+public class LoadProperties {
+    // Number of tables loaded, and key/index statements executed, concurrently
+    private int parallelism = 4;
+    // "server" lets the database read the .tbl files from the bind mount, "client" streams them from this process,
+    // "generate" streams rows from the built-in TPC-H generator without any .tbl files
+    private String mode = "server";
+    private int workersPerTable = 2;
+    private int chunkSizeInMb = 256;
+    // Rows per generated chunk, orders for LINEITEM
+    private long generatorChunkSize = 100_000;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public boolean isServerMode() {
+        return "server".equalsIgnoreCase(mode);
+    }
+
+    public boolean isClientMode() {
+        return "client".equalsIgnoreCase(mode);
+    }
+
+    public boolean isGenerateMode() {
+        return "generate".equalsIgnoreCase(mode);
+    }
+
+    public int getWorkersPerTable() {
+        return workersPerTable;
+    }
+
+    public void setWorkersPerTable(int workersPerTable) {
+        this.workersPerTable = workersPerTable;
+    }
+
+    public int getChunkSizeInMb() {
+        return chunkSizeInMb;
+    }
+
+    public void setChunkSizeInMb(int chunkSizeInMb) {
+        this.chunkSizeInMb = chunkSizeInMb;
+    }
+
+    public long getGeneratorChunkSize() {
+        return generatorChunkSize;
+    }
+
+    public void setGeneratorChunkSize(long generatorChunkSize) {
+        this.generatorChunkSize = generatorChunkSize;
+    }
+}
@@ -0,0 +1,49 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.pool")
+public class PoolProperties {
+    // Without a pool every getConnection opens a new physical connection including the login
+    private boolean enabled = true;
+    // Should cover the largest number of throughput streams and of concurrent load workers
+    private int size = 16;
+    // Opens all connections of the pool before it is used
+    private boolean prewarm = true;
+    // 0 waits indefinitely, loads hold their connections for minutes
+    private long connectionTimeoutInMs = 0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isPrewarm() {
+        return prewarm;
+    }
+
+    public void setPrewarm(boolean prewarm) {
+        this.prewarm = prewarm;
+    }
+
+    public long getConnectionTimeoutInMs() {
+        return connectionTimeoutInMs;
+    }
+
+    public void setConnectionTimeoutInMs(long connectionTimeoutInMs) {
+        this.connectionTimeoutInMs = connectionTimeoutInMs;
+    }
+}
@@ -0,0 +1,42 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.queries")
+public class QueryProperties {
+    // "validation" issues every query with the validation parameters, "random" draws new ones per execution
+    private String parameters = "validation";
+    private long seed = 1;
+    // Executes the queries as prepared statements with bound parameters instead of literals
+    private boolean prepared = false;
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public boolean isRandomParameters() {
+        return "random".equalsIgnoreCase(parameters);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isPrepared() {
+        return prepared;
+    }
+
+    public void setPrepared(boolean prepared) {
+        this.prepared = prepared;
+    }
+}
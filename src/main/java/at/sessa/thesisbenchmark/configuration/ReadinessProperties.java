@@ -0,0 +1,37 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.readiness")
+public class ReadinessProperties {
+    private long initialBackoffInMs = 250;
+    private long maxBackoffInMs = 5000;
+    // Overall time a datasource may take to become ready before the run is aborted
+    private long timeoutInSeconds = 600;
+
+    public long getInitialBackoffInMs() {
+        return initialBackoffInMs;
+    }
+
+    public void setInitialBackoffInMs(long initialBackoffInMs) {
+        this.initialBackoffInMs = initialBackoffInMs;
+    }
+
+    public long getMaxBackoffInMs() {
+        return maxBackoffInMs;
+    }
+
+    public void setMaxBackoffInMs(long maxBackoffInMs) {
+        this.maxBackoffInMs = maxBackoffInMs;
+    }
+
+    public long getTimeoutInSeconds() {
+        return timeoutInSeconds;
+    }
+
+    public void setTimeoutInSeconds(long timeoutInSeconds) {
+        this.timeoutInSeconds = timeoutInSeconds;
+    }
+}
@@ -0,0 +1,38 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.refresh")
+public class RefreshProperties {
+    private boolean enabled = false;
+    // Number of RF1/RF2 pairs, each inserts and deletes 0.1% of the orders with their line items
+    private int pairs = 2;
+    // Runs the query set again after the refresh functions to measure reads on the modified tables
+    private boolean rerunQueries = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPairs() {
+        return pairs;
+    }
+
+    public void setPairs(int pairs) {
+        this.pairs = pairs;
+    }
+
+    public boolean isRerunQueries() {
+        return rerunQueries;
+    }
+
+    public void setRerunQueries(boolean rerunQueries) {
+        this.rerunQueries = rerunQueries;
+    }
+}
@@ -0,0 +1,64 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.repetition")
+public class RepetitionProperties {
+    private int warmupIterations = 0;
+    private int measuredIterations = 1;
+    private boolean adaptive = false;
+    private double confidenceLevel = 0.95;
+    // Target half width of the confidence interval relative to the mean
+    private double targetRelativeError = 0.05;
+    private int maxIterations = 30;
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+
+    public int getMeasuredIterations() {
+        return measuredIterations;
+    }
+
+    public void setMeasuredIterations(int measuredIterations) {
+        this.measuredIterations = measuredIterations;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public double getTargetRelativeError() {
+        return targetRelativeError;
+    }
+
+    public void setTargetRelativeError(double targetRelativeError) {
+        this.targetRelativeError = targetRelativeError;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+}
@@ -0,0 +1,50 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.resources")
+public class ResourceProperties {
+    private boolean enabled = false;
+    private long sampleIntervalInMs = 100;
+    // "target" reads the cgroup of the target container, "process" samples this process as a stand-in for testing
+    private String probe = "target";
+    private String cgroupRoot = "/sys/fs/cgroup";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSampleIntervalInMs() {
+        return sampleIntervalInMs;
+    }
+
+    public void setSampleIntervalInMs(long sampleIntervalInMs) {
+        this.sampleIntervalInMs = sampleIntervalInMs;
+    }
+
+    public String getProbe() {
+        return probe;
+    }
+
+    public void setProbe(String probe) {
+        this.probe = probe;
+    }
+
+    public boolean isProcessProbe() {
+        return "process".equalsIgnoreCase(probe);
+    }
+
+    public String getCgroupRoot() {
+        return cgroupRoot;
+    }
+
+    public void setCgroupRoot(String cgroupRoot) {
+        this.cgroupRoot = cgroupRoot;
+    }
+}
@@ -0,0 +1,47 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.results")
+public class ResultStoreProperties {
+    private String directory = "results";
+    // Run to compare each target against, "previous" for the latest earlier run of the target, empty to not compare
+    private String baselineRunId = "previous";
+    private double significanceLevel = 0.05;
+    // Significant changes smaller than this, relative to the baseline mean, are not reported
+    private double minRelativeChange = 0.05;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getBaselineRunId() {
+        return baselineRunId;
+    }
+
+    public void setBaselineRunId(String baselineRunId) {
+        this.baselineRunId = baselineRunId;
+    }
+
+    public double getSignificanceLevel() {
+        return significanceLevel;
+    }
+
+    public void setSignificanceLevel(double significanceLevel) {
+        this.significanceLevel = significanceLevel;
+    }
+
+    public double getMinRelativeChange() {
+        return minRelativeChange;
+    }
+
+    public void setMinRelativeChange(double minRelativeChange) {
+        this.minRelativeChange = minRelativeChange;
+    }
+}
@@ -0,0 +1,47 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.snapshot")
+public class SnapshotProperties {
+    private boolean enabled = false;
+    private String directory = "snapshots";
+    // Least recently used snapshots are deleted once all snapshots together exceed this size
+    private long diskBudgetInGb = 500;
+    // Loads every target from scratch and replaces its snapshot
+    private boolean forceReload = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getDiskBudgetInGb() {
+        return diskBudgetInGb;
+    }
+
+    public void setDiskBudgetInGb(long diskBudgetInGb) {
+        this.diskBudgetInGb = diskBudgetInGb;
+    }
+
+    public boolean isForceReload() {
+        return forceReload;
+    }
+
+    public void setForceReload(boolean forceReload) {
+        this.forceReload = forceReload;
+    }
+}
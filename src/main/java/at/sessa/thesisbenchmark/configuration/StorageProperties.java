@@ -0,0 +1,46 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.storage")
+public class StorageProperties {
+    // Values of the ${...} placeholders in the schema scripts, by placeholder name
+    private Map<String, String> options = new LinkedHashMap<>(Map.of(
+            "cstore-compression", "none",
+            "cstore-stripe-row-count", "150000",
+            "cstore-block-row-count", "10000",
+            "columnstore-compression", "COLUMNSTORE"));
+    // Benchmarks every target once per combination of the grid values of the placeholders in its schema
+    private boolean sweep = false;
+    private Map<String, List<String>> grid = new LinkedHashMap<>();
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public boolean isSweep() {
+        return sweep;
+    }
+
+    public void setSweep(boolean sweep) {
+        this.sweep = sweep;
+    }
+
+    public Map<String, List<String>> getGrid() {
+        return grid;
+    }
+
+    public void setGrid(Map<String, List<String>> grid) {
+        this.grid = grid;
+    }
+}
@@ -0,0 +1,41 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.sweep")
+public class SweepProperties {
+    private boolean enabled = false;
+    // Test data directory names like scaleFactor, every one runs the full setup and benchmark in this order
+    private List<String> scaleFactors = new ArrayList<>();
+    // Queries whose time grows with a larger exponent of the scale factor are flagged as super-linear
+    private double superLinearExponent = 1.1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getScaleFactors() {
+        return scaleFactors;
+    }
+
+    public void setScaleFactors(List<String> scaleFactors) {
+        this.scaleFactors = scaleFactors;
+    }
+
+    public double getSuperLinearExponent() {
+        return superLinearExponent;
+    }
+
+    public void setSuperLinearExponent(double superLinearExponent) {
+        this.superLinearExponent = superLinearExponent;
+    }
+}
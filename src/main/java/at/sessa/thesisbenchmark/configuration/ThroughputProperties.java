@@ -0,0 +1,49 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.throughput")
+public class ThroughputProperties {
+    private boolean enabled = false;
+    private List<Integer> streams = new ArrayList<>(List.of(1, 2, 4, 8));
+    // "platform" or "virtual"; virtual threads need a JVM that provides them
+    private String executor = "platform";
+    private long seed = 19920501L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Integer> getStreams() {
+        return streams;
+    }
+
+    public void setStreams(List<Integer> streams) {
+        this.streams = streams;
+    }
+
+    public String getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(String executor) {
+        this.executor = executor;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
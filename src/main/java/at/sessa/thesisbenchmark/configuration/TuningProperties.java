@@ -0,0 +1,80 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.tuning")
+public class TuningProperties {
+    private boolean enabled = false;
+    private List<Integer> queries = List.of(1, 3, 6, 10, 18);
+    private List<Integer> fetchSizes = List.of(100, 1000, 10000);
+    // Alternatives to the driver defaults by vendor, each one a list of driver properties like binaryTransfer=true;prepareThreshold=-1
+    private Map<String, List<String>> connectionOptions = new HashMap<>();
+    // Alternatives to the server defaults by vendor, each one a statement run on every new connection
+    private Map<String, List<String>> sessionStatements = new HashMap<>();
+    // Measured executions per query and configuration after one warm-up execution
+    private int iterations = 3;
+    // Runs the benchmark of the target with the best configuration instead of the defaults
+    private boolean apply = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Integer> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<Integer> queries) {
+        this.queries = queries;
+    }
+
+    public List<Integer> getFetchSizes() {
+        return fetchSizes;
+    }
+
+    public void setFetchSizes(List<Integer> fetchSizes) {
+        this.fetchSizes = fetchSizes;
+    }
+
+    public Map<String, List<String>> getConnectionOptions() {
+        return connectionOptions;
+    }
+
+    public void setConnectionOptions(Map<String, List<String>> connectionOptions) {
+        this.connectionOptions = connectionOptions;
+    }
+
+    public Map<String, List<String>> getSessionStatements() {
+        return sessionStatements;
+    }
+
+    public void setSessionStatements(Map<String, List<String>> sessionStatements) {
+        this.sessionStatements = sessionStatements;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public boolean isApply() {
+        return apply;
+    }
+
+    public void setApply(boolean apply) {
+        this.apply = apply;
+    }
+}
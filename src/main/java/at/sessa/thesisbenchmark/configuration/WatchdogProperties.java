@@ -0,0 +1,54 @@
+package at.sessa.thesisbenchmark.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "at.sessa.thesisbenchmark.watchdog")
+public class WatchdogProperties {
+    private boolean enabled = true;
+    private long budgetInSeconds = 3600;
+    // Budgets of single queries by query number, overriding budgetInSeconds
+    private Map<Integer, Long> queryBudgetsInSeconds = new HashMap<>();
+    // Time a cancelled query gets to end before its session is killed
+    private long killGraceInSeconds = 30;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getBudgetInSeconds() {
+        return budgetInSeconds;
+    }
+
+    public void setBudgetInSeconds(long budgetInSeconds) {
+        this.budgetInSeconds = budgetInSeconds;
+    }
+
+    public Map<Integer, Long> getQueryBudgetsInSeconds() {
+        return queryBudgetsInSeconds;
+    }
+
+    public void setQueryBudgetsInSeconds(Map<Integer, Long> queryBudgetsInSeconds) {
+        this.queryBudgetsInSeconds = queryBudgetsInSeconds;
+    }
+
+    public long getBudgetInSeconds(int queryId) {
+        return queryBudgetsInSeconds.getOrDefault(queryId, budgetInSeconds);
+    }
+
+    public long getKillGraceInSeconds() {
+        return killGraceInSeconds;
+    }
+
+    public void setKillGraceInSeconds(long killGraceInSeconds) {
+        this.killGraceInSeconds = killGraceInSeconds;
+    }
+}
@@ -0,0 +1,77 @@
+package at.sessa.thesisbenchmark.generator;
+
+import at.sessa.thesisbenchmark.TpchTable;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Produces the rows of a unit range lazily while it is read, so a chunk never exists as a whole in memory.
+ */
+class GeneratingInputStream extends InputStream {
+    private static final int REFILL_SIZE = 64 * 1024;
+
+    private final TpchGenerator generator;
+    private final TpchTable table;
+    private final long endUnit;
+    private final boolean refresh;
+    private final StringBuilder text = new StringBuilder(REFILL_SIZE + 4096);
+    private long nextUnit;
+    private byte[] buffer = new byte[0];
+    private int position;
+
+    GeneratingInputStream(TpchGenerator generator, TpchTable table, long firstUnit, long endUnit, boolean refresh) {
+        this.generator = generator;
+        this.table = table;
+        this.nextUnit = firstUnit;
+        this.endUnit = endUnit;
+        this.refresh = refresh;
+    }
+
+    @Override
+    public int read() {
+        if(!ensureAvailable()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if(len == 0) {
+            return 0;
+        }
+        if(!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.length - position;
+    }
+
+    private boolean ensureAvailable() {
+        if(position < buffer.length) {
+            return true;
+        }
+        if(nextUnit >= endUnit) {
+            return false;
+        }
+        text.setLength(0);
+        while(nextUnit < endUnit && text.length() < REFILL_SIZE) {
+            if(refresh) {
+                generator.appendRefreshUnit(table, nextUnit++, text);
+            } else {
+                generator.appendUnit(table, nextUnit++, text);
+            }
+        }
+        buffer = text.toString().getBytes(StandardCharsets.US_ASCII);
+        position = 0;
+        return true;
+    }
+}
@@ -0,0 +1,160 @@
+package at.sessa.thesisbenchmark.generator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Substitution parameters for the 22 query templates, numbered like the :n placeholders of the templates.
+ * Without a seed every query gets the validation parameters of the specification (clause 2.4), with a seed the
+ * parameters are drawn like qgen does from the domains of clause 2.4. Each query draws from its own sequence, so
+ * two runs with the same seed issue the same parameters in the same order even if they execute other queries
+ * a different number of times.
+ */
+public class SubstitutionParameters {
+    private static final String[] CONTAINS_WORDS_1 = {"special", "pending", "unusual", "express"};
+    private static final String[] CONTAINS_WORDS_2 = {"packages", "requests", "accounts", "deposits"};
+
+    private final Long seed;
+    private final double scaleFactor;
+    private final Map<Integer, Random> randoms = new HashMap<>();
+
+    public SubstitutionParameters(Long seed, double scaleFactor) {
+        this.seed = seed;
+        this.scaleFactor = scaleFactor;
+    }
+
+    public static SubstitutionParameters validation() {
+        return new SubstitutionParameters(null, 1);
+    }
+
+    public synchronized List<Object> next(int query) {
+        if(seed == null) {
+            return validationParameters(query);
+        }
+        Random random = randoms.computeIfAbsent(query, q -> new Random(seed * 31 + q));
+        switch (query) {
+            case 1: return List.of(uniform(random, 60, 120));
+            case 2: return List.of(uniform(random, 1, 50), "%" + pick(random, TpchGenerator.TYPE_MATERIALS), pick(random, TpchGenerator.REGIONS));
+            case 3: return List.of(pick(random, TpchGenerator.SEGMENTS), LocalDate.of(1995, 3, uniform(random, 1, 31)));
+            case 4: return List.of(firstOfMonth(random, 1993, 1, 58));
+            case 5: return List.of(pick(random, TpchGenerator.REGIONS), firstOfYear(random));
+            case 6: return List.of(firstOfYear(random), BigDecimal.valueOf(uniform(random, 2, 9), 2), uniform(random, 24, 25));
+            case 7: {
+                List<String> nations = distinct(random, nationNames(), 2);
+                return List.of(nations.get(0), nations.get(1));
+            }
+            case 8: {
+                String[] nation = TpchGenerator.NATIONS[random.nextInt(TpchGenerator.NATIONS.length)];
+                return List.of(nation[0], TpchGenerator.REGIONS[Integer.parseInt(nation[1])], pick(random, TpchGenerator.TYPE_SIZES)
+                        + " " + pick(random, TpchGenerator.TYPE_FINISHES) + " " + pick(random, TpchGenerator.TYPE_MATERIALS));
+            }
+            case 9: return List.of("%" + pick(random, TpchGenerator.COLORS) + "%");
+            case 10: return List.of(firstOfMonth(random, 1993, 2, 24));
+            case 11: return List.of(pick(random, nationNames()),
+                    BigDecimal.valueOf(0.0001).divide(BigDecimal.valueOf(scaleFactor), 10, RoundingMode.HALF_UP));
+            case 12: {
+                List<String> shipModes = distinct(random, TpchGenerator.SHIP_MODES, 2);
+                return List.of(shipModes.get(0), shipModes.get(1), firstOfYear(random));
+            }
+            case 13: return List.of("%" + pick(random, CONTAINS_WORDS_1) + "%" + pick(random, CONTAINS_WORDS_2) + "%");
+            case 14: return List.of(firstOfMonth(random, 1993, 1, 60));
+            case 15: return List.of(firstOfMonth(random, 1993, 1, 58));
+            case 16: {
+                List<Object> parameters = new ArrayList<>();
+                parameters.add(brand(random));
+                parameters.add(pick(random, TpchGenerator.TYPE_SIZES) + " " + pick(random, TpchGenerator.TYPE_FINISHES) + "%");
+                List<Integer> sizes = new ArrayList<>();
+                while(sizes.size() < 8) {
+                    int size = uniform(random, 1, 50);
+                    if(!sizes.contains(size)) {
+                        sizes.add(size);
+                    }
+                }
+                parameters.addAll(sizes);
+                return parameters;
+            }
+            case 17: return List.of(brand(random), pick(random, TpchGenerator.CONTAINER_SIZES) + " " + pick(random, TpchGenerator.CONTAINER_TYPES));
+            case 18: return List.of(uniform(random, 312, 315));
+            case 19: return List.of(uniform(random, 1, 10), uniform(random, 10, 20), uniform(random, 20, 30),
+                    brand(random), brand(random), brand(random));
+            case 20: return List.of(pick(random, TpchGenerator.COLORS) + "%", firstOfYear(random), pick(random, nationNames()));
+            case 21: return List.of(pick(random, nationNames()));
+            case 22: {
+                List<String> countryCodes = new ArrayList<>();
+                for(int i = 0; i < TpchGenerator.NATIONS.length; i++) {
+                    countryCodes.add(Integer.toString(i + 10));
+                }
+                return new ArrayList<>(distinct(random, countryCodes.toArray(new String[0]), 7));
+            }
+            default: throw new IllegalArgumentException("No query " + query);
+        }
+    }
+
+    static List<Object> validationParameters(int query) {
+        switch (query) {
+            case 1: return List.of(90);
+            case 2: return List.of(15, "%BRASS", "EUROPE");
+            case 3: return List.of("BUILDING", LocalDate.of(1995, 3, 15));
+            case 4: return List.of(LocalDate.of(1993, 7, 1));
+            case 5: return List.of("ASIA", LocalDate.of(1994, 1, 1));
+            case 6: return List.of(LocalDate.of(1994, 1, 1), new BigDecimal("0.06"), 24);
+            case 7: return List.of("FRANCE", "GERMANY");
+            case 8: return List.of("BRAZIL", "AMERICA", "ECONOMY ANODIZED STEEL");
+            case 9: return List.of("%green%");
+            case 10: return List.of(LocalDate.of(1993, 10, 1));
+            case 11: return List.of("GERMANY", new BigDecimal("0.0001000000"));
+            case 12: return List.of("MAIL", "SHIP", LocalDate.of(1994, 1, 1));
+            case 13: return List.of("%special%requests%");
+            case 14: return List.of(LocalDate.of(1995, 9, 1));
+            case 15: return List.of(LocalDate.of(1996, 1, 1));
+            case 16: return List.of("Brand#45", "MEDIUM POLISHED%", 49, 14, 23, 45, 19, 3, 36, 9);
+            case 17: return List.of("Brand#23", "MED BOX");
+            case 18: return List.of(300);
+            case 19: return List.of(1, 10, 20, "Brand#12", "Brand#23", "Brand#34");
+            case 20: return List.of("forest%", LocalDate.of(1994, 1, 1), "CANADA");
+            case 21: return List.of("SAUDI ARABIA");
+            case 22: return List.of("13", "31", "23", "29", "30", "18", "17");
+            default: throw new IllegalArgumentException("No query " + query);
+        }
+    }
+
+    private static int uniform(Random random, int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String brand(Random random) {
+        return "Brand#" + uniform(random, 1, 5) + uniform(random, 1, 5);
+    }
+
+    private static LocalDate firstOfYear(Random random) {
+        return LocalDate.of(uniform(random, 1993, 1997), 1, 1);
+    }
+
+    private static LocalDate firstOfMonth(Random random, int year, int month, int months) {
+        return LocalDate.of(year, month, 1).plusMonths(random.nextInt(months));
+    }
+
+    private static String[] nationNames() {
+        return Arrays.stream(TpchGenerator.NATIONS).map(n -> n[0]).toArray(String[]::new);
+    }
+
+    private static List<String> distinct(Random random, String[] values, int count) {
+        List<String> remaining = new ArrayList<>(Arrays.asList(values));
+        List<String> picked = new ArrayList<>();
+        while(picked.size() < count) {
+            picked.add(remaining.remove(random.nextInt(remaining.size())));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,452 @@
+package at.sessa.thesisbenchmark.generator;
+
+import at.sessa.thesisbenchmark.TpchTable;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator for the TPC-H tables. Cardinalities, key structure and value domains follow the
+ * specification (clause 4.2.3), free text is drawn from the dbgen vocabulary instead of its grammar. Every row,
+ * and every order together with its line items, is generated from its own seed, so any range of rows can be
+ * produced independently and the output does not depend on how a table is split into chunks.
+ *
+ * Rows are written '|' delimited without a trailing delimiter, one row per line.
+ */
+public class TpchGenerator {
+    private static final long START_DATE = LocalDate.of(1992, 1, 1).toEpochDay();
+    private static final long CURRENT_DATE = LocalDate.of(1995, 6, 17).toEpochDay();
+    private static final long END_DATE = LocalDate.of(1998, 12, 31).toEpochDay();
+    private static final String[] DATES = new String[(int) (END_DATE - START_DATE + 1)];
+
+    static {
+        for(int i = 0; i < DATES.length; i++) {
+            DATES[i] = LocalDate.ofEpochDay(START_DATE + i).toString();
+        }
+    }
+
+    static final String[][] NATIONS = {
+            {"ALGERIA", "0"}, {"ARGENTINA", "1"}, {"BRAZIL", "1"}, {"CANADA", "1"}, {"EGYPT", "4"},
+            {"ETHIOPIA", "0"}, {"FRANCE", "3"}, {"GERMANY", "3"}, {"INDIA", "2"}, {"INDONESIA", "2"},
+            {"IRAN", "4"}, {"IRAQ", "4"}, {"JAPAN", "2"}, {"JORDAN", "4"}, {"KENYA", "0"},
+            {"MOROCCO", "0"}, {"MOZAMBIQUE", "0"}, {"PERU", "1"}, {"CHINA", "2"}, {"ROMANIA", "3"},
+            {"SAUDI ARABIA", "4"}, {"VIETNAM", "2"}, {"RUSSIA", "3"}, {"UNITED KINGDOM", "3"}, {"UNITED STATES", "1"}
+    };
+    static final String[] REGIONS = {"AFRICA", "AMERICA", "ASIA", "EUROPE", "MIDDLE EAST"};
+    static final String[] COLORS = {
+            "almond", "antique", "aquamarine", "azure", "beige", "bisque", "black", "blanched", "blue", "blush",
+            "brown", "burlywood", "burnished", "chartreuse", "chiffon", "chocolate", "coral", "cornflower",
+            "cornsilk", "cream", "cyan", "dark", "deep", "dim", "dodger", "drab", "firebrick", "floral", "forest",
+            "frosted", "gainsboro", "ghost", "goldenrod", "green", "grey", "honeydew", "hot", "indian", "ivory",
+            "khaki", "lace", "lavender", "lawn", "lemon", "light", "lime", "linen", "magenta", "maroon", "medium",
+            "metallic", "midnight", "mint", "misty", "moccasin", "navajo", "navy", "olive", "orange", "orchid",
+            "pale", "papaya", "peach", "peru", "pink", "plum", "powder", "puff", "purple", "red", "rose", "rosy",
+            "royal", "saddle", "salmon", "sandy", "seashell", "sienna", "sky", "slate", "smoke", "snow", "spring",
+            "steel", "tan", "thistle", "tomato", "turquoise", "violet", "wheat", "white", "yellow"
+    };
+    static final String[] TYPE_SIZES = {"STANDARD", "SMALL", "MEDIUM", "LARGE", "ECONOMY", "PROMO"};
+    static final String[] TYPE_FINISHES = {"ANODIZED", "BURNISHED", "PLATED", "POLISHED", "BRUSHED"};
+    static final String[] TYPE_MATERIALS = {"TIN", "NICKEL", "BRASS", "STEEL", "COPPER"};
+    static final String[] CONTAINER_SIZES = {"SM", "LG", "MED", "JUMBO", "WRAP"};
+    static final String[] CONTAINER_TYPES = {"CASE", "BOX", "BAG", "JAR", "PKG", "PACK", "CAN", "DRUM"};
+    static final String[] SEGMENTS = {"AUTOMOBILE", "BUILDING", "FURNITURE", "MACHINERY", "HOUSEHOLD"};
+    private static final String[] PRIORITIES = {"1-URGENT", "2-HIGH", "3-MEDIUM", "4-NOT SPECIFIED", "5-LOW"};
+    private static final String[] INSTRUCTIONS = {"DELIVER IN PERSON", "COLLECT COD", "NONE", "TAKE BACK RETURN"};
+    static final String[] SHIP_MODES = {"REG AIR", "AIR", "RAIL", "SHIP", "TRUCK", "MAIL", "FOB"};
+    private static final String[] WORDS = {
+            "foxes", "ideas", "theodolites", "pinto", "beans", "instructions", "dependencies", "excuses",
+            "platelets", "asymptotes", "courts", "dolphins", "multipliers", "sauternes", "warthogs", "frets",
+            "dinos", "attainments", "somas", "patterns", "forges", "braids", "frays", "warhorses", "dugouts",
+            "epitaphs", "pearls", "tithes", "waters", "orbits", "gifts", "sheaves", "depths", "sentiments",
+            "decoys", "realms", "pains", "grouches", "escapades", "accounts", "deposits", "packages", "requests",
+            "sleep", "wake", "are", "cajole", "haggle", "nag", "use", "boost", "affix", "detect", "integrate",
+            "maintain", "nod", "was", "lose", "sublate", "solve", "thrash", "promise", "engage", "hinder",
+            "print", "breach", "eat", "grow", "impress", "mold", "poach", "serve", "run", "dazzle", "snooze",
+            "furious", "sly", "careful", "blithe", "quick", "fluffy", "slow", "quiet", "ruthless", "thin",
+            "close", "dogged", "daring", "brave", "stealthy", "permanent", "enticing", "idle", "busy", "regular",
+            "final", "ironic", "even", "bold", "silent", "special", "pending", "unusual", "express",
+            "furiously", "slyly", "carefully", "blithely", "quickly", "fluffily", "slowly", "quietly",
+            "ruthlessly", "thinly", "closely", "doggedly", "daringly", "bravely", "stealthily", "permanently",
+            "about", "above", "across", "after", "against", "along", "among", "around", "atop", "before",
+            "behind", "beneath", "beside", "between", "beyond", "despite", "during", "except", "from", "inside",
+            "into", "near", "outside", "over", "past", "since", "through", "toward", "under", "until", "upon",
+            "without", "within", "the"
+    };
+    private static final char[] ADDRESS_CHARACTERS =
+            "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ,. ".toCharArray();
+
+    private final long supplierCount;
+    private final long partCount;
+    private final long customerCount;
+    private final long orderCount;
+    private final long clerkCount;
+
+    public TpchGenerator(double scaleFactor) {
+        this.supplierCount = Math.max(1, (long) (scaleFactor * 10_000));
+        this.partCount = Math.max(1, (long) (scaleFactor * 200_000));
+        this.customerCount = Math.max(3, (long) (scaleFactor * 150_000));
+        this.orderCount = Math.max(1, (long) (scaleFactor * 1_500_000));
+        this.clerkCount = Math.max(1, (long) (scaleFactor * 1_000));
+    }
+
+    /**
+     * Number of generation units of a table. Line items are generated per order, so for LINEITEM this is the
+     * number of orders.
+     */
+    public long unitCount(TpchTable table) {
+        switch (table) {
+            case REGION: return REGIONS.length;
+            case NATION: return NATIONS.length;
+            case SUPPLIER: return supplierCount;
+            case PART:
+            case PARTSUPP: return partCount;
+            case CUSTOMER: return customerCount;
+            case ORDERS:
+            case LINEITEM: return orderCount;
+            default: throw new IllegalArgumentException(table.name());
+        }
+    }
+
+    /**
+     * Rough size of the generated text, based on the average row widths of dbgen output.
+     */
+    public long estimatedBytes(TpchTable table) {
+        switch (table) {
+            case SUPPLIER: return supplierCount * 140;
+            case PART: return partCount * 120;
+            case PARTSUPP: return partCount * 4 * 145;
+            case CUSTOMER: return customerCount * 160;
+            case ORDERS: return orderCount * 110;
+            case LINEITEM: return orderCount * 4 * 125;
+            default: return unitCount(table) * 100;
+        }
+    }
+
+    public InputStream openChunk(TpchTable table, long firstUnit, long endUnit) {
+        return new GeneratingInputStream(this, table, firstUnit, endUnit, false);
+    }
+
+    /**
+     * Rows of the refresh orders with the given zero based indexes, for ORDERS or LINEITEM.
+     */
+    public InputStream openRefreshChunk(TpchTable table, long firstIndex, long endIndex) {
+        return new GeneratingInputStream(this, table, firstIndex, endIndex, true);
+    }
+
+    void appendUnit(TpchTable table, long unit, StringBuilder out) {
+        switch (table) {
+            case REGION: appendRegion(unit, out); break;
+            case NATION: appendNation(unit, out); break;
+            case SUPPLIER: appendSupplier(unit + 1, out); break;
+            case PART: appendPart(unit + 1, out); break;
+            case PARTSUPP: appendPartsupp(unit + 1, out); break;
+            case CUSTOMER: appendCustomer(unit + 1, out); break;
+            case ORDERS: generateOrder(unit).appendOrder(out); break;
+            case LINEITEM: generateOrder(unit).appendLineitems(out); break;
+            default: throw new IllegalArgumentException(table.name());
+        }
+    }
+
+    void appendRefreshUnit(TpchTable table, long index, StringBuilder out) {
+        switch (table) {
+            case ORDERS: generateRefreshOrder(index).appendOrder(out); break;
+            case LINEITEM: generateRefreshOrder(index).appendLineitems(out); break;
+            default: throw new IllegalArgumentException(table.name());
+        }
+    }
+
+    private void appendRegion(long regionKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.REGION, regionKey);
+        out.append(regionKey).append('|').append(REGIONS[(int) regionKey]).append('|');
+        appendText(random, 31, 115, out);
+        out.append('\n');
+    }
+
+    private void appendNation(long nationKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.NATION, nationKey);
+        String[] nation = NATIONS[(int) nationKey];
+        out.append(nationKey).append('|').append(nation[0]).append('|').append(nation[1]).append('|');
+        appendText(random, 31, 114, out);
+        out.append('\n');
+    }
+
+    private void appendSupplier(long suppKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.SUPPLIER, suppKey);
+        int nationKey = random.nextInt(NATIONS.length);
+        out.append(suppKey).append('|');
+        appendPadded("Supplier#", suppKey, out);
+        out.append('|');
+        appendAddress(random, out);
+        out.append('|').append(nationKey).append('|');
+        appendPhone(random, nationKey, out);
+        out.append('|');
+        appendCents(random.nextLong(-99_999, 1_000_000), out);
+        out.append('|');
+        double complaint = random.nextDouble();
+        // Roughly SF * 5 suppliers each carry the comments queried by Q16
+        if(complaint < 0.0005) {
+            out.append("Customer ");
+            appendText(random, 5, 30, out);
+            out.append(" Complaints");
+        } else if(complaint < 0.001) {
+            out.append("Customer ");
+            appendText(random, 5, 30, out);
+            out.append(" Recommends");
+        } else {
+            appendText(random, 25, 100, out);
+        }
+        out.append('\n');
+    }
+
+    private void appendPart(long partKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.PART, partKey);
+        int manufacturer = random.nextInt(1, 6);
+        out.append(partKey).append('|');
+        for(int i = 0; i < 5; i++) {
+            out.append(i == 0 ? "" : " ").append(COLORS[random.nextInt(COLORS.length)]);
+        }
+        out.append('|').append("Manufacturer#").append(manufacturer);
+        out.append('|').append("Brand#").append(manufacturer).append(random.nextInt(1, 6));
+        out.append('|').append(pick(random, TYPE_SIZES)).append(' ').append(pick(random, TYPE_FINISHES))
+                .append(' ').append(pick(random, TYPE_MATERIALS));
+        out.append('|').append(random.nextInt(1, 51));
+        out.append('|').append(pick(random, CONTAINER_SIZES)).append(' ').append(pick(random, CONTAINER_TYPES));
+        out.append('|');
+        appendCents(retailPriceInCents(partKey), out);
+        out.append('|');
+        appendText(random, 5, 22, out);
+        out.append('\n');
+    }
+
+    private void appendPartsupp(long partKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.PARTSUPP, partKey);
+        for(int i = 0; i < 4; i++) {
+            out.append(partKey).append('|').append(partSupplier(partKey, i)).append('|');
+            out.append(random.nextInt(1, 10_000)).append('|');
+            appendCents(random.nextLong(100, 100_001), out);
+            out.append('|');
+            appendText(random, 49, 198, out);
+            out.append('\n');
+        }
+    }
+
+    private void appendCustomer(long custKey, StringBuilder out) {
+        SplittableRandom random = random(TpchTable.CUSTOMER, custKey);
+        int nationKey = random.nextInt(NATIONS.length);
+        out.append(custKey).append('|');
+        appendPadded("Customer#", custKey, out);
+        out.append('|');
+        appendAddress(random, out);
+        out.append('|').append(nationKey).append('|');
+        appendPhone(random, nationKey, out);
+        out.append('|');
+        appendCents(random.nextLong(-99_999, 1_000_000), out);
+        out.append('|').append(pick(random, SEGMENTS)).append('|');
+        appendText(random, 29, 116, out);
+        out.append('\n');
+    }
+
+    /**
+     * Generates the order with the given zero based index together with its line items. Order keys are sparse
+     * as in dbgen: only the first 8 of every 32 keys are used.
+     */
+    public Order generateOrder(long index) {
+        return generateOrder(orderKey(index), random(TpchTable.ORDERS, index));
+    }
+
+    /**
+     * Generates the order with the given zero based index of the refresh stream (RF1). Refresh orders take the
+     * 9th to 16th of every 32 keys, which the loaded orders leave unused, and draw from their own seeds.
+     */
+    public Order generateRefreshOrder(long index) {
+        return generateOrder(refreshOrderKey(index), random(TpchTable.ORDERS, -1 - index));
+    }
+
+    private Order generateOrder(long orderKey, SplittableRandom random) {
+        Order order = new Order();
+        order.orderKey = orderKey;
+        long custKey;
+        do {
+            custKey = random.nextLong(1, customerCount + 1);
+        } while(custKey % 3 == 0);
+        order.custKey = custKey;
+        order.orderDate = random.nextInt((int) (END_DATE - START_DATE - 151) + 1);
+        order.priority = pick(random, PRIORITIES);
+        order.clerk = random.nextLong(1, clerkCount + 1);
+        order.comment = text(random, 19, 78);
+
+        int lines = random.nextInt(1, 8);
+        order.lines = new Lineitem[lines];
+        long totalPriceInCents = 0;
+        int shipped = 0;
+        for(int i = 0; i < lines; i++) {
+            Lineitem line = new Lineitem();
+            line.lineNumber = i + 1;
+            line.partKey = random.nextLong(1, partCount + 1);
+            line.suppKey = partSupplier(line.partKey, random.nextInt(4));
+            line.quantity = random.nextInt(1, 51);
+            line.extendedPriceInCents = line.quantity * retailPriceInCents(line.partKey);
+            line.discount = random.nextInt(0, 11);
+            line.tax = random.nextInt(0, 9);
+            line.shipDate = order.orderDate + random.nextInt(1, 122);
+            line.commitDate = order.orderDate + random.nextInt(30, 91);
+            line.receiptDate = line.shipDate + random.nextInt(1, 31);
+            line.returnFlag = START_DATE + line.receiptDate <= CURRENT_DATE ? (random.nextBoolean() ? 'R' : 'A') : 'N';
+            line.lineStatus = START_DATE + line.shipDate > CURRENT_DATE ? 'O' : 'F';
+            line.instruction = pick(random, INSTRUCTIONS);
+            line.shipMode = pick(random, SHIP_MODES);
+            line.comment = text(random, 10, 43);
+            totalPriceInCents += Math.round(line.extendedPriceInCents * (100 + line.tax) * (100 - line.discount) / 10_000d);
+            shipped += line.lineStatus == 'F' ? 1 : 0;
+            order.lines[i] = line;
+        }
+        order.totalPriceInCents = totalPriceInCents;
+        order.status = shipped == lines ? 'F' : shipped == 0 ? 'O' : 'P';
+        return order;
+    }
+
+    public long orderKey(long index) {
+        return (index / 8) * 32 + (index % 8) + 1;
+    }
+
+    public long refreshOrderKey(long index) {
+        return (index / 8) * 32 + 8 + (index % 8) + 1;
+    }
+
+    private long partSupplier(long partKey, int i) {
+        return (partKey + (i * ((supplierCount / 4) + (partKey - 1) / supplierCount))) % supplierCount + 1;
+    }
+
+    private static long retailPriceInCents(long partKey) {
+        return 90_000 + ((partKey / 10) % 20_001) + 100 * (partKey % 1_000);
+    }
+
+    private static SplittableRandom random(TpchTable table, long unit) {
+        // Scramble the seed, SplittableRandom instances whose seeds differ by its internal gamma share a sequence
+        long seed = (table.ordinal() + 1) * 0xD1B54A32D192ED03L + unit;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(seed ^ (seed >>> 31));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void appendPadded(String prefix, long key, StringBuilder out) {
+        out.append(prefix);
+        String digits = Long.toString(key);
+        for(int i = digits.length(); i < 9; i++) {
+            out.append('0');
+        }
+        out.append(digits);
+    }
+
+    private static void appendAddress(SplittableRandom random, StringBuilder out) {
+        int length = random.nextInt(10, 41);
+        for(int i = 0; i < length; i++) {
+            out.append(ADDRESS_CHARACTERS[random.nextInt(ADDRESS_CHARACTERS.length)]);
+        }
+    }
+
+    private static void appendPhone(SplittableRandom random, int nationKey, StringBuilder out) {
+        out.append(nationKey + 10).append('-').append(random.nextInt(100, 1000))
+                .append('-').append(random.nextInt(100, 1000))
+                .append('-').append(random.nextInt(1000, 10_000));
+    }
+
+    static void appendCents(long cents, StringBuilder out) {
+        if(cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        out.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if(fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    private static String text(SplittableRandom random, int minLength, int maxLength) {
+        StringBuilder text = new StringBuilder(maxLength);
+        appendText(random, minLength, maxLength, text);
+        return text.toString();
+    }
+
+    private static void appendText(SplittableRandom random, int minLength, int maxLength, StringBuilder out) {
+        int length = random.nextInt(minLength, maxLength + 1);
+        int start = out.length();
+        while(out.length() - start < length) {
+            if(out.length() > start) {
+                out.append(' ');
+            }
+            out.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        out.setLength(start + length);
+        if(out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    public static class Order {
+        private long orderKey;
+        private long custKey;
+        private char status;
+        private long totalPriceInCents;
+        private int orderDate;
+        private String priority;
+        private long clerk;
+        private String comment;
+        private Lineitem[] lines;
+
+        public long getOrderKey() {
+            return orderKey;
+        }
+
+        public int getLineCount() {
+            return lines.length;
+        }
+
+        public void appendOrder(StringBuilder out) {
+            out.append(orderKey).append('|').append(custKey).append('|').append(status).append('|');
+            appendCents(totalPriceInCents, out);
+            out.append('|').append(DATES[orderDate]).append('|').append(priority).append('|');
+            appendPadded("Clerk#", clerk, out);
+            out.append("|0|").append(comment).append('\n');
+        }
+
+        public void appendLineitems(StringBuilder out) {
+            for(Lineitem line : lines) {
+                out.append(orderKey).append('|').append(line.partKey).append('|').append(line.suppKey)
+                        .append('|').append(line.lineNumber).append('|').append(line.quantity).append('|');
+                appendCents(line.extendedPriceInCents, out);
+                out.append("|0.").append(line.discount < 10 ? "0" : "").append(line.discount)
+                        .append("|0.0").append(line.tax)
+                        .append('|').append(line.returnFlag).append('|').append(line.lineStatus)
+                        .append('|').append(DATES[line.shipDate]).append('|').append(DATES[line.commitDate])
+                        .append('|').append(DATES[line.receiptDate]).append('|').append(line.instruction)
+                        .append('|').append(line.shipMode).append('|').append(line.comment).append('\n');
+            }
+        }
+    }
+
+    private static class Lineitem {
+        private int lineNumber;
+        private long partKey;
+        private long suppKey;
+        private int quantity;
+        private long extendedPriceInCents;
+        private int discount;
+        private int tax;
+        private int shipDate;
+        private int commitDate;
+        private int receiptDate;
+        private char returnFlag;
+        private char lineStatus;
+        private String instruction;
+        private String shipMode;
+        private String comment;
+    }
+}
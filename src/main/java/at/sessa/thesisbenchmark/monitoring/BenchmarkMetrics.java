@@ -0,0 +1,148 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import at.sessa.thesisbenchmark.CacheState;
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.QueryOutcome;
+import at.sessa.thesisbenchmark.TpchTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the progress of a run to Micrometer while it is in progress, scrapeable from /actuator/prometheus.
+ * Query metrics are tagged with the target set by startTarget, since the services measuring the queries only know
+ * the query.
+ */
+@Component
+public class BenchmarkMetrics {
+    public enum Phase {
+        IDLE, SETUP, TUNING, QUERIES, THROUGHPUT, REFRESH, TEARDOWN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.IDLE);
+    private final AtomicLong completedQueries = new AtomicLong();
+    private final AtomicLong totalQueries = new AtomicLong();
+    private final AtomicLong completedTargets = new AtomicLong();
+    private final AtomicLong totalTargets = new AtomicLong();
+    // Throughput of the last load of every table so far, as double bits
+    private final Map<String, AtomicLong> loadRowsPerSecond = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> loadBytesPerSecond = new ConcurrentHashMap<>();
+    private volatile Tags targetTags = Tags.of("target", "none", "layout", "none");
+
+    public BenchmarkMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for(Phase value : Phase.values()) {
+            Gauge.builder("benchmark.phase", phase, p -> p.get() == value ? 1 : 0)
+                    .description("1 for the phase the run is in, 0 for all others")
+                    .tag("phase", value.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("benchmark.queries.completed", completedQueries, AtomicLong::get)
+                .description("Queries completed in the benchmark of the current target")
+                .register(meterRegistry);
+        Gauge.builder("benchmark.queries.total", totalQueries, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("benchmark.targets.completed", completedTargets, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("benchmark.targets.total", totalTargets, AtomicLong::get).register(meterRegistry);
+    }
+
+    public void startRun(int targets) {
+        completedTargets.set(0);
+        totalTargets.set(targets);
+    }
+
+    /**
+     * Tags all following query metrics with the target, under the name its results are stored as.
+     */
+    public void startTarget(String name, String layout) {
+        targetTags = Tags.of("target", name, "layout", layout);
+        setPhase(Phase.SETUP);
+    }
+
+    public void completeTarget() {
+        completedTargets.incrementAndGet();
+        setPhase(Phase.IDLE);
+    }
+
+    public void setPhase(Phase phase) {
+        this.phase.set(phase);
+    }
+
+    public void startQueries(int total) {
+        completedQueries.set(0);
+        totalQueries.set(total);
+        setPhase(Phase.QUERIES);
+    }
+
+    public void completeQuery() {
+        completedQueries.incrementAndGet();
+    }
+
+    /**
+     * Records the latency of a successful measured execution, and counts timeouts and errors.
+     */
+    public void recordQuery(int queryId, CacheState cacheState, QueryMeasurement measurement) {
+        Tags tags = targetTags.and("query", Integer.toString(queryId));
+        if(measurement.getOutcome() != QueryOutcome.SUCCESS) {
+            Counter.builder("benchmark.query.failures")
+                    .tags(tags.and("outcome", measurement.getOutcome().name().toLowerCase()))
+                    .register(meterRegistry)
+                    .increment();
+            return;
+        }
+        Timer.builder("benchmark.query.latency")
+                .tags(tags.and("cache_state", cacheState == null ? "unknown" : cacheState.name().toLowerCase()))
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(measurement.getTimeInNs(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the latency of an OLTP transaction of the HTAP workload from its scheduled start, and counts failures.
+     */
+    public void recordOltp(String operation, long latencyInNs, boolean failed) {
+        Tags tags = targetTags.and("operation", operation);
+        if(failed) {
+            Counter.builder("benchmark.oltp.failures").tags(tags).register(meterRegistry).increment();
+            return;
+        }
+        Timer.builder("benchmark.oltp.latency")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(latencyInNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a loaded chunk of a table while the load is in progress, together with the rows and bytes loaded of the
+     * table so far. The bytes are 0 if the size of the input is unknown and estimated for generated data.
+     */
+    public void recordLoadProgress(TpchTable table, long rows, long bytes, long loadedRows, long loadedBytes, double seconds) {
+        String name = table.name().toLowerCase();
+        Tags tags = targetTags.and("table", name);
+        Counter.builder("benchmark.load.rows").tags(tags).register(meterRegistry).increment(rows);
+        Counter.builder("benchmark.load.bytes").tags(tags).register(meterRegistry).increment(bytes);
+        loadGauge(loadRowsPerSecond, "benchmark.load.rows.per.second", name).set(Double.doubleToLongBits(loadedRows / seconds));
+        loadGauge(loadBytesPerSecond, "benchmark.load.bytes.per.second", name).set(Double.doubleToLongBits(loadedBytes / seconds));
+    }
+
+    private AtomicLong loadGauge(Map<String, AtomicLong> gauges, String meterName, String table) {
+        return gauges.computeIfAbsent(table, t -> {
+            AtomicLong value = new AtomicLong(Double.doubleToLongBits(0));
+            Gauge.builder(meterName, value, v -> Double.longBitsToDouble(v.get()))
+                    .description("Throughput of the last load of the table so far")
+                    .tag("table", t)
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import at.sessa.thesisbenchmark.Utility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Reads the counters of a docker container from its cgroup, supporting both the unified cgroup v2 hierarchy and the
+ * per controller v1 hierarchies, each with the systemd and the cgroupfs layout of docker. Memory is the anonymous and
+ * the shared memory of the container, which includes the shared buffers of the engine, without its page cache.
+ */
+public class CgroupResourceProbe implements ResourceProbe {
+    private final String containerName;
+    private final Path cgroupRoot;
+    private String containerId;
+
+    public CgroupResourceProbe(String containerName, String cgroupRoot) {
+        this.containerName = containerName;
+        this.cgroupRoot = Paths.get(cgroupRoot);
+    }
+
+    @Override
+    public ResourceCounters read() throws IOException {
+        if(containerId == null) {
+            containerId = Utility.execRuntimeOutput("docker inspect -f {{.Id}} " + containerName).trim();
+            if(containerId.isEmpty()) {
+                throw new IOException("Container " + containerName + " not found");
+            }
+        }
+        return Files.exists(cgroupRoot.resolve("cgroup.controllers")) ? readV2() : readV1();
+    }
+
+    private ResourceCounters readV2() throws IOException {
+        Path cgroup = containerCgroup(cgroupRoot);
+        List<String> cpuStat = Files.readAllLines(cgroup.resolve("cpu.stat"));
+        List<String> ioStat = Files.readAllLines(cgroup.resolve("io.stat"));
+        List<String> memoryStat = Files.readAllLines(cgroup.resolve("memory.stat"));
+        return new ResourceCounters(
+                keyedValue(cpuStat, "usage_usec") * 1000,
+                keyedValue(memoryStat, "anon") + keyedValue(memoryStat, "shmem"),
+                sumOfAssignments(ioStat, "rbytes="),
+                sumOfAssignments(ioStat, "wbytes="),
+                keyedValue(cpuStat, "throttled_usec") * 1000);
+    }
+
+    private ResourceCounters readV1() throws IOException {
+        List<String> memoryStat = Files.readAllLines(controller("memory").resolve("memory.stat"));
+        List<String> ioServiceBytes = Files.readAllLines(controller("blkio").resolve("blkio.throttle.io_service_bytes"));
+        return new ResourceCounters(
+                Long.parseLong(Files.readString(controller("cpuacct").resolve("cpuacct.usage")).trim()),
+                keyedValue(memoryStat, "total_rss") + keyedValue(memoryStat, "total_shmem"),
+                sumOfOperation(ioServiceBytes, "Read"),
+                sumOfOperation(ioServiceBytes, "Write"),
+                keyedValue(Files.readAllLines(controller("cpu").resolve("cpu.stat")), "throttled_time"));
+    }
+
+    private Path controller(String name) {
+        return containerCgroup(cgroupRoot.resolve(name));
+    }
+
+    // Docker with the systemd cgroup driver places a container in a scope, with the cgroupfs driver in a directory
+    private Path containerCgroup(Path hierarchy) {
+        Path cgroup = hierarchy.resolve("system.slice").resolve("docker-" + containerId + ".scope");
+        if(!Files.exists(cgroup)) {
+            cgroup = hierarchy.resolve("docker").resolve(containerId);
+        }
+        return cgroup;
+    }
+
+    // Lines like "usage_usec 1234"
+    private static long keyedValue(List<String> lines, String key) {
+        for(String line : lines) {
+            String[] parts = line.trim().split("\\s+");
+            if(parts.length == 2 && parts[0].equals(key)) {
+                return Long.parseLong(parts[1]);
+            }
+        }
+        return 0;
+    }
+
+    // Lines like "8:0 rbytes=1234 wbytes=5678 rios=1 wios=2", one per device
+    private static long sumOfAssignments(List<String> lines, String prefix) {
+        long sum = 0;
+        for(String line : lines) {
+            for(String part : line.trim().split("\\s+")) {
+                if(part.startsWith(prefix)) {
+                    sum += Long.parseLong(part.substring(prefix.length()));
+                }
+            }
+        }
+        return sum;
+    }
+
+    // Lines like "8:0 Read 1234", one per device and operation
+    private static long sumOfOperation(List<String> lines, String operation) {
+        long sum = 0;
+        for(String line : lines) {
+            String[] parts = line.trim().split("\\s+");
+            if(parts.length == 3 && parts[1].equals(operation)) {
+                sum += Long.parseLong(parts[2]);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Reads the counters of a local process from /proc. Serves engines running inside this process and as a stand-in
+ * for containers when testing without docker. Throttling is not available per process and always zero.
+ */
+public class ProcessResourceProbe implements ResourceProbe {
+    // USER_HZ, which is 100 on all common Linux configurations
+    private static final long NS_PER_CLOCK_TICK = 10_000_000;
+
+    private final Path processDirectory;
+
+    public ProcessResourceProbe(long pid) {
+        this.processDirectory = Paths.get("/proc", Long.toString(pid));
+    }
+
+    public static ProcessResourceProbe self() {
+        return new ProcessResourceProbe(ProcessHandle.current().pid());
+    }
+
+    @Override
+    public ResourceCounters read() throws IOException {
+        // The command name in the second field may contain blanks, the fields after it are counted from its end
+        String stat = Files.readString(processDirectory.resolve("stat"));
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long cpuTicks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+
+        long readBytes = 0;
+        long writeBytes = 0;
+        Path io = processDirectory.resolve("io");
+        if(Files.isReadable(io)) {
+            List<String> ioLines = Files.readAllLines(io);
+            readBytes = keyedValue(ioLines, "read_bytes:", 1);
+            writeBytes = keyedValue(ioLines, "write_bytes:", 1);
+        }
+
+        return new ResourceCounters(cpuTicks * NS_PER_CLOCK_TICK,
+                keyedValue(Files.readAllLines(processDirectory.resolve("status")), "VmRSS:", 1024),
+                readBytes, writeBytes, 0);
+    }
+
+    private static long keyedValue(List<String> lines, String key, long unit) {
+        for(String line : lines) {
+            if(line.startsWith(key)) {
+                return Long.parseLong(line.substring(key.length()).trim().split("\\s+")[0]) * unit;
+            }
+        }
+        return 0;
+    }
+}
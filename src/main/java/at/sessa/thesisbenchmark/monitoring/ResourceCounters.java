@@ -0,0 +1,41 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+/**
+ * One reading of the resource counters of a container or process. All values except the memory are cumulative
+ * since the container or process started.
+ */
+public class ResourceCounters {
+    private final long cpuTimeInNs;
+    private final long memoryInBytes;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long throttledTimeInNs;
+
+    public ResourceCounters(long cpuTimeInNs, long memoryInBytes, long bytesRead, long bytesWritten, long throttledTimeInNs) {
+        this.cpuTimeInNs = cpuTimeInNs;
+        this.memoryInBytes = memoryInBytes;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.throttledTimeInNs = throttledTimeInNs;
+    }
+
+    public long getCpuTimeInNs() {
+        return cpuTimeInNs;
+    }
+
+    public long getMemoryInBytes() {
+        return memoryInBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getThrottledTimeInNs() {
+        return throttledTimeInNs;
+    }
+}
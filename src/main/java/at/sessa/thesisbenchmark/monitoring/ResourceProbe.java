@@ -0,0 +1,7 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import java.io.IOException;
+
+public interface ResourceProbe {
+    ResourceCounters read() throws IOException;
+}
@@ -0,0 +1,96 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples a probe in the background while a query runs. Cumulative counters only need the first and the last
+ * reading, the samples in between catch the peak memory. Closing the sampler stops its thread.
+ */
+public class ResourceSampler implements AutoCloseable {
+    Logger logger = LoggerFactory.getLogger(ResourceSampler.class);
+
+    private final ResourceProbe probe;
+    private final long intervalInMs;
+    private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ResourceSampler(ResourceProbe probe, long intervalInMs) {
+        this.probe = probe;
+        this.intervalInMs = Math.max(intervalInMs, 1);
+    }
+
+    /**
+     * Returns null if the probe cannot be read, so that a missing cgroup never fails the benchmark itself.
+     */
+    public Sampling start() {
+        try {
+            return new Sampling(probe.read());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read resource counters", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    public class Sampling {
+        private final ResourceCounters first;
+        private final ScheduledFuture<?> future;
+        private long peakMemoryInBytes;
+        private int samples = 1;
+
+        private Sampling(ResourceCounters first) {
+            this.first = first;
+            this.peakMemoryInBytes = first.getMemoryInBytes();
+            this.future = executorService.scheduleAtFixedRate(this::sample, intervalInMs, intervalInMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            try {
+                record(probe.read());
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not read resource counters", e);
+            }
+        }
+
+        private synchronized void record(ResourceCounters counters) {
+            peakMemoryInBytes = Math.max(peakMemoryInBytes, counters.getMemoryInBytes());
+            samples++;
+        }
+
+        public ResourceUsage stop() {
+            future.cancel(false);
+            try {
+                ResourceCounters last = probe.read();
+                record(last);
+                return createUsage(last);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not read resource counters", e);
+                return null;
+            }
+        }
+
+        private synchronized ResourceUsage createUsage(ResourceCounters last) {
+            return new ResourceUsage(
+                    last.getCpuTimeInNs() - first.getCpuTimeInNs(),
+                    peakMemoryInBytes,
+                    last.getBytesRead() - first.getBytesRead(),
+                    last.getBytesWritten() - first.getBytesWritten(),
+                    last.getThrottledTimeInNs() - first.getThrottledTimeInNs(),
+                    samples);
+        }
+    }
+}
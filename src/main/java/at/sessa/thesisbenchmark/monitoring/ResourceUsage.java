@@ -0,0 +1,58 @@
+package at.sessa.thesisbenchmark.monitoring;
+
+import java.util.Locale;
+
+/**
+ * Resources used while a single query ran, the difference between the counters before and after, with the peak
+ * memory over all samples in between.
+ */
+public class ResourceUsage {
+    private final long cpuTimeInNs;
+    private final long peakMemoryInBytes;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long throttledTimeInNs;
+    private final int samples;
+
+    public ResourceUsage(long cpuTimeInNs, long peakMemoryInBytes, long bytesRead, long bytesWritten, long throttledTimeInNs, int samples) {
+        this.cpuTimeInNs = cpuTimeInNs;
+        this.peakMemoryInBytes = peakMemoryInBytes;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.throttledTimeInNs = throttledTimeInNs;
+        this.samples = samples;
+    }
+
+    public double getCpuSeconds() {
+        return cpuTimeInNs / 1e9;
+    }
+
+    public long getPeakMemoryInBytes() {
+        return peakMemoryInBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public double getThrottledSeconds() {
+        return throttledTimeInNs / 1e9;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * cpuSeconds,peakMemoryMb,readMb,writtenMb,throttledSeconds
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.3f,%.1f,%.1f,%.1f,%.3f", getCpuSeconds(), peakMemoryInBytes / 1024d / 1024d,
+                bytesRead / 1024d / 1024d, bytesWritten / 1024d / 1024d, getThrottledSeconds());
+    }
+}
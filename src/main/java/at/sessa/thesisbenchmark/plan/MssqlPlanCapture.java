@@ -0,0 +1,141 @@
+package at.sessa.thesisbenchmark.plan;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes a query with SET STATISTICS XML ON, which makes SQL Server return the actual showplan as an additional
+ * result set after each statement.
+ */
+public class MssqlPlanCapture implements PlanCapture {
+    private static final String SHOWPLAN_COLUMN = "Microsoft SQL Server 2005 XML Showplan";
+
+    @Override
+    public String getFormat() {
+        return "xml";
+    }
+
+    @Override
+    public long execute(Connection connection, String query, List<String> rawPlans) throws SQLException {
+        long rowCount = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET STATISTICS XML ON");
+            try {
+                boolean isResultSet = statement.execute(query);
+                while(isResultSet || statement.getUpdateCount() != -1) {
+                    if(isResultSet) {
+                        try (ResultSet resultSet = statement.getResultSet()) {
+                            boolean isPlan = SHOWPLAN_COLUMN.equals(resultSet.getMetaData().getColumnName(1));
+                            while(resultSet.next()) {
+                                if(isPlan) {
+                                    rawPlans.add(resultSet.getString(1));
+                                } else {
+                                    rowCount++;
+                                }
+                            }
+                        }
+                    }
+                    isResultSet = statement.getMoreResults();
+                }
+            } finally {
+                statement.execute("SET STATISTICS XML OFF");
+            }
+        }
+        return rowCount;
+    }
+
+    @Override
+    public List<PlanOperator> parse(String rawPlan) {
+        List<PlanOperator> operators = new ArrayList<>();
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(rawPlan)));
+            NodeList relOps = document.getElementsByTagNameNS("*", "RelOp");
+            for(int i = 0; i < relOps.getLength(); i++) {
+                Element relOp = (Element) relOps.item(i);
+                operators.add(toOperator(relOp, depth(relOp)));
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not parse showplan", e);
+        }
+        return operators;
+    }
+
+    /**
+     * Row mode operators report their elapsed time including their children, batch mode operators only their own.
+     * Rows and reads are summed over all threads, the elapsed time is the maximum of all threads.
+     */
+    private PlanOperator toOperator(Element relOp, int depth) {
+        long rows = 0;
+        long logicalReads = 0;
+        long physicalReads = 0;
+        long elapsed = 0;
+        String executionMode = relOp.getAttribute("EstimatedExecutionMode");
+
+        for(Element counters : ownDescendants(relOp, "RunTimeCountersPerThread")) {
+            rows += parseLong(counters.getAttribute("ActualRows"));
+            logicalReads += parseLong(counters.getAttribute("ActualLogicalReads"));
+            physicalReads += parseLong(counters.getAttribute("ActualPhysicalReads"));
+            elapsed = Math.max(elapsed, parseLong(counters.getAttribute("ActualElapsedms")));
+            if(!counters.getAttribute("ActualExecutionMode").isEmpty()) {
+                executionMode = counters.getAttribute("ActualExecutionMode");
+            }
+        }
+
+        String object = null;
+        List<Element> objects = ownDescendants(relOp, "Object");
+        if(!objects.isEmpty()) {
+            Element objectElement = objects.get(0);
+            object = (objectElement.getAttribute("Table") + "." + objectElement.getAttribute("Index")).replaceAll("[\\[\\]]", "");
+        }
+
+        return new PlanOperator(depth, relOp.getAttribute("PhysicalOp"), object,
+                executionMode.isEmpty() ? null : executionMode, elapsed, rows, logicalReads, physicalReads);
+    }
+
+    private static int depth(Element relOp) {
+        int depth = 0;
+        for(Node parent = relOp.getParentNode(); parent != null; parent = parent.getParentNode()) {
+            if("RelOp".equals(parent.getLocalName())) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Descendants with the given name that belong to this operator and not to one of its child operators.
+     */
+    private static List<Element> ownDescendants(Element relOp, String localName) {
+        List<Element> elements = new ArrayList<>();
+        NodeList candidates = relOp.getElementsByTagNameNS("*", localName);
+        for(int i = 0; i < candidates.getLength(); i++) {
+            Element candidate = (Element) candidates.item(i);
+            Node parent = candidate.getParentNode();
+            while(parent != relOp && !"RelOp".equals(parent.getLocalName())) {
+                parent = parent.getParentNode();
+            }
+            if(parent == relOp) {
+                elements.add(candidate);
+            }
+        }
+        return elements;
+    }
+
+    private static long parseLong(String value) {
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+}
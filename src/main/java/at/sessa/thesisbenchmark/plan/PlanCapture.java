@@ -0,0 +1,20 @@
+package at.sessa.thesisbenchmark.plan;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Executes a query with the vendor specific instrumentation that returns the actual execution plan.
+ */
+public interface PlanCapture {
+    String getFormat();
+
+    /**
+     * Executes all statements of the query on the given connection, adds the raw plans to rawPlans and returns the
+     * number of rows the query itself returned.
+     */
+    long execute(Connection connection, String query, List<String> rawPlans) throws SQLException;
+
+    List<PlanOperator> parse(String rawPlan);
+}
@@ -0,0 +1,69 @@
+package at.sessa.thesisbenchmark.plan;
+
+import java.util.Locale;
+
+/**
+ * Actual runtime figures of a single plan node. Cached and disk reads are shared hit and read blocks on Postgres,
+ * logical and physical reads on SQL Server.
+ */
+public class PlanOperator {
+    private final int depth;
+    private final String name;
+    private final String object;
+    private final String executionMode;
+    private final double timeInMs;
+    private final long rows;
+    private final long cachedReads;
+    private final long diskReads;
+
+    public PlanOperator(int depth, String name, String object, String executionMode, double timeInMs, long rows, long cachedReads, long diskReads) {
+        this.depth = depth;
+        this.name = name;
+        this.object = object;
+        this.executionMode = executionMode;
+        this.timeInMs = timeInMs;
+        this.rows = rows;
+        this.cachedReads = cachedReads;
+        this.diskReads = diskReads;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getObject() {
+        return object;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public double getTimeInMs() {
+        return timeInMs;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getCachedReads() {
+        return cachedReads;
+    }
+
+    public long getDiskReads() {
+        return diskReads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s%s%s%s,%.3f ms,%d rows,%d cached,%d disk", "  ".repeat(depth), name,
+                object == null ? "" : " on " + object,
+                executionMode == null ? "" : " (" + executionMode + ")",
+                timeInMs, rows, cachedReads, diskReads);
+    }
+}
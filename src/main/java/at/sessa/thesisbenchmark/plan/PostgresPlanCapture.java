@@ -0,0 +1,89 @@
+package at.sessa.thesisbenchmark.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs every SELECT of a query as EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON), other statements are executed as they are.
+ */
+public class PostgresPlanCapture implements PlanCapture {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String getFormat() {
+        return "json";
+    }
+
+    @Override
+    public long execute(Connection connection, String query, List<String> rawPlans) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        ScriptUtils.splitSqlScript(query, ';', statements);
+
+        long rowCount = 0;
+        try (Statement statement = connection.createStatement()) {
+            for(String sql : statements) {
+                if(!sql.trim().toLowerCase().startsWith("select")) {
+                    statement.execute(sql);
+                    continue;
+                }
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql)) {
+                    resultSet.next();
+                    String rawPlan = resultSet.getString(1);
+                    rawPlans.add(rawPlan);
+                    rowCount += readTree(rawPlan).path(0).path("Plan").path("Actual Rows").asLong();
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    @Override
+    public List<PlanOperator> parse(String rawPlan) {
+        List<PlanOperator> operators = new ArrayList<>();
+        addOperators(readTree(rawPlan).path(0).path("Plan"), 0, operators);
+        return operators;
+    }
+
+    private void addOperators(JsonNode node, int depth, List<PlanOperator> operators) {
+        // Actual times and rows are averages per loop, times and buffers include the child nodes
+        long loops = Math.max(node.path("Actual Loops").asLong(1), 1);
+        double childTime = 0;
+        long childHitBlocks = 0;
+        long childReadBlocks = 0;
+        for(JsonNode child : node.path("Plans")) {
+            childTime += child.path("Actual Total Time").asDouble() * Math.max(child.path("Actual Loops").asLong(1), 1);
+            childHitBlocks += child.path("Shared Hit Blocks").asLong();
+            childReadBlocks += child.path("Shared Read Blocks").asLong();
+        }
+        double exclusiveTime = Math.max(node.path("Actual Total Time").asDouble() * loops - childTime, 0);
+
+        String object = node.has("Relation Name") ? node.path("Relation Name").asText()
+                : node.has("Index Name") ? node.path("Index Name").asText() : null;
+        operators.add(new PlanOperator(depth, node.path("Node Type").asText(), object, null, exclusiveTime,
+                node.path("Actual Rows").asLong() * loops,
+                Math.max(node.path("Shared Hit Blocks").asLong() - childHitBlocks, 0),
+                Math.max(node.path("Shared Read Blocks").asLong() - childReadBlocks, 0)));
+
+        for(JsonNode child : node.path("Plans")) {
+            addOperators(child, depth + 1, operators);
+        }
+    }
+
+    private JsonNode readTree(String rawPlan) {
+        try {
+            return objectMapper.readTree(rawPlan);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
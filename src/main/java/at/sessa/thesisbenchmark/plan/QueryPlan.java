@@ -0,0 +1,80 @@
+package at.sessa.thesisbenchmark.plan;
+
+import at.sessa.thesisbenchmark.QueryOutcome;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Plans of one instrumented query execution, as returned by the database and broken down into operators.
+ * A query consisting of several statements, like query 15, yields one raw plan per statement.
+ */
+public class QueryPlan {
+    private final String format;
+    private final List<String> rawPlans;
+    private final List<PlanOperator> operators;
+    private final long rowCount;
+    private final long timeInNs;
+    private final Exception failure;
+
+    public QueryPlan(String format, List<String> rawPlans, List<PlanOperator> operators, long rowCount, long timeInNs, Exception failure) {
+        this.format = format;
+        this.rawPlans = rawPlans;
+        this.operators = operators;
+        this.rowCount = rowCount;
+        this.timeInNs = timeInNs;
+        this.failure = failure;
+    }
+
+    /**
+     * File extension of the raw plans, json or xml.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public List<String> getRawPlans() {
+        return rawPlans;
+    }
+
+    public List<PlanOperator> getOperators() {
+        return operators;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getTimeInNs() {
+        return timeInNs;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public QueryOutcome getOutcome() {
+        return QueryOutcome.of(failure);
+    }
+
+    public List<PlanOperator> getSlowestOperators(int limit) {
+        return operators.stream()
+                .sorted(Comparator.comparingDouble(PlanOperator::getTimeInMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(Locale.ROOT, "%.3f ms, %d rows%n", timeInNs / 1e6, rowCount));
+        operators.forEach(o -> stringBuilder.append(o).append("\n"));
+        return stringBuilder.toString();
+    }
+}
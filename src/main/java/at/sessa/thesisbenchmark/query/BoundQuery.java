@@ -0,0 +1,39 @@
+package at.sessa.thesisbenchmark.query;
+
+import java.util.List;
+
+/**
+ * A rendered query, either with literals to be executed as a plain statement or with bind markers and their
+ * values to be executed as a prepared statement.
+ */
+public class BoundQuery {
+    private final String sql;
+    private final List<Object> parameters;
+    private final boolean prepared;
+
+    public BoundQuery(String sql, List<Object> parameters, boolean prepared) {
+        this.sql = sql;
+        this.parameters = parameters;
+        this.prepared = prepared;
+    }
+
+    public static BoundQuery literal(String sql) {
+        return new BoundQuery(sql, List.of(), false);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public boolean isPrepared() {
+        return prepared;
+    }
+
+    public BoundQuery withSql(String sql) {
+        return new BoundQuery(sql, parameters, prepared);
+    }
+}
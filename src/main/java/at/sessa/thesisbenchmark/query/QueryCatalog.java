@@ -0,0 +1,82 @@
+package at.sessa.thesisbenchmark.query;
+
+import at.sessa.thesisbenchmark.configuration.GenericProperties;
+import at.sessa.thesisbenchmark.configuration.QueryProperties;
+import at.sessa.thesisbenchmark.generator.SubstitutionParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads and parses the query templates of all dialects from db/queries/{dialect}/{query}.sql once.
+ */
+@Component
+public class QueryCatalog {
+    Logger logger = LoggerFactory.getLogger(QueryCatalog.class);
+
+    private static final String LOCATION_PATTERN = "classpath*:db/queries/*/*.sql";
+    private static final Pattern LOCATION = Pattern.compile(".*/db/queries/([^/]+)/(\\d+)\\.sql");
+
+    private final QueryProperties queryProperties;
+    private final GenericProperties genericProperties;
+    private final Map<String, QueryTemplate> templates = new HashMap<>();
+
+    public QueryCatalog(QueryProperties queryProperties, GenericProperties genericProperties) {
+        this.queryProperties = queryProperties;
+        this.genericProperties = genericProperties;
+        try {
+            for(Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION_PATTERN)) {
+                Matcher matcher = LOCATION.matcher(resource.getURL().getPath());
+                if(matcher.matches()) {
+                    int queryId = Integer.parseInt(matcher.group(2));
+                    String text = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+                    templates.putIfAbsent(key(matcher.group(1), queryId), new QueryTemplate(queryId, text));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the query templates", e);
+        }
+        logger.info("Loaded {} query templates", templates.size());
+    }
+
+    public QueryTemplate get(String queryDialect, int queryId) {
+        QueryTemplate template = templates.get(key(queryDialect, queryId));
+        if(template == null) {
+            throw new IllegalArgumentException("No query " + queryId + " for dialect " + queryDialect);
+        }
+        return template;
+    }
+
+    public boolean isPrepared() {
+        return queryProperties.isPrepared();
+    }
+
+    public boolean isRandomParameters() {
+        return queryProperties.isRandomParameters();
+    }
+
+    /**
+     * Creates the parameter sequence for one benchmark, every benchmark of a run starts from the same seed.
+     */
+    public SubstitutionParameters newSubstitutionParameters() {
+        if(!queryProperties.isRandomParameters()) {
+            return SubstitutionParameters.validation();
+        }
+        return new SubstitutionParameters(queryProperties.getSeed(), genericProperties.getNumericScaleFactor());
+    }
+
+    private static String key(String queryDialect, int queryId) {
+        return queryDialect + "/" + queryId;
+    }
+}
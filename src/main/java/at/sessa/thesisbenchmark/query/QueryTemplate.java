@@ -0,0 +1,116 @@
+package at.sessa.thesisbenchmark.query;
+
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A query text with qgen style placeholders :1, :2, ... that are either replaced by literals or by bind markers.
+ * A placeholder may occur several times and is bound once per occurrence.
+ */
+public class QueryTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("(?<!:):(\\d+)");
+    private static final Pattern DDL = Pattern.compile("\\b(create|drop|alter)\\s+(view|table|index)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final int queryId;
+    private final String text;
+    private final List<String> fragments = new ArrayList<>();
+    private final List<Integer> placeholders = new ArrayList<>();
+    private final boolean preparable;
+    private final List<QueryTemplate> statements;
+
+    public QueryTemplate(int queryId, String text) {
+        this.queryId = queryId;
+        this.text = text;
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        int end = 0;
+        while(matcher.find()) {
+            fragments.add(text.substring(end, matcher.start()));
+            placeholders.add(Integer.parseInt(matcher.group(1)));
+            end = matcher.end();
+        }
+        fragments.add(text.substring(end));
+        // DDL statements cannot take bind parameters
+        this.preparable = !DDL.matcher(text).find();
+        this.statements = splitStatements();
+    }
+
+    public int getQueryId() {
+        return queryId;
+    }
+
+    public boolean isPreparable() {
+        return preparable;
+    }
+
+    /**
+     * The statements of a script like query 15, which creates a view, selects from it and drops the view again.
+     * A query of a single statement is its only statement.
+     */
+    public List<QueryTemplate> getStatements() {
+        return statements;
+    }
+
+    // Split once when the template is built, the statements are executed many times
+    private List<QueryTemplate> splitStatements() {
+        List<String> texts = new ArrayList<>();
+        ScriptUtils.splitSqlScript(text, ';', texts);
+        if(texts.size() <= 1) {
+            return List.of(this);
+        }
+        List<QueryTemplate> templates = new ArrayList<>();
+        texts.forEach(s -> templates.add(new QueryTemplate(queryId, s)));
+        return List.copyOf(templates);
+    }
+
+    public boolean isSelect() {
+        return text.trim().toLowerCase().startsWith("select");
+    }
+
+    public String inline(List<Object> parameters) {
+        StringBuilder query = new StringBuilder(fragments.get(0));
+        for(int i = 0; i < placeholders.size(); i++) {
+            query.append(literal(parameter(parameters, placeholders.get(i)))).append(fragments.get(i + 1));
+        }
+        return query.toString();
+    }
+
+    /**
+     * Replaces every placeholder by a bind marker, or renders literals if the query cannot be prepared.
+     */
+    public BoundQuery bind(List<Object> parameters) {
+        if(!preparable) {
+            return BoundQuery.literal(inline(parameters));
+        }
+        StringBuilder query = new StringBuilder(fragments.get(0));
+        List<Object> values = new ArrayList<>();
+        for(int i = 0; i < placeholders.size(); i++) {
+            values.add(parameter(parameters, placeholders.get(i)));
+            query.append('?').append(fragments.get(i + 1));
+        }
+        return new BoundQuery(query.toString(), values, true);
+    }
+
+    private Object parameter(List<Object> parameters, int placeholder) {
+        if(placeholder < 1 || placeholder > parameters.size()) {
+            throw new IllegalArgumentException("Query " + queryId + " has no parameter " + placeholder);
+        }
+        return parameters.get(placeholder - 1);
+    }
+
+    static String literal(Object value) {
+        if(value instanceof String) {
+            return "'" + ((String) value).replace("'", "''") + "'";
+        } else if(value instanceof LocalDate) {
+            return "'" + value + "'";
+        } else if(value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+}
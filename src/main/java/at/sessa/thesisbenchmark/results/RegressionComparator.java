@@ -0,0 +1,177 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.Statistics;
+import at.sessa.thesisbenchmark.configuration.ResultStoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the measurements of a run with those of a baseline run of the same target and scale factor in the
+ * history and flags per-query changes that are both statistically significant and larger than a minimum ratio.
+ */
+@Component
+public class RegressionComparator {
+    Logger logger = LoggerFactory.getLogger(RegressionComparator.class);
+
+    static final String PREVIOUS_RUN = "previous";
+
+    private final ResultStore resultStore;
+    private final ResultStoreProperties resultStoreProperties;
+
+    public RegressionComparator(ResultStore resultStore, ResultStoreProperties resultStoreProperties) {
+        this.resultStore = resultStore;
+        this.resultStoreProperties = resultStoreProperties;
+    }
+
+    public List<Comparison> compare(RunMetadata run, String target) {
+        List<Comparison> comparisons = new ArrayList<>();
+        String configured = resultStoreProperties.getBaselineRunId();
+        if(configured == null || configured.isBlank()) {
+            // An empty baseline disables the comparison
+            return comparisons;
+        }
+        try (Connection connection = resultStore.openHistory()) {
+            String baselineRunId = baselineRunId(connection, run, target);
+            if(baselineRunId == null) {
+                logger.info("No baseline run of {} at scale factor {} to compare with", target, run.getScaleFactor());
+                return comparisons;
+            }
+
+            Map<String, List<Long>> baseline = samples(connection, baselineRunId, target);
+            Map<String, List<Long>> current = samples(connection, run.getRunId(), target);
+            for(Map.Entry<String, List<Long>> entry : current.entrySet()) {
+                List<Long> baselineSamples = baseline.get(entry.getKey());
+                if(baselineSamples != null) {
+                    comparisons.add(compare(entry.getKey(), baselineSamples, entry.getValue()));
+                }
+            }
+            log(target, baselineRunId, comparisons);
+        } catch (IOException | SQLException e) {
+            logger.error("Could not compare {} with its baseline", target, e);
+        }
+        return comparisons;
+    }
+
+    private Comparison compare(String key, List<Long> baseline, List<Long> current) {
+        double baselineMean = Statistics.mean(baseline);
+        double currentMean = Statistics.mean(current);
+        double relativeChange = baselineMean == 0 ? 0 : (currentMean - baselineMean) / baselineMean;
+        double pValue = Statistics.welchTTestPValue(baseline, current);
+
+        Verdict verdict;
+        if(Double.isNaN(pValue)) {
+            verdict = Verdict.INSUFFICIENT_SAMPLES;
+        } else if(pValue >= resultStoreProperties.getSignificanceLevel()
+                || Math.abs(relativeChange) < resultStoreProperties.getMinRelativeChange()) {
+            verdict = Verdict.UNCHANGED;
+        } else {
+            verdict = relativeChange > 0 ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+        }
+        return new Comparison(key, baselineMean, currentMean, relativeChange, pValue, verdict);
+    }
+
+    private String baselineRunId(Connection connection, RunMetadata run, String target) throws SQLException {
+        String configured = resultStoreProperties.getBaselineRunId();
+        if(!PREVIOUS_RUN.equals(configured)) {
+            return configured;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT run_id FROM measurements WHERE target = ? AND scale_factor = ? AND run_id < ? " +
+                        "GROUP BY run_id ORDER BY run_id DESC LIMIT 1")) {
+            statement.setString(1, target);
+            statement.setString(2, run.getScaleFactor());
+            statement.setString(3, run.getRunId());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private static Map<String, List<Long>> samples(Connection connection, String runId, String target) throws SQLException {
+        Map<String, List<Long>> samples = new TreeMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT query, result_type, time_ns FROM measurements WHERE run_id = ? AND target = ? AND NOT failed " +
+                        "ORDER BY query, result_type, iteration")) {
+            statement.setString(1, runId);
+            statement.setString(2, target);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while(resultSet.next()) {
+                    String key = String.format(Locale.ROOT, "%02d %s", resultSet.getInt(1), resultSet.getString(2));
+                    samples.computeIfAbsent(key, k -> new ArrayList<>()).add(resultSet.getLong(3));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private void log(String target, String baselineRunId, List<Comparison> comparisons) {
+        StringBuilder report = new StringBuilder();
+        int changes = 0;
+        for(Comparison comparison : comparisons) {
+            if(comparison.getVerdict() == Verdict.REGRESSION || comparison.getVerdict() == Verdict.IMPROVEMENT) {
+                changes++;
+            }
+            report.append("\n").append(comparison);
+        }
+        logger.info("Comparison of {} with run {}: {} significant changes{}", target, baselineRunId, changes, report);
+    }
+
+    public enum Verdict {
+        REGRESSION,
+        IMPROVEMENT,
+        UNCHANGED,
+        INSUFFICIENT_SAMPLES
+    }
+
+    public static class Comparison {
+        private final String key;
+        private final double baselineMeanInNs;
+        private final double currentMeanInNs;
+        private final double relativeChange;
+        private final double pValue;
+        private final Verdict verdict;
+
+        public Comparison(String key, double baselineMeanInNs, double currentMeanInNs, double relativeChange, double pValue, Verdict verdict) {
+            this.key = key;
+            this.baselineMeanInNs = baselineMeanInNs;
+            this.currentMeanInNs = currentMeanInNs;
+            this.relativeChange = relativeChange;
+            this.pValue = pValue;
+            this.verdict = verdict;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getRelativeChange() {
+            return relativeChange;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s,%.1f,%.1f,%+.1f%%,%.4f,%s", key, baselineMeanInNs / 1e6, currentMeanInNs / 1e6,
+                    relativeChange * 100, pValue, verdict);
+        }
+    }
+}
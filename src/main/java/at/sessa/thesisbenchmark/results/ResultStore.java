@@ -0,0 +1,461 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.OltpResult;
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.TuningResult;
+import at.sessa.thesisbenchmark.configuration.GenericProperties;
+import at.sessa.thesisbenchmark.configuration.ResultStoreProperties;
+import at.sessa.thesisbenchmark.monitoring.ResourceUsage;
+import at.sessa.thesisbenchmark.service.ResultChecksum;
+import at.sessa.thesisbenchmark.service.SessionSettings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persists every run as one CSV and one JSON file per target, and appends all measurements to a DuckDB history
+ * database, whose columnar storage keeps years of runs small and fast to compare.
+ */
+@Component
+public class ResultStore {
+    Logger logger = LoggerFactory.getLogger(ResultStore.class);
+
+    static final String HISTORY_FILE = "history.duckdb";
+    private static final String PROPERTY_PREFIX = "at.sessa.thesisbenchmark";
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final String CSV_HEADER = "run_id,started_at,target,vendor,layout,scale_factor,config_hash,engine_version,query," +
+            "result_type,cache_state,iteration,time_ns,time_to_first_row_ns,row_count,bytes_decoded,failed," +
+            "cpu_seconds,peak_memory_bytes,bytes_read,bytes_written,throttled_seconds,outcome,connection_acquisition_ns,result_checksum";
+
+    private final ResultStoreProperties resultStoreProperties;
+    private final GenericProperties genericProperties;
+    private final ConfigurableEnvironment environment;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public ResultStore(ResultStoreProperties resultStoreProperties, GenericProperties genericProperties, ConfigurableEnvironment environment) {
+        this.resultStoreProperties = resultStoreProperties;
+        this.genericProperties = genericProperties;
+        this.environment = environment;
+    }
+
+    public RunMetadata startRun() {
+        Instant startedAt = Instant.now();
+        return new RunMetadata(RUN_ID_FORMAT.format(startedAt), startedAt, genericProperties.getScaleFactor(), configHash(), environmentMetadata());
+    }
+
+    public void store(RunMetadata run, String target, String vendor, String layout, String engineVersion, Result result) {
+        List<Record> records = toRecords(run, target, vendor, layout, engineVersion, result);
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        try {
+            Files.createDirectories(directory);
+            writeCsv(directory.resolve(target + ".csv"), records);
+            writeJson(directory.resolve(target + ".json"), run, target, vendor, layout, engineVersion, records);
+            appendToHistory(run, records);
+            logger.info("Stored {} measurements of {} in {}", records.size(), target, directory.toAbsolutePath());
+        } catch (IOException | SQLException e) {
+            logger.error("Could not store results of {}", target, e);
+        }
+    }
+
+    public void storeTuning(RunMetadata run, String target, TuningResult tuningResult) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        SessionSettings best = tuningResult.getBest();
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(target + "-tuning.csv"), StandardCharsets.UTF_8)) {
+                writer.write("query,settings,median_ns,best_for_query,best_overall\n");
+                Map<Integer, TuningResult.TuningMeasurement> bestPerQuery = tuningResult.getBestPerQuery();
+                for(TuningResult.TuningMeasurement measurement : tuningResult.getMeasurements()) {
+                    writer.write(String.join(",", csvField(measurement.getQueryId()), csvField(measurement.getSettings()),
+                            csvField(measurement.isFailed() ? null : Math.round(measurement.getMedianTimeInNs())),
+                            csvField(bestPerQuery.get(measurement.getQueryId()) == measurement),
+                            csvField(measurement.getSettings() == best)));
+                    writer.write("\n");
+                }
+            }
+            logger.info("Stored tuning of {} in {}", target, directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not store tuning of {}", target, e);
+        }
+    }
+
+    /**
+     * Writes the on-disk size of every table of the target and appends it to the history, together with the storage
+     * options the tables were created with.
+     */
+    public void storeTableSizes(RunMetadata run, String target, String storageOptions, Map<String, Long> tableSizes) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(target + "-sizes.csv"), StandardCharsets.UTF_8)) {
+                writer.write("table,storage_options,bytes\n");
+                for(Map.Entry<String, Long> tableSize : tableSizes.entrySet()) {
+                    writer.write(String.join(",", csvField(tableSize.getKey()), csvField(storageOptions), csvField(tableSize.getValue())));
+                    writer.write("\n");
+                }
+            }
+            try (Connection connection = openHistory();
+                 PreparedStatement statement = connection.prepareStatement("INSERT INTO table_sizes VALUES (?, ?, ?, ?, ?, ?)")) {
+                for(Map.Entry<String, Long> tableSize : tableSizes.entrySet()) {
+                    statement.setString(1, run.getRunId());
+                    statement.setString(2, target);
+                    statement.setString(3, run.getScaleFactor());
+                    statement.setString(4, storageOptions);
+                    statement.setString(5, tableSize.getKey());
+                    statement.setLong(6, tableSize.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            logger.info("Stored table sizes of {} in {}", target, directory.toAbsolutePath());
+        } catch (IOException | SQLException e) {
+            logger.error("Could not store table sizes of {}", target, e);
+        }
+    }
+
+    /**
+     * Writes the OLTP latencies next to the results of the queries they ran alongside.
+     */
+    public void storeOltp(RunMetadata run, String target, OltpResult oltpResult) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(target + "-oltp.csv"), StandardCharsets.UTF_8)) {
+                writer.write("operation,scheduled,completed,errors,per_second,p50_ns,p99_ns,max_ns,service_p50_ns,service_p99_ns\n");
+                for(OltpResult.OperationResult operation : oltpResult.getOperations()) {
+                    writer.write(String.join(",", csvField(operation.getOperation()), csvField(operation.getScheduled()),
+                            csvField(operation.getCompleted()), csvField(operation.getErrors()),
+                            csvField(operation.getPerSecond(oltpResult.getElapsedInNs())),
+                            csvField(operation.getLatency().getValueAtPercentile(50)),
+                            csvField(operation.getLatency().getValueAtPercentile(99)),
+                            csvField(operation.getLatency().getMaxValue()),
+                            csvField(operation.getServiceTime().getValueAtPercentile(50)),
+                            csvField(operation.getServiceTime().getValueAtPercentile(99))));
+                    writer.write("\n");
+                }
+            }
+            logger.info("Stored OLTP latencies of {} in {}", target, directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not store OLTP latencies of {}", target, e);
+        }
+    }
+
+    public void storeVerification(RunMetadata run, ResultVerifier resultVerifier) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("verification.csv"), StandardCharsets.UTF_8)) {
+                writer.write("query,target,checksum,row_count,executions,distinct_checksums,reference_checksum,matches\n");
+                for(ResultVerifier.Entry entry : resultVerifier.getEntries()) {
+                    writer.write(String.join(",", csvField(entry.getQueryId()), csvField(entry.getTarget()),
+                            csvField(ResultChecksum.format(entry.getChecksum())), csvField(entry.getRowCount()),
+                            csvField(entry.getExecutions()), csvField(entry.getDistinctChecksums()),
+                            csvField(ResultChecksum.format(entry.getReferenceChecksum())),
+                            csvField(entry.isCompared() ? entry.isMatching() : null)));
+                    writer.write("\n");
+                }
+            }
+            logger.info("Stored result verification in {}", directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not store result verification", e);
+        }
+    }
+
+    public void storeStorage(RunMetadata run, StorageAnalysis storageAnalysis) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), run.getRunId());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("storage.csv"), StandardCharsets.UTF_8)) {
+                writer.write("target,storage_options,total_bytes,geometric_mean_ns,failed_queries,speed_per_gb,best\n");
+                Map<String, StorageAnalysis.Entry> best = storageAnalysis.getBestPerTarget();
+                for(StorageAnalysis.Entry entry : storageAnalysis.getEntries()) {
+                    writer.write(String.join(",", csvField(entry.getTarget()), csvField(entry.getStorageOptions()),
+                            csvField(entry.getTotalBytes()),
+                            csvField(Double.isNaN(entry.getGeometricMeanInNs()) ? null : Math.round(entry.getGeometricMeanInNs())),
+                            csvField(entry.getFailedQueries()),
+                            csvField(Double.isNaN(entry.getSpeedPerGb()) ? null : entry.getSpeedPerGb()),
+                            csvField(best.get(entry.getTarget()) == entry)));
+                    writer.write("\n");
+                }
+            }
+            logger.info("Stored storage analysis in {}", directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not store storage analysis", e);
+        }
+    }
+
+    /**
+     * Writes the fits and crossovers of a sweep to a directory of its own, named after the run of its first scale factor.
+     */
+    public void storeScaling(RunMetadata firstRun, ScalingAnalysis scalingAnalysis) {
+        Path directory = Paths.get(resultStoreProperties.getDirectory(), "sweep-" + firstRun.getRunId());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("scaling.csv"), StandardCharsets.UTF_8)) {
+                writer.write("target,query,points,coefficient_ns,exponent,r_squared,super_linear\n");
+                for(ScalingAnalysis.Fit fit : scalingAnalysis.fits()) {
+                    writer.write(String.join(",", csvField(fit.getTarget()), csvField(fit.getQueryId()), csvField(fit.getPoints()),
+                            csvField(fit.getCoefficient()), csvField(fit.getExponent()), csvField(fit.getRSquared()),
+                            csvField(fit.isSuperLinear())));
+                    writer.write("\n");
+                }
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("crossovers.csv"), StandardCharsets.UTF_8)) {
+                writer.write("vendor,query,measured_from,measured_to,fitted_scale_factor,faster_above\n");
+                for(ScalingAnalysis.Crossover crossover : scalingAnalysis.crossovers()) {
+                    writer.write(String.join(",", csvField(crossover.getVendor()), csvField(crossover.getQueryId()),
+                            csvField(crossover.getMeasuredFrom()), csvField(crossover.getMeasuredTo()),
+                            csvField(Double.isNaN(crossover.getFittedScaleFactor()) ? null : crossover.getFittedScaleFactor()),
+                            csvField(crossover.getFasterAbove())));
+                    writer.write("\n");
+                }
+            }
+            logger.info("Stored scaling analysis in {}", directory.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not store scaling analysis", e);
+        }
+    }
+
+    Connection openHistory() throws SQLException, IOException {
+        Path directory = Paths.get(resultStoreProperties.getDirectory());
+        Files.createDirectories(directory);
+        Connection connection = DriverManager.getConnection("jdbc:duckdb:" + directory.resolve(HISTORY_FILE).toAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS runs (run_id VARCHAR, started_at TIMESTAMP, scale_factor VARCHAR, " +
+                    "config_hash VARCHAR, environment VARCHAR)");
+            statement.execute("CREATE TABLE IF NOT EXISTS measurements (run_id VARCHAR, started_at TIMESTAMP, target VARCHAR, " +
+                    "vendor VARCHAR, layout VARCHAR, scale_factor VARCHAR, config_hash VARCHAR, engine_version VARCHAR, " +
+                    "query INTEGER, result_type VARCHAR, cache_state VARCHAR, iteration INTEGER, time_ns BIGINT, " +
+                    "time_to_first_row_ns BIGINT, row_count BIGINT, bytes_decoded BIGINT, failed BOOLEAN, cpu_seconds DOUBLE, " +
+                    "peak_memory_bytes BIGINT, bytes_read BIGINT, bytes_written BIGINT, throttled_seconds DOUBLE)");
+            statement.execute("CREATE TABLE IF NOT EXISTS table_sizes (run_id VARCHAR, target VARCHAR, scale_factor VARCHAR, " +
+                    "storage_options VARCHAR, table_name VARCHAR, bytes BIGINT)");
+            // Columns added after the first histories were written
+            statement.execute("ALTER TABLE measurements ADD COLUMN IF NOT EXISTS outcome VARCHAR");
+            statement.execute("ALTER TABLE measurements ADD COLUMN IF NOT EXISTS connection_acquisition_ns BIGINT");
+            statement.execute("ALTER TABLE measurements ADD COLUMN IF NOT EXISTS result_checksum VARCHAR");
+        }
+        return connection;
+    }
+
+    private void appendToHistory(RunMetadata run, List<Record> records) throws SQLException, IOException {
+        try (Connection connection = openHistory()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO runs SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM runs WHERE run_id = ?)")) {
+                statement.setString(1, run.getRunId());
+                statement.setTimestamp(2, Timestamp.from(run.getStartedAt()));
+                statement.setString(3, run.getScaleFactor());
+                statement.setString(4, run.getConfigHash());
+                statement.setString(5, objectMapper.writeValueAsString(run.getEnvironment()));
+                statement.setString(6, run.getRunId());
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO measurements VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for(Record record : records) {
+                    List<Object> values = record.values();
+                    for(int i = 0; i < values.size(); i++) {
+                        Object value = values.get(i);
+                        if(value == null) {
+                            statement.setNull(i + 1, Types.NULL);
+                        } else if(value instanceof Instant) {
+                            statement.setTimestamp(i + 1, Timestamp.from((Instant) value));
+                        } else {
+                            statement.setObject(i + 1, value);
+                        }
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    private void writeCsv(Path file, List<Record> records) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.write("\n");
+            for(Record record : records) {
+                List<String> fields = new ArrayList<>();
+                for(Object value : record.values()) {
+                    fields.add(csvField(value));
+                }
+                writer.write(String.join(",", fields));
+                writer.write("\n");
+            }
+        }
+    }
+
+    private void writeJson(Path file, RunMetadata run, String target, String vendor, String layout, String engineVersion,
+                           List<Record> records) throws IOException {
+        String[] columns = CSV_HEADER.split(",");
+        List<Map<String, Object>> measurements = new ArrayList<>();
+        for(Record record : records) {
+            Map<String, Object> measurement = new LinkedHashMap<>();
+            List<Object> values = record.values();
+            // Run and target fields are written once at the top
+            for(int i = 8; i < columns.length; i++) {
+                measurement.put(columns[i], values.get(i));
+            }
+            measurements.add(measurement);
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("run_id", run.getRunId());
+        document.put("started_at", run.getStartedAt().toString());
+        document.put("target", target);
+        document.put("vendor", vendor);
+        document.put("layout", layout);
+        document.put("scale_factor", run.getScaleFactor());
+        document.put("config_hash", run.getConfigHash());
+        document.put("engine_version", engineVersion);
+        document.put("environment", run.getEnvironment());
+        document.put("measurements", measurements);
+        objectMapper.writeValue(file.toFile(), document);
+    }
+
+    private static String csvField(Object value) {
+        if(value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if(text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static List<Record> toRecords(RunMetadata run, String target, String vendor, String layout, String engineVersion, Result result) {
+        List<Record> records = new ArrayList<>();
+        Map<String, Integer> iterations = new HashMap<>();
+        for(Result.ResultTuple tuple : result.getQueryExecutionTimes()) {
+            int iteration = iterations.merge(tuple.getQueryId() + "," + tuple.getResultType(), 1, Integer::sum);
+            records.add(new Record(run, target, vendor, layout, engineVersion, tuple, iteration));
+        }
+        return records;
+    }
+
+    private String configHash() {
+        Map<String, String> properties = new TreeMap<>();
+        for(PropertySource<?> propertySource : environment.getPropertySources()) {
+            if(propertySource instanceof EnumerablePropertySource) {
+                for(String name : ((EnumerablePropertySource<?>) propertySource).getPropertyNames()) {
+                    if(name.startsWith(PROPERTY_PREFIX)) {
+                        properties.putIfAbsent(name, environment.getProperty(name));
+                    }
+                }
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(properties.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder();
+            for(int i = 0; i < 6; i++) {
+                hash.append(String.format("%02x", digest[i]));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> environmentMetadata() {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("java_version", System.getProperty("java.version"));
+        metadata.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+        metadata.put("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        metadata.put("max_heap_bytes", Long.toString(Runtime.getRuntime().maxMemory()));
+        try {
+            metadata.put("host", InetAddress.getLocalHost().getHostName());
+        } catch (IOException e) {
+            metadata.put("host", "unknown");
+        }
+        return metadata;
+    }
+
+    private static class Record {
+        private final RunMetadata run;
+        private final String target;
+        private final String vendor;
+        private final String layout;
+        private final String engineVersion;
+        private final Result.ResultTuple tuple;
+        private final int iteration;
+
+        private Record(RunMetadata run, String target, String vendor, String layout, String engineVersion, Result.ResultTuple tuple, int iteration) {
+            this.run = run;
+            this.target = target;
+            this.vendor = vendor;
+            this.layout = layout;
+            this.engineVersion = engineVersion;
+            this.tuple = tuple;
+            this.iteration = iteration;
+        }
+
+        // In the column order of CSV_HEADER and of the measurements table
+        private List<Object> values() {
+            QueryMeasurement measurement = tuple.getMeasurement();
+            ResourceUsage usage = tuple.getResourceUsage();
+            List<Object> values = new ArrayList<>();
+            values.add(run.getRunId());
+            values.add(run.getStartedAt());
+            values.add(target);
+            values.add(vendor);
+            values.add(layout);
+            values.add(run.getScaleFactor());
+            values.add(run.getConfigHash());
+            values.add(engineVersion);
+            values.add(tuple.getQueryId());
+            values.add(tuple.getResultType().name());
+            values.add(tuple.getCacheState() == null ? null : tuple.getCacheState().name());
+            values.add(iteration);
+            values.add(tuple.getTimeInNs());
+            values.add(measurement == null ? null : measurement.getTimeToFirstRowInNs());
+            values.add(measurement == null ? null : measurement.getRowCount());
+            values.add(measurement == null ? null : measurement.getBytesDecoded());
+            values.add(measurement != null && measurement.isFailed());
+            values.add(usage == null ? null : usage.getCpuSeconds());
+            values.add(usage == null ? null : usage.getPeakMemoryInBytes());
+            values.add(usage == null ? null : usage.getBytesRead());
+            values.add(usage == null ? null : usage.getBytesWritten());
+            values.add(usage == null ? null : usage.getThrottledSeconds());
+            values.add(tuple.getOutcome().name());
+            values.add(measurement == null ? null : measurement.getConnectionAcquisitionInNs());
+            values.add(measurement == null || measurement.getResultChecksum() == null ? null : ResultChecksum.format(measurement.getResultChecksum()));
+            return values;
+        }
+    }
+}
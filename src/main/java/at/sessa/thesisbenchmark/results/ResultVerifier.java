@@ -0,0 +1,158 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.QueryOutcome;
+import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.service.ResultChecksum;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the result checksums of every query across the targets of a run. The checksum of a target is the one
+ * most of its successful executions returned, executions that disagree mark the query as unstable on that target.
+ * The reference of a query is the checksum most targets agree on, the first target added decides a tie. Only
+ * meaningful if every target ran the queries with the same parameters.
+ */
+public class ResultVerifier {
+    // Query id to target to checksum to the number of executions that returned it
+    private final Map<Integer, Map<String, Map<Long, Integer>>> checksums = new TreeMap<>();
+    // Query id to target to checksum to the row count of the executions that returned it
+    private final Map<Integer, Map<String, Map<Long, Long>>> rowCounts = new TreeMap<>();
+
+    public void add(String target, Result result) {
+        for(Result.ResultTuple tuple : result.getQueryExecutionTimes()) {
+            QueryMeasurement measurement = tuple.getMeasurement();
+            if(tuple.getOutcome() != QueryOutcome.SUCCESS || measurement == null || measurement.getResultChecksum() == null) {
+                continue;
+            }
+            checksums.computeIfAbsent(tuple.getQueryId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(target, k -> new LinkedHashMap<>())
+                    .merge(measurement.getResultChecksum(), 1, Integer::sum);
+            rowCounts.computeIfAbsent(tuple.getQueryId(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(target, k -> new LinkedHashMap<>())
+                    .put(measurement.getResultChecksum(), measurement.getRowCount());
+        }
+    }
+
+    public List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>();
+        checksums.forEach((queryId, byTarget) -> {
+            Map<String, Long> targetChecksums = new LinkedHashMap<>();
+            byTarget.forEach((target, counts) -> targetChecksums.put(target, mostFrequent(counts)));
+            long reference = mostFrequent(targetChecksums.values().stream()
+                    .collect(Collectors.toMap(c -> c, c -> 1, Integer::sum, LinkedHashMap::new)));
+            byTarget.forEach((target, counts) -> entries.add(new Entry(queryId, target, targetChecksums.get(target),
+                    rowCounts.get(queryId).get(target).get(targetChecksums.get(target)), counts.values().stream().mapToInt(Integer::intValue).sum(),
+                    counts.size(), reference, targetChecksums.size())));
+        });
+        return entries;
+    }
+
+    /**
+     * Targets whose answer to a query differs from the reference or was not the same in every execution.
+     */
+    public List<Entry> getMismatches() {
+        return getEntries().stream().filter(e -> !e.isMatching() || e.isUnstable()).collect(Collectors.toList());
+    }
+
+    public String summary() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append("Verification query,target,checksum,rows,executions,distinct checksums,matches reference\n");
+        for(Entry entry : getEntries()) {
+            stringBuilder.append(entry).append(entry.isMatching() && !entry.isUnstable() ? "" : " MISMATCH").append("\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    // Iterates in insertion order, so that the first of several equally frequent checksums wins
+    private static long mostFrequent(Map<Long, Integer> counts) {
+        long best = 0;
+        int bestCount = 0;
+        for(Map.Entry<Long, Integer> count : counts.entrySet()) {
+            if(count.getValue() > bestCount) {
+                best = count.getKey();
+                bestCount = count.getValue();
+            }
+        }
+        return best;
+    }
+
+    public static class Entry {
+        private final int queryId;
+        private final String target;
+        private final long checksum;
+        private final long rowCount;
+        private final int executions;
+        private final int distinctChecksums;
+        private final long referenceChecksum;
+        private final int targets;
+
+        private Entry(int queryId, String target, long checksum, long rowCount, int executions, int distinctChecksums,
+                      long referenceChecksum, int targets) {
+            this.queryId = queryId;
+            this.target = target;
+            this.checksum = checksum;
+            this.rowCount = rowCount;
+            this.executions = executions;
+            this.distinctChecksums = distinctChecksums;
+            this.referenceChecksum = referenceChecksum;
+            this.targets = targets;
+        }
+
+        public int getQueryId() {
+            return queryId;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        public int getDistinctChecksums() {
+            return distinctChecksums;
+        }
+
+        public long getReferenceChecksum() {
+            return referenceChecksum;
+        }
+
+        public boolean isMatching() {
+            return checksum == referenceChecksum;
+        }
+
+        public boolean isUnstable() {
+            return distinctChecksums > 1;
+        }
+
+        /**
+         * Whether another target answered the query, without one a match says nothing.
+         */
+        public boolean isCompared() {
+            return targets > 1;
+        }
+
+        @Override
+        public String toString() {
+            return queryId + "," + target + "," + ResultChecksum.format(checksum) + "," + rowCount + "," + executions + ","
+                    + distinctChecksums + "," + (isCompared() ? isMatching() : "");
+        }
+    }
+}
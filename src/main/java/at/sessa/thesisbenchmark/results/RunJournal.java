@@ -0,0 +1,376 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.CacheState;
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.QueryOutcome;
+import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.configuration.JournalProperties;
+import at.sessa.thesisbenchmark.monitoring.ResourceUsage;
+import at.sessa.thesisbenchmark.target.SetupProgress;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persists the completed steps of a run to one JSON file per scale factor: the setup steps, the measured queries and
+ * the phases after them of every target, and whether its results were stored. A run that is started again with the
+ * same scale factor and configuration continues the interrupted one under its run id, the targets it left behind are
+ * resumed at their first incomplete step instead of being loaded again, unless a phase that modifies the data was
+ * interrupted. Disabled, the journal only tracks the steps in memory.
+ */
+@Component
+public class RunJournal {
+    Logger logger = LoggerFactory.getLogger(RunJournal.class);
+
+    private static final String STORED = "STORED";
+    private static final String FINISHED = "FINISHED";
+    private static final String STARTED_SUFFIX = "_STARTED";
+    private static final String STORED_SUFFIX = "_STORED";
+
+    /**
+     * The phases that follow the query benchmark of a target. Refresh and HTAP modify the data, the throughput
+     * benchmark only reads it.
+     */
+    public enum Phase {
+        THROUGHPUT(false), REFRESH(true), HTAP(true);
+
+        private final boolean modifiesData;
+
+        Phase(boolean modifiesData) {
+            this.modifiesData = modifiesData;
+        }
+    }
+
+    private final JournalProperties journalProperties;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final List<String> abandonedTargets = new ArrayList<>();
+    private Path file;
+    private RunState state = new RunState();
+
+    public RunJournal(JournalProperties journalProperties) {
+        this.journalProperties = journalProperties;
+    }
+
+    public boolean isEnabled() {
+        return journalProperties.isEnabled();
+    }
+
+    /**
+     * Starts journaling the run, or continues the interrupted run with the same scale factor and configuration and
+     * returns its metadata instead. An interrupted run that was configured differently is discarded, the targets it
+     * left behind are returned by getAbandonedTargets.
+     */
+    public RunMetadata open(RunMetadata run) {
+        abandonedTargets.clear();
+        file = Paths.get(journalProperties.getDirectory()).resolve(run.getScaleFactor() + ".json");
+        if(isEnabled() && Files.exists(file)) {
+            RunState previous = read();
+            if(previous.configHash.equals(run.getConfigHash())) {
+                state = previous;
+                logger.info("Resuming run {} from journal {}", previous.runId, file.toAbsolutePath());
+                return new RunMetadata(previous.runId, Instant.parse(previous.startedAt), previous.scaleFactor,
+                        previous.configHash, previous.environment);
+            }
+            logger.warn("Discarding the journal of run {}, it was configured differently", previous.runId);
+            previous.targets.values().stream()
+                    .filter(t -> t.steps.contains(SetupProgress.Step.STARTED.name()) && !t.steps.contains(FINISHED))
+                    .map(t -> t.target)
+                    .distinct()
+                    .forEach(abandonedTargets::add);
+        }
+
+        state = new RunState();
+        state.runId = run.getRunId();
+        state.startedAt = run.getStartedAt().toString();
+        state.scaleFactor = run.getScaleFactor();
+        state.configHash = run.getConfigHash();
+        state.environment = run.getEnvironment();
+        persist();
+        return run;
+    }
+
+    /**
+     * Names of the targets a discarded run left set up, they need to be torn down before they can be set up again.
+     */
+    public List<String> getAbandonedTargets() {
+        return abandonedTargets;
+    }
+
+    /**
+     * The journal of a target under the name its results are stored as.
+     */
+    public TargetJournal target(String name, String targetName) {
+        TargetState targetState = state.targets.computeIfAbsent(name, k -> new TargetState());
+        targetState.target = targetName;
+        return new TargetJournal(name, targetState);
+    }
+
+    /**
+     * Deletes the journals of all runs, once the benchmark is done and no run needs to be resumed anymore.
+     */
+    public void clear() {
+        Path directory = Paths.get(journalProperties.getDirectory());
+        if(!isEnabled() || !Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            List<Path> journals;
+            try (Stream<Path> files = Files.list(directory)) {
+                journals = files.filter(f -> f.getFileName().toString().endsWith(".json")).collect(Collectors.toList());
+            }
+            for(Path journal : journals) {
+                Files.delete(journal);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete the run journals", e);
+        }
+    }
+
+    private RunState read() {
+        try {
+            return objectMapper.readValue(file.toFile(), RunState.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the run journal " + file, e);
+        }
+    }
+
+    // Written to a temporary file first, so that a crash while writing leaves the previous journal intact
+    private void persist() {
+        if(!isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), state);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the run journal " + file, e);
+        }
+    }
+
+    public class TargetJournal implements SetupProgress {
+        private final String name;
+        private final TargetState targetState;
+
+        private TargetJournal(String name, TargetState targetState) {
+            this.name = name;
+            this.targetState = targetState;
+        }
+
+        @Override
+        public boolean isCompleted(Step step) {
+            return targetState.steps.contains(step.name());
+        }
+
+        @Override
+        public void complete(Step step) {
+            complete(step.name());
+        }
+
+        public boolean isStored() {
+            return targetState.steps.contains(STORED);
+        }
+
+        public void stored() {
+            complete(STORED);
+        }
+
+        /**
+         * Whether the target was benchmarked completely, including the throughput and refresh benchmarks.
+         */
+        public boolean isFinished() {
+            return targetState.steps.contains(FINISHED);
+        }
+
+        public void finished() {
+            complete(FINISHED);
+        }
+
+        public boolean isCompleted(Phase phase) {
+            return targetState.steps.contains(phase.name());
+        }
+
+        public void start(Phase phase) {
+            complete(phase.name() + STARTED_SUFFIX);
+        }
+
+        public void complete(Phase phase) {
+            complete(phase.name());
+        }
+
+        /**
+         * Whether the results of the phase were stored, which survives a reload of the data.
+         */
+        public boolean isStored(Phase phase) {
+            return targetState.steps.contains(phase.name() + STORED_SUFFIX);
+        }
+
+        public void stored(Phase phase) {
+            complete(phase.name() + STORED_SUFFIX);
+        }
+
+        /**
+         * Whether a phase that modifies the data was interrupted, which leaves the data in a state no phase can
+         * continue from.
+         */
+        public boolean isDataModificationInterrupted() {
+            return Arrays.stream(Phase.values()).anyMatch(p -> p.modifiesData
+                    && targetState.steps.contains(p.name() + STARTED_SUFFIX) && !isCompleted(p));
+        }
+
+        /**
+         * Forgets the setup and the data modifying phases, so that the target is set up again from the dataset cache
+         * and the phases modify the reloaded data again. Measurements and stored results are kept.
+         */
+        public void reload() {
+            for(SetupProgress.Step step : SetupProgress.Step.values()) {
+                targetState.steps.remove(step.name());
+            }
+            for(Phase phase : Phase.values()) {
+                if(phase.modifiesData) {
+                    targetState.steps.remove(phase.name());
+                    targetState.steps.remove(phase.name() + STARTED_SUFFIX);
+                }
+            }
+            persist();
+        }
+
+        public Map<String, Long> getTableSizes() {
+            return targetState.tableSizes;
+        }
+
+        public void setTableSizes(Map<String, Long> tableSizes) {
+            targetState.tableSizes = new LinkedHashMap<>(tableSizes);
+            persist();
+        }
+
+        /**
+         * The measurements of the queries that were completed so far, without plans.
+         */
+        public Result getResult() {
+            Result result = new Result(name);
+            targetState.tuples.forEach(t -> result.addQueryExecutionTime(t.toResultTuple()));
+            return result;
+        }
+
+        public void addQuery(List<Result.ResultTuple> tuples) {
+            tuples.forEach(t -> targetState.tuples.add(TupleState.of(t)));
+            persist();
+        }
+
+        private void complete(String step) {
+            targetState.steps.add(step);
+            persist();
+        }
+    }
+
+    private static class RunState {
+        private String runId;
+        private String startedAt;
+        private String scaleFactor;
+        private String configHash;
+        private Map<String, String> environment;
+        private Map<String, TargetState> targets = new LinkedHashMap<>();
+    }
+
+    private static class TargetState {
+        // Name of the target in at.sessa.thesisbenchmark.targets
+        private String target;
+        private Set<String> steps = new LinkedHashSet<>();
+        private Map<String, Long> tableSizes = new LinkedHashMap<>();
+        private List<TupleState> tuples = new ArrayList<>();
+    }
+
+    private static class TupleState {
+        private int queryId;
+        private long timeInNs;
+        private String resultType;
+        private String cacheState;
+        private Long timeToFirstRowInNs;
+        private long rowCount;
+        private long bytesDecoded;
+        private long connectionAcquisitionInNs;
+        private String outcome;
+        private String failure;
+        private Long cpuTimeInNs;
+        private long peakMemoryInBytes;
+        private long bytesRead;
+        private long bytesWritten;
+        private long throttledTimeInNs;
+        private int samples;
+        private Long resultChecksum;
+
+        private static TupleState of(Result.ResultTuple tuple) {
+            TupleState state = new TupleState();
+            state.queryId = tuple.getQueryId();
+            state.timeInNs = tuple.getTimeInNs();
+            state.resultType = tuple.getResultType().name();
+            state.cacheState = tuple.getCacheState() == null ? null : tuple.getCacheState().name();
+            QueryMeasurement measurement = tuple.getMeasurement();
+            if(measurement != null) {
+                state.timeToFirstRowInNs = measurement.getTimeToFirstRowInNs();
+                state.rowCount = measurement.getRowCount();
+                state.bytesDecoded = measurement.getBytesDecoded();
+                state.connectionAcquisitionInNs = measurement.getConnectionAcquisitionInNs();
+                state.outcome = measurement.getOutcome().name();
+                state.failure = measurement.isFailed() ? String.valueOf(measurement.getFailure().getMessage()) : null;
+                state.resultChecksum = measurement.getResultChecksum();
+            }
+            ResourceUsage usage = tuple.getResourceUsage();
+            if(usage != null) {
+                state.cpuTimeInNs = Math.round(usage.getCpuSeconds() * 1e9);
+                state.peakMemoryInBytes = usage.getPeakMemoryInBytes();
+                state.bytesRead = usage.getBytesRead();
+                state.bytesWritten = usage.getBytesWritten();
+                state.throttledTimeInNs = Math.round(usage.getThrottledSeconds() * 1e9);
+                state.samples = usage.getSamples();
+            }
+            return state;
+        }
+
+        // The failure is restored with its message only, as the exception type that maps to the same outcome
+        private Result.ResultTuple toResultTuple() {
+            QueryMeasurement measurement = null;
+            if(timeToFirstRowInNs != null) {
+                Exception exception = null;
+                if(QueryOutcome.TIMEOUT.name().equals(outcome)) {
+                    exception = new SQLTimeoutException(failure);
+                } else if(QueryOutcome.ERROR.name().equals(outcome)) {
+                    exception = new SQLException(failure);
+                }
+                measurement = new QueryMeasurement(timeToFirstRowInNs, timeInNs, rowCount, bytesDecoded, exception, connectionAcquisitionInNs,
+                        resultChecksum);
+            }
+            ResourceUsage usage = cpuTimeInNs == null ? null
+                    : new ResourceUsage(cpuTimeInNs, peakMemoryInBytes, bytesRead, bytesWritten, throttledTimeInNs, samples);
+            return new Result.ResultTuple(queryId, timeInNs, Result.ResultType.valueOf(resultType), measurement,
+                    cacheState == null ? null : CacheState.valueOf(cacheState), usage);
+        }
+    }
+}
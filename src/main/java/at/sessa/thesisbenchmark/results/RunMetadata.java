@@ -0,0 +1,43 @@
+package at.sessa.thesisbenchmark.results;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class RunMetadata {
+    private final String runId;
+    private final Instant startedAt;
+    private final String scaleFactor;
+    private final String configHash;
+    private final Map<String, String> environment;
+
+    public RunMetadata(String runId, Instant startedAt, String scaleFactor, String configHash, Map<String, String> environment) {
+        this.runId = runId;
+        this.startedAt = startedAt;
+        this.scaleFactor = scaleFactor;
+        this.configHash = configHash;
+        this.environment = environment;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public String getScaleFactor() {
+        return scaleFactor;
+    }
+
+    /**
+     * Hash over all at.sessa.thesisbenchmark properties, runs with the same hash were configured the same.
+     */
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+}
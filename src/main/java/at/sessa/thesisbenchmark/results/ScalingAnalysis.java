@@ -0,0 +1,259 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.service.QueryExecutionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the median time of every query and target over the scale factors of a sweep and fits the power law
+ * time = coefficient * scaleFactor^exponent by least squares on the logarithms. An exponent of 1 means the query
+ * scales linearly with the data size. For vendors with a row and a column layout the fits also give the scale
+ * factor above which one layout stays faster than the other, which may lie outside the measured range.
+ */
+public class ScalingAnalysis {
+    private static final String ROW_LAYOUT = "row";
+    private static final String COLUMN_LAYOUT = "column";
+
+    private final double superLinearExponent;
+    // Median time in ns by target, query and scale factor
+    private final Map<String, Map<Integer, TreeMap<Double, Double>>> times = new TreeMap<>();
+    private final Map<String, String> vendors = new TreeMap<>();
+    private final Map<String, String> layouts = new TreeMap<>();
+
+    public ScalingAnalysis(double superLinearExponent) {
+        this.superLinearExponent = superLinearExponent;
+    }
+
+    public void add(String target, String vendor, String layout, double scaleFactor, Result result) {
+        vendors.put(target, vendor);
+        layouts.put(target, layout);
+        Map<Integer, TreeMap<Double, Double>> byQuery = times.computeIfAbsent(target, k -> new TreeMap<>());
+        for(int i = 1; i <= QueryExecutionService.QUERY_COUNT; i++) {
+            double median = result.medianTimeInNs(i);
+            // Failed and timed out queries leave a gap at this scale factor
+            if(median > 0) {
+                byQuery.computeIfAbsent(i, k -> new TreeMap<>()).put(scaleFactor, median);
+            }
+        }
+    }
+
+    public List<Fit> fits() {
+        List<Fit> fits = new ArrayList<>();
+        times.forEach((target, byQuery) -> byQuery.forEach((queryId, byScale) -> {
+            Fit fit = fit(target, queryId, byScale);
+            if(fit != null) {
+                fits.add(fit);
+            }
+        }));
+        return fits;
+    }
+
+    public List<Crossover> crossovers() {
+        List<Crossover> crossovers = new ArrayList<>();
+        for(String rowTarget : layouts.keySet()) {
+            if(!ROW_LAYOUT.equals(layouts.get(rowTarget))) {
+                continue;
+            }
+            for(String columnTarget : layouts.keySet()) {
+                if(COLUMN_LAYOUT.equals(layouts.get(columnTarget)) && vendors.get(columnTarget).equals(vendors.get(rowTarget))) {
+                    for(int i = 1; i <= QueryExecutionService.QUERY_COUNT; i++) {
+                        Crossover crossover = crossover(rowTarget, columnTarget, i);
+                        if(crossover != null) {
+                            crossovers.add(crossover);
+                        }
+                    }
+                }
+            }
+        }
+        return crossovers;
+    }
+
+    private Fit fit(String target, int queryId, TreeMap<Double, Double> byScale) {
+        if(byScale.size() < 2) {
+            return null;
+        }
+        int n = byScale.size();
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+        for(Map.Entry<Double, Double> point : byScale.entrySet()) {
+            double x = Math.log(point.getKey());
+            double y = Math.log(point.getValue());
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            sumYY += y * y;
+        }
+        double varianceX = n * sumXX - sumX * sumX;
+        if(varianceX == 0) {
+            return null;
+        }
+        double exponent = (n * sumXY - sumX * sumY) / varianceX;
+        double logCoefficient = (sumY - exponent * sumX) / n;
+        double varianceY = n * sumYY - sumY * sumY;
+        double rSquared = varianceY == 0 ? 1 : Math.pow(n * sumXY - sumX * sumY, 2) / (varianceX * varianceY);
+        return new Fit(target, queryId, n, Math.exp(logCoefficient), exponent, rSquared, exponent > superLinearExponent);
+    }
+
+    private Crossover crossover(String rowTarget, String columnTarget, int queryId) {
+        TreeMap<Double, Double> rowTimes = times.get(rowTarget).getOrDefault(queryId, new TreeMap<>());
+        TreeMap<Double, Double> columnTimes = times.get(columnTarget).getOrDefault(queryId, new TreeMap<>());
+
+        // First pair of adjacent measured scale factors between which the faster layout changes
+        Double measuredFrom = null;
+        Double measuredTo = null;
+        Double previousScale = null;
+        Boolean previousColumnFaster = null;
+        for(Map.Entry<Double, Double> row : rowTimes.entrySet()) {
+            Double column = columnTimes.get(row.getKey());
+            if(column == null) {
+                continue;
+            }
+            boolean columnFaster = column < row.getValue();
+            if(previousColumnFaster != null && previousColumnFaster != columnFaster && measuredFrom == null) {
+                measuredFrom = previousScale;
+                measuredTo = row.getKey();
+            }
+            previousScale = row.getKey();
+            previousColumnFaster = columnFaster;
+        }
+
+        Fit rowFit = fit(rowTarget, queryId, rowTimes);
+        Fit columnFit = fit(columnTarget, queryId, columnTimes);
+        double fitted = Double.NaN;
+        String fasterAbove = null;
+        if(rowFit != null && columnFit != null && rowFit.exponent != columnFit.exponent) {
+            // coefficientRow * s^exponentRow = coefficientColumn * s^exponentColumn
+            fitted = Math.pow(columnFit.coefficient / rowFit.coefficient, 1 / (rowFit.exponent - columnFit.exponent));
+            fasterAbove = rowFit.exponent > columnFit.exponent ? COLUMN_LAYOUT : ROW_LAYOUT;
+        }
+        if(measuredFrom == null && fasterAbove == null) {
+            return null;
+        }
+        return new Crossover(vendors.get(rowTarget), queryId, measuredFrom, measuredTo, fitted, fasterAbove);
+    }
+
+    public String summary() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append("Scaling target,query,points,exponent,r2,coefficient (ms)\n");
+        for(Fit fit : fits()) {
+            stringBuilder.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f%s%n", fit.target, fit.queryId, fit.points,
+                    fit.exponent, fit.rSquared, fit.coefficient / 1e6, fit.superLinear ? " super-linear" : ""));
+        }
+        stringBuilder.append("Crossover vendor,query,measured between,fitted scale factor,faster above\n");
+        for(Crossover crossover : crossovers()) {
+            stringBuilder.append(String.format(Locale.ROOT, "%s,%d,%s,%.3g,%s%n", crossover.vendor, crossover.queryId,
+                    crossover.measuredFrom == null ? "-" : crossover.measuredFrom + "-" + crossover.measuredTo,
+                    crossover.fittedScaleFactor, crossover.fasterAbove == null ? "-" : crossover.fasterAbove));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    public static class Fit {
+        private final String target;
+        private final int queryId;
+        private final int points;
+        private final double coefficient;
+        private final double exponent;
+        private final double rSquared;
+        private final boolean superLinear;
+
+        private Fit(String target, int queryId, int points, double coefficient, double exponent, double rSquared, boolean superLinear) {
+            this.target = target;
+            this.queryId = queryId;
+            this.points = points;
+            this.coefficient = coefficient;
+            this.exponent = exponent;
+            this.rSquared = rSquared;
+            this.superLinear = superLinear;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getQueryId() {
+            return queryId;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        /**
+         * Fitted time in ns at scale factor 1.
+         */
+        public double getCoefficient() {
+            return coefficient;
+        }
+
+        public double getExponent() {
+            return exponent;
+        }
+
+        public double getRSquared() {
+            return rSquared;
+        }
+
+        public boolean isSuperLinear() {
+            return superLinear;
+        }
+    }
+
+    public static class Crossover {
+        private final String vendor;
+        private final int queryId;
+        private final Double measuredFrom;
+        private final Double measuredTo;
+        private final double fittedScaleFactor;
+        private final String fasterAbove;
+
+        private Crossover(String vendor, int queryId, Double measuredFrom, Double measuredTo, double fittedScaleFactor, String fasterAbove) {
+            this.vendor = vendor;
+            this.queryId = queryId;
+            this.measuredFrom = measuredFrom;
+            this.measuredTo = measuredTo;
+            this.fittedScaleFactor = fittedScaleFactor;
+            this.fasterAbove = fasterAbove;
+        }
+
+        public String getVendor() {
+            return vendor;
+        }
+
+        public int getQueryId() {
+            return queryId;
+        }
+
+        /**
+         * Largest measured scale factor before the faster layout changed, null if it did not change in the measured range.
+         */
+        public Double getMeasuredFrom() {
+            return measuredFrom;
+        }
+
+        public Double getMeasuredTo() {
+            return measuredTo;
+        }
+
+        /**
+         * Scale factor at which the fitted curves of both layouts intersect, NaN if they do not.
+         */
+        public double getFittedScaleFactor() {
+            return fittedScaleFactor;
+        }
+
+        /**
+         * Layout whose fitted curve is below the other one above the fitted scale factor, null without fits.
+         */
+        public String getFasterAbove() {
+            return fasterAbove;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package at.sessa.thesisbenchmark.results;
+
+import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.service.QueryExecutionService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relates the on-disk size of every target and storage option combination to its query times. The speed is the
+ * inverse of the geometric mean of the median query times in seconds, so that every query weighs the same, and the
+ * speed per GB divides it by the total size of all tables. A combination under which a query failed cannot be the best.
+ */
+public class StorageAnalysis {
+    private final List<Entry> entries = new ArrayList<>();
+
+    public void add(String target, String storageOptions, Map<String, Long> tableSizes, Result result) {
+        long totalBytes = tableSizes.values().stream().mapToLong(Long::longValue).sum();
+        double sumOfLogs = 0;
+        int succeeded = 0;
+        for(int i = 1; i <= QueryExecutionService.QUERY_COUNT; i++) {
+            double median = result.medianTimeInNs(i);
+            if(median > 0) {
+                sumOfLogs += Math.log(median);
+                succeeded++;
+            }
+        }
+        double geometricMeanInNs = succeeded == 0 ? Double.NaN : Math.exp(sumOfLogs / succeeded);
+        entries.add(new Entry(target, storageOptions, totalBytes, geometricMeanInNs, QueryExecutionService.QUERY_COUNT - succeeded));
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Combination with the highest speed per GB of every target, among those that reported their size and ran every query.
+     */
+    public Map<String, Entry> getBestPerTarget() {
+        Map<String, Entry> best = new LinkedHashMap<>();
+        for(Entry entry : entries) {
+            if(entry.failedQueries == 0 && entry.totalBytes > 0 && !Double.isNaN(entry.geometricMeanInNs)) {
+                best.merge(entry.target, entry, (a, b) -> b.getSpeedPerGb() > a.getSpeedPerGb() ? b : a);
+            }
+        }
+        return best;
+    }
+
+    public String summary() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append("Storage target,options,size (MB),geometric mean (ms),failed queries,speed per GB\n");
+        Map<String, Entry> best = getBestPerTarget();
+        for(Entry entry : entries) {
+            stringBuilder.append(String.format(Locale.ROOT, "%s,%s,%.1f,%.3f,%d,%.4f%s%n", entry.target, entry.storageOptions,
+                    entry.totalBytes / 1024.0 / 1024.0, entry.geometricMeanInNs / 1e6, entry.failedQueries, entry.getSpeedPerGb(),
+                    best.get(entry.target) == entry ? " best" : ""));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    public static class Entry {
+        private final String target;
+        private final String storageOptions;
+        private final long totalBytes;
+        private final double geometricMeanInNs;
+        private final int failedQueries;
+
+        private Entry(String target, String storageOptions, long totalBytes, double geometricMeanInNs, int failedQueries) {
+            this.target = target;
+            this.storageOptions = storageOptions;
+            this.totalBytes = totalBytes;
+            this.geometricMeanInNs = geometricMeanInNs;
+            this.failedQueries = failedQueries;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getStorageOptions() {
+            return storageOptions;
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        /**
+         * Geometric mean of the median times of the queries that succeeded, NaN if none did.
+         */
+        public double getGeometricMeanInNs() {
+            return geometricMeanInNs;
+        }
+
+        public int getFailedQueries() {
+            return failedQueries;
+        }
+
+        /**
+         * Queries per second at the geometric mean time, per GB on disk. NaN without a size.
+         */
+        public double getSpeedPerGb() {
+            if(totalBytes == 0) {
+                return Double.NaN;
+            }
+            return (1e9 / geometricMeanInNs) / (totalBytes / 1024.0 / 1024.0 / 1024.0);
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package at.sessa.thesisbenchmark.service;
 
+import at.sessa.thesisbenchmark.TpchTable;
 import at.sessa.thesisbenchmark.Utility;
 import at.sessa.thesisbenchmark.configuration.GenericProperties;
+import at.sessa.thesisbenchmark.configuration.LoadProperties;
 import at.sessa.thesisbenchmark.configuration.MssqlProperties;
+import at.sessa.thesisbenchmark.configuration.PoolProperties;
 import at.sessa.thesisbenchmark.configuration.PostgresProperties;
+import at.sessa.thesisbenchmark.configuration.ReadinessProperties;
+import at.sessa.thesisbenchmark.configuration.StorageProperties;
+import at.sessa.thesisbenchmark.generator.TpchGenerator;
+import at.sessa.thesisbenchmark.monitoring.BenchmarkMetrics;
 import com.microsoft.sqlserver.jdbc.SQLServerDriver;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.flywaydb.core.Flyway;
 import org.postgresql.Driver;
 import org.postgresql.jdbc.PgConnection;
@@ -21,161 +30,120 @@ import org.springframework.util.StreamUtils;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 @Service
 public class BenchmarkSetupService {
     Logger logger = LoggerFactory.getLogger(BenchmarkSetupService.class);
 
+    private static final String ARCHIVE_IMAGE = "ubuntu:20.04";
+    private static final String TOOLS_IMAGE = "alpine:3.12";
+
     private final PostgresProperties postgresProperties;
     private final MssqlProperties mssqlProperties;
     private final GenericProperties genericProperties;
-    private final String postgresRowContainerName = "postgres12";
-    private final String postgresColumnContainerName = "postgres12cstore";
-    private final String mssqlContainerName = "mssql";
-    private final String dockerTestdataMountpath;
-    private final String testDataLocationInContainer;
-
-    public BenchmarkSetupService(PostgresProperties postgresProperties, MssqlProperties mssqlProperties, GenericProperties genericProperties) {
+    private final LoadProperties loadProperties;
+    private final PoolProperties poolProperties;
+    private final StorageProperties storageProperties;
+    private final BenchmarkMetrics benchmarkMetrics;
+    private final ReadinessProbe readinessProbe;
+    private final String testdataMountOption;
+
+    public BenchmarkSetupService(PostgresProperties postgresProperties, MssqlProperties mssqlProperties, GenericProperties genericProperties, LoadProperties loadProperties,
+                                 ReadinessProperties readinessProperties, PoolProperties poolProperties,
+                                 StorageProperties storageProperties, BenchmarkMetrics benchmarkMetrics) {
         this.postgresProperties = postgresProperties;
         this.mssqlProperties = mssqlProperties;
         this.genericProperties = genericProperties;
-        testDataLocationInContainer = "/testdata/"+genericProperties.getScaleFactor()+"/";
-        dockerTestdataMountpath = genericProperties.getDockerTestdataMountPath() + ":/testdata";
-    }
-
-    public DataSource setupPostgresRowDatasource() {
-        startPostgresRowContainer();
-        DataSource postgresRowDataSource = createPostgresDataSource();
-        waitUntilDatasourceReady(postgresRowDataSource, null);
-        migratePostgresRow(postgresRowDataSource);
-        loadPostgresData(postgresRowDataSource);
-        restartPostgresRowContainer();
-        postgresRowDataSource = createPostgresDataSource();
-        waitUntilDatasourceReady(postgresRowDataSource, null);
-        printVolumeSizes();
-        return postgresRowDataSource;
-    }
-
-    public DataSource setupPostgresColumnDatasource() {
-        startPostgresColumnContainer();
-        DataSource postgresColumnDataSource = createPostgresDataSource();
-        waitUntilDatasourceReady(postgresColumnDataSource, null);
-        migratePostgresColumn(postgresColumnDataSource);
-        loadPostgresData(postgresColumnDataSource);
-        restartPostgresColContainer();
-        postgresColumnDataSource = createPostgresDataSource();
-        waitUntilDatasourceReady(postgresColumnDataSource, null);
-        printVolumeSizes();
-        return postgresColumnDataSource;
-    }
-
-    public DataSource setupMssqlRowDataSource() {
-        startMssqlContainer("mssqlrow");
-        DataSource mssqlDataSource = createMssqlDataSource();
-        waitUntilDatasourceReady(mssqlDataSource, this::createMssqlDatabase);
-        migrateMssqlRow(mssqlDataSource);
-        loadMsSqlData(mssqlDataSource, "row");
-        restartMssqlRowContainer();
-        mssqlDataSource = createMssqlDataSource();
-        waitUntilDatasourceReady(mssqlDataSource, null);
-        printVolumeSizes();
-        return mssqlDataSource;
-    }
-
-    public DataSource setupMssqlColumnDataSource() {
-        startMssqlContainer("mssqlcolumn");
-        DataSource mssqlDataSource = createMssqlDataSource();
-        waitUntilDatasourceReady(mssqlDataSource, this::createMssqlDatabase);
-        migrateMssqlColumn(mssqlDataSource);
-        loadMsSqlData(mssqlDataSource, "column");
-        restartMssqlColumnContainer();
-        mssqlDataSource = createMssqlDataSource();
-        waitUntilDatasourceReady(mssqlDataSource, null);
-        printVolumeSizes();
-        return mssqlDataSource;
-    }
-
-    public void cleanUpContainers() {
-        logger.info("Cleaning up containers");
-        cleanUpPostgresRowContainer();
-        cleanUpPostgresColumnContainer();
-        cleanUpMssqlContainer("mssqlrow");
-        cleanUpMssqlContainer("mssqlcolumn");
-    }
-
-    public void cleanUpPostgresRowContainer() {
-        try {
-            logger.info("Cleaning up postgresrowcontainer");
-            Runtime.getRuntime().exec(String.format("docker stop %s", postgresRowContainerName));
-            Thread.sleep(20000);
-            Runtime.getRuntime().exec(String.format("docker rm %s", postgresRowContainerName));
-            Runtime.getRuntime().exec(String.format("docker volume rm %s", "postgres"));
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        this.loadProperties = loadProperties;
+        this.poolProperties = poolProperties;
+        this.storageProperties = storageProperties;
+        this.benchmarkMetrics = benchmarkMetrics;
+        this.readinessProbe = new ReadinessProbe(readinessProperties);
+        // Client side loading and generation stream the data from this process, so the containers do not need the bind mount
+        testdataMountOption = loadProperties.isServerMode() ? "-v " + genericProperties.getDockerTestdataMountPath() + ":/testdata " : "";
     }
 
-    public void cleanUpPostgresColumnContainer() {
-        try {
-            logger.info("Cleaning up postgrescolumncontainer");
-            Runtime.getRuntime().exec(String.format("docker stop %s", postgresColumnContainerName));
-            Thread.sleep(20000);
-            Runtime.getRuntime().exec(String.format("docker rm %s", postgresColumnContainerName));
-            Runtime.getRuntime().exec(String.format("docker volume rm %s", "postgrescolumn"));
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    // Resolved on every load, the scale factor changes between the steps of a sweep
+    private String testDataLocationInContainer() {
+        return "/testdata/"+genericProperties.getScaleFactor()+"/";
     }
 
-    public void cleanUpMssqlContainer(String volumeName) {
-        try {
-            logger.info("Cleaning up mssqlcontainer");
-            Runtime.getRuntime().exec(String.format("docker stop %s", mssqlContainerName));
-            Thread.sleep(20000);
-            Runtime.getRuntime().exec(String.format("docker rm %s", mssqlContainerName));
-            Runtime.getRuntime().exec(String.format("docker volume rm %s", volumeName));
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    public String getTestdataMountOption() {
+        return testdataMountOption;
     }
 
-    private void startPostgresRowContainer() {
-        Utility.execRuntime("docker volume create postgres");
-        Utility.execRuntime(String.format("docker run -d -p 5432:5432 --shm-size=4g --cpus=8 -m=32G --name %s -e POSTGRES_PASSWORD=password -e PGDATA=/var/lib/postgresql/data/pgdata -v %s --mount source=postgres,target=/var/lib/postgresql/data postgres:12.3 -c shared_buffers=8192MB -c effective_cache_size=163848MB -c work_mem=512MB", postgresRowContainerName, dockerTestdataMountpath));
+    public void startContainer(String volumeName, String runCommand) {
+        Utility.execRuntime("docker volume create "+volumeName);
+        Utility.execRuntime(runCommand);
     }
 
-    private void restartPostgresRowContainer() {
-        Utility.execRuntime("docker restart postgres12");
+    public void restartContainer(String containerName) {
+        Utility.execRuntime("docker restart "+containerName);
     }
 
-    private void startPostgresColumnContainer() {
-        Utility.execRuntime("docker volume create postgrescolumn");
-        Utility.execRuntime(String.format("docker run -d -p 5432:5432 --shm-size=16g --cpus=8 -m=32g --name %s -e POSTGRES_PASSWORD=password -e PGDATA=/var/lib/postgresql/data/pgdata -v %s --mount source=postgrescolumn,target=/var/lib/postgresql/data postgres_12_cstore -c shared_buffers=8192MB -c effective_cache_size=163848MB -c work_mem=512MB", postgresColumnContainerName, dockerTestdataMountpath));
+    /**
+     * docker stop returns once the container has exited, so the container and its volume can be removed right away.
+     */
+    public void stopContainer(String containerName) {
+        Utility.execRuntime("docker stop "+containerName);
     }
 
-    private void restartPostgresColContainer() {
-        Utility.execRuntime("docker restart postgres12cstore");
+    public void startStoppedContainer(String containerName) {
+        Utility.execRuntime("docker start "+containerName);
     }
 
-    private void startMssqlContainer(String volumeName) {
-        Utility.execRuntime("docker volume create "+volumeName);
-        Utility.execRuntime(String.format("docker run --name %s -e ACCEPT_EULA=Y -e SA_PASSWORD=Password1 -e MSSQL_MEMORY_LIMIT_MB=32768 -p 1433:1433 --shm-size=4g --cpus=8 -m=32g -v %s --mount source="+volumeName+",target=/var/opt/mssql -d mcr.microsoft.com/mssql/server:2019-CU5-ubuntu-16.04", mssqlContainerName, dockerTestdataMountpath));
+    /**
+     * Containers share the page cache of the host, so dropping it needs a privileged container but no specific one.
+     */
+    public void dropOsCaches() {
+        Utility.execRuntime("docker run --rm --privileged "+TOOLS_IMAGE+" sync");
+        Utility.execRuntime("docker run --rm --privileged "+TOOLS_IMAGE+" sysctl -w vm.drop_caches=3");
     }
 
-    private void restartMssqlRowContainer() {
-        Utility.execRuntime("docker restart mssql");
+    /**
+     * Archives the content of a volume with a throwaway container. The container using the volume must be stopped.
+     * Throws if tar fails, the archive may be incomplete then.
+     */
+    public void archiveVolume(String volumeName, Path file) {
+        Utility.execRuntimeChecked(String.format("docker run --rm -v %s:/data -v %s:/snapshot %s tar --numeric-owner -C /data -cf /snapshot/%s .",
+                volumeName, file.getParent().toAbsolutePath(), ARCHIVE_IMAGE, file.getFileName()));
     }
 
-    private void restartMssqlColumnContainer() {
-        Utility.execRuntime("docker restart mssql");
+    public void restoreVolume(String volumeName, Path file) {
+        Utility.execRuntimeChecked("docker volume create "+volumeName);
+        Utility.execRuntimeChecked(String.format("docker run --rm -v %s:/data -v %s:/snapshot %s tar --numeric-owner -C /data -xf /snapshot/%s",
+                volumeName, file.getParent().toAbsolutePath(), ARCHIVE_IMAGE, file.getFileName()));
+    }
+
+    public void cleanUpContainer(String containerName, String volumeName) {
+        long startTime = System.currentTimeMillis();
+        logger.info("Cleaning up {}", containerName);
+        Utility.execRuntime(String.format("docker stop %s", containerName));
+        Utility.execRuntime(String.format("docker rm %s", containerName));
+        Utility.execRuntime(String.format("docker volume rm %s", volumeName));
+        logger.info("Cleaned up {} in {} ms", containerName, System.currentTimeMillis() - startTime);
     }
 
-    private void createMssqlDatabase() {
-        Utility.execRuntime(String.format("docker exec "+mssqlContainerName+" /opt/mssql-tools/bin/sqlcmd -U sa -P Password1 -Q %s","\\\"CREATE DATABASE springbootdb;\\\""));
+    public void createMssqlDatabase(String containerName) {
+        Utility.execRuntime(String.format("docker exec "+containerName+" /opt/mssql-tools/bin/sqlcmd -U sa -P Password1 -Q %s","\\\"CREATE DATABASE springbootdb;\\\""));
     }
 
-    private DataSource createPostgresDataSource() {
+    public DataSource createPostgresDataSource() {
+        return createPostgresDataSource(Map.of());
+    }
+
+    public DataSource createPostgresDataSource(Map<String, String> connectionProperties) {
         SimpleDriverDataSource simpleDriverDataSource = new SimpleDriverDataSource();
+        simpleDriverDataSource.setConnectionProperties(toProperties(connectionProperties));
         simpleDriverDataSource.setDriverClass(Driver.class);
         simpleDriverDataSource.setUrl(postgresProperties.getJdbcUrl());
         simpleDriverDataSource.setUsername(postgresProperties.getUsername());
@@ -183,8 +151,13 @@ public class BenchmarkSetupService {
         return simpleDriverDataSource;
     }
 
-    private DataSource createMssqlDataSource() {
+    public DataSource createMssqlDataSource() {
+        return createMssqlDataSource(Map.of());
+    }
+
+    public DataSource createMssqlDataSource(Map<String, String> connectionProperties) {
         SimpleDriverDataSource simpleDriverDataSource = new SimpleDriverDataSource();
+        simpleDriverDataSource.setConnectionProperties(toProperties(connectionProperties));
         simpleDriverDataSource.setDriverClass(SQLServerDriver.class);
         simpleDriverDataSource.setUrl(mssqlProperties.getJdbcUrl());
         simpleDriverDataSource.setUsername(mssqlProperties.getUsername());
@@ -192,208 +165,220 @@ public class BenchmarkSetupService {
         return simpleDriverDataSource;
     }
 
-    private void migratePostgresRow(DataSource dataSource) {
-        logger.info("Initializing postgres row migration");
-        Flyway.configure().locations("db/migration/postgres/row").dataSource(dataSource).load().migrate();
-    }
-
-    private void migratePostgresColumn(DataSource dataSource) {
-        logger.info("Initializing postgres column migration");
-        Flyway.configure().locations("db/migration/postgres/column").dataSource(dataSource).load().migrate();
+    private static Properties toProperties(Map<String, String> connectionProperties) {
+        Properties properties = new Properties();
+        properties.putAll(connectionProperties);
+        return properties;
     }
 
-    private void migrateMssqlRow(DataSource dataSource) {
-        logger.info("Initializing mssql row migration");
-        Flyway.configure().locations("db/migration/mssql/row").dataSource(dataSource).load().migrate();
+    /**
+     * Wraps a ready data source in a connection pool as configured, so that logins are not part of every query and
+     * every loader statement. A prewarmed pool has all its connections open before it is returned.
+     */
+    public DataSource pool(DataSource dataSource, String poolName) {
+        return pool(dataSource, poolName, null);
     }
 
-    private void migrateMssqlColumn(DataSource dataSource) {
-        logger.info("Initializing mssql column migration");
-        Flyway.configure().locations("db/migration/mssql/column").dataSource(dataSource).load().migrate();
+    /**
+     * Pools the data source like pool, every new connection runs the session statement first if it is not null.
+     * Data sources with a session statement are pooled even if pooling is disabled.
+     */
+    public DataSource pool(DataSource dataSource, String poolName, String sessionStatement) {
+        if(!poolProperties.isEnabled() && sessionStatement == null) {
+            return dataSource;
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDataSource(dataSource);
+        config.setConnectionInitSql(sessionStatement);
+        config.setMaximumPoolSize(poolProperties.getSize());
+        config.setMinimumIdle(poolProperties.isPrewarm() ? poolProperties.getSize() : 1);
+        config.setConnectionTimeout(poolProperties.getConnectionTimeoutInMs());
+        HikariDataSource pooledDataSource = new HikariDataSource(config);
+        if(poolProperties.isPrewarm()) {
+            prewarm(pooledDataSource);
+        }
+        return pooledDataSource;
     }
 
-    public void loadPostgresData(DataSource dataSource) {
-        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-
+    private void prewarm(DataSource dataSource) {
         long startTime = System.currentTimeMillis();
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for(int i = 0; i < poolProperties.getSize(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not prewarm the connection pool", e);
+        } finally {
+            for(Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("Could not return a connection to the pool", e);
+                }
+            }
+        }
+        logger.info("Opened {} pooled connections in {} ms", connections.size(), System.currentTimeMillis() - startTime);
+    }
 
-        logger.info("Started import at: {}", startTime);
-
-        jdbcTemplate.execute(
-                "COPY REGION(R_REGIONKEY, R_NAME, R_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"region.tbl'\n" +
-                        "DELIMITER '|'"
-        );
-
-        logger.info("Finished loading regions at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "COPY NATION(N_NATIONKEY, N_NAME, N_REGIONKEY, N_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"nation.tbl'\n" +
-                        "DELIMITER '|'"
-        );
-
-        logger.info("Finished loading nations at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "COPY SUPPLIER(S_SUPPKEY, S_NAME, S_ADDRESS, S_NATIONKEY, S_PHONE, S_ACCTBAL, S_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"supplier.tbl'\n" +
-                        "DELIMITER '|'"
-        );
-
-        logger.info("Finished loading suppliers at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "COPY PART(P_PARTKEY, P_NAME, P_MFGR, P_BRAND, P_TYPE, P_SIZE, P_CONTAINER, P_RETAILPRICE, P_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"part.tbl'\n" +
-                        "DELIMITER '|'"
-        );
+    /**
+     * Lets a pool returned by pool replace its connections once the engine was restarted. The pool itself stays open,
+     * as the services of a benchmark hold on to it across cache flushes and restarts. Idle connections are closed right
+     * away, those in use when they are returned.
+     */
+    public void evictConnections(DataSource dataSource) {
+        if(dataSource instanceof HikariDataSource) {
+            HikariDataSource pooledDataSource = (HikariDataSource) dataSource;
+            pooledDataSource.getHikariPoolMXBean().softEvictConnections();
+            if(poolProperties.isPrewarm()) {
+                prewarm(pooledDataSource);
+            }
+        }
+    }
 
-        logger.info("Finished loading parts at: {}", System.currentTimeMillis());
+    public void closeDataSource(DataSource dataSource) {
+        if(dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
 
-        jdbcTemplate.execute(
-                "COPY CUSTOMER(C_CUSTKEY, C_NAME, C_ADDRESS, C_NATIONKEY, C_PHONE, C_ACCTBAL, C_MKTSEGMENT, C_COMMENT)\n" +
-                "FROM '"+testDataLocationInContainer+"customer.tbl'\n" +
-                "DELIMITER '|'"
-        );
+    /**
+     * Runs the schema scripts at the location with the storage options filled into their placeholders.
+     */
+    public void migrate(DataSource dataSource, String location) {
+        logger.info("Initializing {} migration with storage options {}", location, storageProperties.getOptions());
+        Flyway.configure().locations(location).dataSource(dataSource).placeholders(storageProperties.getOptions()).load().migrate();
+    }
 
-        logger.info("Finished loading customers at: {}", System.currentTimeMillis());
+    public void loadPostgresData(DataSource dataSource) {
+        LoadScheduler loadScheduler = new LoadScheduler(dataSource, loadProperties.getParallelism(), benchmarkMetrics);
 
-        jdbcTemplate.execute(
-                "COPY PARTSUPP(PS_PARTKEY, PS_SUPPKEY, PS_AVAILQTY, PS_SUPPLYCOST, PS_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"partsupp.tbl'\n" +
-                        "DELIMITER '|'"
-        );
+        long startTime = System.currentTimeMillis();
 
-        logger.info("Finished loading partsuppliers at: {}", System.currentTimeMillis());
+        logger.info("Started import at: {}", startTime);
 
-        jdbcTemplate.execute(
-                "COPY ORDERS(O_ORDERKEY, O_CUSTKEY, O_ORDERSTATUS, O_TOTALPRICE, O_ORDERDATE, O_ORDERPRIORITY, O_CLERK, O_SHIPPRIORITY, O_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"orders.tbl'\n" +
-                        "DELIMITER '|'"
-        );
+        List<LoadScheduler.TableLoad> tableLoads = new ArrayList<>();
+        TableSink tableSink = new PostgresCopySink(dataSource);
+        ClientBulkLoader clientBulkLoader = createClientBulkLoader(tableSink);
+        GeneratingLoader generatingLoader = createGeneratingLoader(tableSink);
+        for(TpchTable table : TpchTable.values()) {
+            if(loadProperties.isClientMode()) {
+                tableLoads.add(clientBulkLoader.tableLoad(table, testDataFile(table)));
+                continue;
+            } else if(loadProperties.isGenerateMode()) {
+                tableLoads.add(generatingLoader.tableLoad(table));
+                continue;
+            }
+            tableLoads.add(loadScheduler.statementLoad(table,
+                    "COPY "+table+"("+table.getColumnList()+")\n" +
+                            "FROM '"+testDataLocationInContainer()+table.getFileName()+"'\n" +
+                            "DELIMITER '|'",
+                    testDataFileSize(table)));
+        }
+        loadScheduler.loadTables(tableLoads);
 
-        logger.info("Finished loading orders at: {}", System.currentTimeMillis());
+        long endTime = System.currentTimeMillis();
 
-        jdbcTemplate.execute(
-                "COPY LINEITEM(L_ORDERKEY, L_PARTKEY, L_SUPPKEY, L_LINENUMBER, L_QUANTITY, L_EXTENDEDPRICE, L_DISCOUNT, L_TAX, L_RETURNFLAG, L_LINESTATUS, L_SHIPDATE, L_COMMITDATE, L_RECEIPTDATE, L_SHIPINSTRUCT, L_SHIPMODE, L_COMMENT)\n" +
-                        "FROM '"+testDataLocationInContainer+"lineitem.tbl'\n" +
-                        "DELIMITER '|'"
-        );
+        logger.info("Ended import at: {}", endTime);
+        logger.info("Total import duration: {}", endTime - startTime);
+    }
 
-        logger.info("Finished loading lineitems at: {}", System.currentTimeMillis());
+    public void addPostgresKeys(DataSource dataSource) {
+        LoadScheduler loadScheduler = new LoadScheduler(dataSource, loadProperties.getParallelism(), benchmarkMetrics);
 
         String classPathLocation = "classpath:db/migration/postgres/keys.sql";
         try {
             ResourceLoader resourceLoader = new DefaultResourceLoader();
             Resource resource = resourceLoader.getResource(classPathLocation);
             String query= StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            jdbcTemplate.execute(query);
+            loadScheduler.executeKeyScript(query, table -> List.of("VACUUM(ANALYZE) "+table));
         } catch (Exception e) {
             logger.error("Error adding keys", e);
         }
 
-        logger.info("Finished adding keys and constraints at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute("VACUUM(ANALYZE) REGION");
-        jdbcTemplate.execute("VACUUM(ANALYZE) NATION");
-        jdbcTemplate.execute("VACUUM(ANALYZE) SUPPLIER");
-        jdbcTemplate.execute("VACUUM(ANALYZE) PART");
-        jdbcTemplate.execute("VACUUM(ANALYZE) CUSTOMER");
-        jdbcTemplate.execute("VACUUM(ANALYZE) PARTSUPP");
-        jdbcTemplate.execute("VACUUM(ANALYZE) ORDERS");
-        jdbcTemplate.execute("VACUUM(ANALYZE) LINEITEM");
-
-        logger.info("Finished vacuum analyze at: {}", System.currentTimeMillis());
-
-        long endTime = System.currentTimeMillis();
-
-        logger.info("Ended import at: {}", endTime);
-        logger.info("Total import duration: {}", endTime - startTime);
+        logger.info("Finished adding keys, constraints and vacuum analyze at: {}", System.currentTimeMillis());
     }
 
-    public void loadMsSqlData(DataSource dataSource, String databaseType) {
-        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    public void loadMsSqlData(DataSource dataSource) {
+        LoadScheduler loadScheduler = new LoadScheduler(dataSource, loadProperties.getParallelism(), benchmarkMetrics);
 
         long startTime = System.currentTimeMillis();
 
         logger.info("Started import at: {}", startTime);
 
-        jdbcTemplate.execute(
-                "BULK INSERT REGION\n" +
-                        "FROM '"+testDataLocationInContainer+"region.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading regions at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT NATION\n" +
-                        "FROM '"+testDataLocationInContainer+"nation.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading nations at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT SUPPLIER\n" +
-                        "FROM '"+testDataLocationInContainer+"supplier.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading suppliers at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT PART\n" +
-                        "FROM '"+testDataLocationInContainer+"part.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading parts at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT CUSTOMER\n" +
-                        "FROM '"+testDataLocationInContainer+"customer.tbl'\n"+
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading customers at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT PARTSUPP\n" +
-                        "FROM '"+testDataLocationInContainer+"partsupp.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
-
-        logger.info("Finished loading partsuppliers at: {}", System.currentTimeMillis());
-
-        jdbcTemplate.execute(
-                "BULK INSERT ORDERS\n" +
-                        "FROM '"+testDataLocationInContainer+"orders.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
+        List<LoadScheduler.TableLoad> tableLoads = new ArrayList<>();
+        TableSink tableSink = new MssqlBulkCopySink(dataSource);
+        ClientBulkLoader clientBulkLoader = createClientBulkLoader(tableSink);
+        GeneratingLoader generatingLoader = createGeneratingLoader(tableSink);
+        for(TpchTable table : TpchTable.values()) {
+            if(loadProperties.isClientMode()) {
+                tableLoads.add(clientBulkLoader.tableLoad(table, testDataFile(table)));
+                continue;
+            } else if(loadProperties.isGenerateMode()) {
+                tableLoads.add(generatingLoader.tableLoad(table));
+                continue;
+            }
+            tableLoads.add(loadScheduler.statementLoad(table,
+                    "BULK INSERT "+table+"\n" +
+                            "FROM '"+testDataLocationInContainer()+table.getFileName()+"'\n" +
+                            "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)",
+                    testDataFileSize(table)));
+        }
+        loadScheduler.loadTables(tableLoads);
 
-        logger.info("Finished loading orders at: {}", System.currentTimeMillis());
+        long endTime = System.currentTimeMillis();
 
-        jdbcTemplate.execute(
-                "BULK INSERT LINEITEM\n" +
-                        "FROM '"+testDataLocationInContainer+"lineitem.tbl'\n" +
-                        "WITH (FIELDTERMINATOR = '|', ROWTERMINATOR = '\\n', TABLOCK)"
-        );
+        logger.info("Ended import at: {}", endTime);
+        logger.info("Total import duration: {}", endTime - startTime);
+    }
 
-        logger.info("Finished loading lineitems at: {}", System.currentTimeMillis());
+    public void addMsSqlKeys(DataSource dataSource, String databaseType) {
+        LoadScheduler loadScheduler = new LoadScheduler(dataSource, loadProperties.getParallelism(), benchmarkMetrics);
 
         String classPathLocation = "classpath:db/migration/mssql/"+databaseType+"/keys.sql";
         try {
             ResourceLoader resourceLoader = new DefaultResourceLoader();
             Resource resource = resourceLoader.getResource(classPathLocation);
             String query = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            jdbcTemplate.execute(query);
+            loadScheduler.executeKeyScript(query, table -> List.of());
         } catch (Exception e) {
             logger.error("Error adding keys", e);
         }
 
         logger.info("Finished adding keys and constraints at: {}", System.currentTimeMillis());
+    }
+
+    public void loadDuckDbData(DataSource dataSource) {
+        LoadScheduler loadScheduler = new LoadScheduler(dataSource, loadProperties.getParallelism(), benchmarkMetrics);
+
+        long startTime = System.currentTimeMillis();
+
+        logger.info("Started import at: {}", startTime);
+
+        List<LoadScheduler.TableLoad> tableLoads = new ArrayList<>();
+        TableSink tableSink = new DuckDbAppenderSink(dataSource);
+        ClientBulkLoader clientBulkLoader = createClientBulkLoader(tableSink);
+        GeneratingLoader generatingLoader = createGeneratingLoader(tableSink);
+        for(TpchTable table : TpchTable.values()) {
+            if(loadProperties.isClientMode()) {
+                tableLoads.add(clientBulkLoader.tableLoad(table, testDataFile(table)));
+                continue;
+            } else if(loadProperties.isGenerateMode()) {
+                tableLoads.add(generatingLoader.tableLoad(table));
+                continue;
+            }
+            // The engine runs in this process, so server side loading reads the files from the host directly
+            tableLoads.add(loadScheduler.statementLoad(table,
+                    "COPY "+table+"("+table.getColumnList()+")\n" +
+                            "FROM '"+testDataFile(table)+"'\n" +
+                            "(DELIMITER '|')",
+                    testDataFileSize(table)));
+        }
+        loadScheduler.loadTables(tableLoads);
+
+        // Keys are skipped, DuckDB does not use them for planning and building them only slows down the load
+        new JdbcTemplate(dataSource).execute("CHECKPOINT");
 
         long endTime = System.currentTimeMillis();
 
@@ -401,24 +386,32 @@ public class BenchmarkSetupService {
         logger.info("Total import duration: {}", endTime - startTime);
     }
 
-    private void waitUntilDatasourceReady(DataSource dataSource, Runnable runnable) {
+    public ClientBulkLoader createClientBulkLoader(TableSink tableSink) {
+        return new ClientBulkLoader(tableSink, loadProperties.getWorkersPerTable(), loadProperties.getChunkSizeInMb() * 1024L * 1024L);
+    }
+
+    public GeneratingLoader createGeneratingLoader(TableSink tableSink) {
+        TpchGenerator generator = new TpchGenerator(genericProperties.getNumericScaleFactor());
+        return new GeneratingLoader(generator, tableSink, loadProperties.getWorkersPerTable(), loadProperties.getGeneratorChunkSize());
+    }
+
+    public Path testDataFile(TpchTable table) {
+        return Paths.get(genericProperties.getDockerTestdataMountPath(), genericProperties.getScaleFactor(), table.getFileName());
+    }
+
+    private long testDataFileSize(TpchTable table) {
         try {
-            dataSource.getConnection();
-        } catch (Exception e) {
-            try {
-                logger.info("Waiting for datasource to become ready");
-                Thread.sleep(20000);
-                if(runnable != null) {
-                    runnable.run();
-                }
-                waitUntilDatasourceReady(dataSource, runnable);
-            } catch (InterruptedException interruptedException) {
-                throw new RuntimeException(interruptedException);
-            }
+            return Files.size(testDataFile(table));
+        } catch (IOException e) {
+            return 0;
         }
     }
 
-    private void printVolumeSizes() {
+    public void waitUntilDatasourceReady(DataSource dataSource, Runnable runnable) {
+        readinessProbe.waitUntilReady(dataSource, runnable);
+    }
+
+    public void printVolumeSizes() {
         Utility.execRuntime("docker system df -v");
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package at.sessa.thesisbenchmark.service;
+
+/**
+ * Brings the caches of a database into a defined state before a measured execution.
+ */
+public interface CacheControl {
+    /**
+     * Empties the buffer pool of the engine and the OS page cache.
+     */
+    void flushCaches();
+
+    /**
+     * Reads every table, and its indexes where the engine keeps them apart, into the caches.
+     */
+    void prewarm();
+}
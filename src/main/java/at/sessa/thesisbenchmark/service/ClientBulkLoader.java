@@ -0,0 +1,127 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Streams .tbl files from the client into a {@link TableSink}. Every file is memory mapped and split into chunks
+ * at line boundaries, and the chunks of a table are pushed by several workers on separate connections.
+ */
+public class ClientBulkLoader {
+    Logger logger = LoggerFactory.getLogger(ClientBulkLoader.class);
+
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final TableSink tableSink;
+    private final int workersPerTable;
+    private final long chunkSize;
+
+    public ClientBulkLoader(TableSink tableSink, int workersPerTable, long chunkSize) {
+        this.tableSink = tableSink;
+        this.workersPerTable = Math.max(workersPerTable, 1);
+        this.chunkSize = Math.min(Math.max(chunkSize, 1), MAX_CHUNK_SIZE);
+    }
+
+    public LoadScheduler.TableLoad tableLoad(TpchTable table, Path file) {
+        long bytes;
+        try {
+            bytes = Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Test data file not readable: " + file, e);
+        }
+        return new LoadScheduler.TableLoad(table, bytes, progress -> load(table, file, progress));
+    }
+
+    private long load(TpchTable table, Path file, LoadScheduler.LoadProgress progress) throws IOException, InterruptedException, ExecutionException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = chunkBoundaries(channel);
+            logger.info("Streaming {} in {} chunks with {} workers", file, chunks.size(), workersPerTable);
+
+            List<Callable<Long>> chunkLoads = new ArrayList<>();
+            for(long[] chunk : chunks) {
+                chunkLoads.add(() -> {
+                    long rows = tableSink.load(table,
+                            new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0])));
+                    progress.chunkLoaded(rows, chunk[1] - chunk[0]);
+                    return rows;
+                });
+            }
+            return LoadScheduler.loadChunks(chunkLoads, workersPerTable);
+        }
+    }
+
+    private List<long[]> chunkBoundaries(FileChannel channel) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long size = channel.size();
+        long start = 0;
+        while(start < size) {
+            long end = Math.min(start + chunkSize, size);
+            if(end < size) {
+                end = nextLineStart(channel, end);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        if(chunks.isEmpty()) {
+            chunks.add(new long[]{0, 0});
+        }
+        return chunks;
+    }
+
+    private long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long size = channel.size();
+        while(position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for(int i = 0; i < read; i++) {
+                if(buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if(!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
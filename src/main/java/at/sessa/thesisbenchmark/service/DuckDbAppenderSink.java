@@ -0,0 +1,82 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+public class DuckDbAppenderSink implements TableSink {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final DataSource dataSource;
+
+    public DuckDbAppenderSink(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long load(TpchTable table, InputStream data) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            return load(connection, table, data);
+        }
+    }
+
+    @Override
+    public long load(Connection connection, TpchTable table, InputStream data) throws SQLException, IOException {
+        List<TpchTable.Column> columns = table.getColumns();
+        long rows = 0;
+
+        // The driver only begins the transaction of a connection without auto-commit with its next statement, an
+        // appender on its own would write outside of it
+        if(!connection.getAutoCommit()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+        }
+
+        try (DuckDBAppender appender = connection.unwrap(DuckDBConnection.class).createAppender(DuckDBConnection.DEFAULT_SCHEMA, table.name().toLowerCase());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isEmpty()) {
+                    continue;
+                }
+                appender.beginRow();
+                int start = 0;
+                for(TpchTable.Column column : columns) {
+                    int end = line.indexOf('|', start);
+                    if(end < 0) {
+                        end = line.length();
+                    }
+                    append(appender, column, line.substring(start, end));
+                    start = end + 1;
+                }
+                appender.endRow();
+                rows++;
+            }
+        }
+
+        return rows;
+    }
+
+    // Dates are appended as text and cast by the appender to the column type
+    private static void append(DuckDBAppender appender, TpchTable.Column column, String value) throws SQLException {
+        switch (column.getJdbcType()) {
+            case Types.INTEGER: appender.append(Integer.parseInt(value)); break;
+            case Types.BIGINT: appender.append(Long.parseLong(value)); break;
+            case Types.DOUBLE: appender.append(Double.parseDouble(value)); break;
+            default: appender.append(value);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.generator.TpchGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Generates the TPC-H tables in independent chunks and streams them straight into a {@link TableSink},
+ * without writing .tbl files.
+ */
+public class GeneratingLoader {
+    private final TpchGenerator generator;
+    private final TableSink tableSink;
+    private final int workersPerTable;
+    private final long unitsPerChunk;
+
+    public GeneratingLoader(TpchGenerator generator, TableSink tableSink, int workersPerTable, long unitsPerChunk) {
+        this.generator = generator;
+        this.tableSink = tableSink;
+        this.workersPerTable = Math.max(workersPerTable, 1);
+        this.unitsPerChunk = Math.max(unitsPerChunk, 1);
+    }
+
+    public LoadScheduler.TableLoad tableLoad(TpchTable table) {
+        return new LoadScheduler.TableLoad(table, generator.estimatedBytes(table), progress -> load(table, progress));
+    }
+
+    private long load(TpchTable table, LoadScheduler.LoadProgress progress) throws Exception {
+        long unitCount = generator.unitCount(table);
+        long estimatedBytes = generator.estimatedBytes(table);
+        List<Callable<Long>> chunkLoads = new ArrayList<>();
+        for(long firstUnit = 0; firstUnit < unitCount; firstUnit += unitsPerChunk) {
+            long start = firstUnit;
+            long end = Math.min(firstUnit + unitsPerChunk, unitCount);
+            chunkLoads.add(() -> {
+                long rows = tableSink.load(table, generator.openChunk(table, start, end));
+                progress.chunkLoaded(rows, (long) ((double) estimatedBytes * (end - start) / unitCount));
+                return rows;
+            });
+        }
+        return LoadScheduler.loadChunks(chunkLoads, workersPerTable);
+    }
+}
@@ -0,0 +1,222 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.monitoring.BenchmarkMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the load, key and statistics phases with a bounded number of concurrent connections.
+ */
+public class LoadScheduler {
+    Logger logger = LoggerFactory.getLogger(LoadScheduler.class);
+
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+            "(?:ALTER\\s+TABLE|REFERENCES|CREATE\\s+INDEX\\s+(?:\\w+\\s+)?ON)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int parallelism;
+    private final BenchmarkMetrics benchmarkMetrics;
+
+    /**
+     * The metrics, if given, receive the progress and throughput of every table after each of its chunks.
+     */
+    public LoadScheduler(DataSource dataSource, int parallelism, BenchmarkMetrics benchmarkMetrics) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.parallelism = Math.max(parallelism, 1);
+        this.benchmarkMetrics = benchmarkMetrics;
+    }
+
+    public void loadTables(List<TableLoad> tableLoads) {
+        List<TableLoad> largestFirst = new ArrayList<>(tableLoads);
+        largestFirst.sort(Comparator.comparingLong((TableLoad t) -> t.bytes).reversed());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            CompletableFuture.allOf(largestFirst.stream()
+                    .map(t -> CompletableFuture.runAsync(() -> loadTable(t), executorService))
+                    .toArray(CompletableFuture<?>[]::new)).join();
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    public TableLoad statementLoad(TpchTable table, String statement, long bytes) {
+        return new TableLoad(table, bytes, progress -> (long) jdbcTemplate.execute((StatementCallback<Integer>) s -> s.executeUpdate(statement)));
+    }
+
+    /**
+     * Runs the chunk loads of a single table on their own pool of workers and returns the total number of rows.
+     */
+    static long loadChunks(List<Callable<Long>> chunkLoads, int workers) throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(Math.min(workers, chunkLoads.size()), 1));
+        try {
+            long rows = 0;
+            for(Future<Long> future : executorService.invokeAll(chunkLoads)) {
+                rows += future.get();
+            }
+            return rows;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void loadTable(TableLoad tableLoad) {
+        long startTime = System.nanoTime();
+        TableProgress progress = new TableProgress(tableLoad.table, startTime);
+        long rows;
+        try {
+            rows = tableLoad.action.load(progress);
+        } catch (Exception e) {
+            throw new IllegalStateException("Loading " + tableLoad.table + " failed", e);
+        }
+        double seconds = secondsSince(startTime);
+        // Loads without chunks, like a server side COPY, and estimated chunk sizes are settled once the table is done
+        long remainingRows = rows - progress.rows.get();
+        long remainingBytes = tableLoad.bytes - progress.bytes.get();
+        if(remainingRows != 0 || remainingBytes != 0) {
+            progress.chunkLoaded(remainingRows, remainingBytes);
+        }
+
+        if(tableLoad.bytes > 0) {
+            logger.info("Finished loading {}: {} rows in {} s ({} rows/s, {} MB/s)", tableLoad.table, rows,
+                    String.format(Locale.ROOT, "%.1f", seconds), Math.round(rows / seconds),
+                    String.format(Locale.ROOT, "%.1f", tableLoad.bytes / 1024d / 1024d / seconds));
+        } else {
+            logger.info("Finished loading {}: {} rows in {} s ({} rows/s)", tableLoad.table, rows,
+                    String.format(Locale.ROOT, "%.1f", seconds), Math.round(rows / seconds));
+        }
+    }
+
+    /**
+     * Executes the statements of a key script concurrently. Statements that touch the same table, either as
+     * target or as referenced table, keep their order from the script, which makes primary keys precede the
+     * foreign keys that depend on them and prevents lock cycles between concurrent ALTER TABLE statements.
+     * The statements returned by statementsAfterKeys run once all key statements of their table are done.
+     */
+    public void executeKeyScript(String script, Function<TpchTable, List<String>> statementsAfterKeys) {
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        Map<String, CompletableFuture<Void>> lastByTable = new HashMap<>();
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+
+        try {
+            for(String statement : script.split(";")) {
+                if(statement.isBlank()) {
+                    continue;
+                }
+                Set<String> tables = referencedTables(statement);
+                CompletableFuture<Void> task = CompletableFuture
+                        .allOf(tables.stream()
+                                .map(t -> lastByTable.getOrDefault(t, CompletableFuture.completedFuture(null)))
+                                .toArray(CompletableFuture<?>[]::new))
+                        .thenRunAsync(() -> executeLogged(statement.trim()), executorService);
+                tables.forEach(t -> lastByTable.put(t, task));
+                all.add(task);
+            }
+
+            for(TpchTable table : TpchTable.values()) {
+                CompletableFuture<Void> previous = lastByTable.getOrDefault(table.name(), CompletableFuture.completedFuture(null));
+                for(String statement : statementsAfterKeys.apply(table)) {
+                    previous = previous.thenRunAsync(() -> executeLogged(statement), executorService);
+                }
+                all.add(previous);
+            }
+
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void executeLogged(String statement) {
+        long startTime = System.nanoTime();
+        try {
+            jdbcTemplate.execute(statement);
+            logger.info("Executed in {} ms: {}", (System.nanoTime() - startTime) / 1_000_000, statement.replaceAll("\\s+", " "));
+        } catch (Exception e) {
+            logger.error("Error executing {}", statement.replaceAll("\\s+", " "), e);
+        }
+    }
+
+    private static double secondsSince(long startTime) {
+        return Math.max(System.nanoTime() - startTime, 1) / 1e9;
+    }
+
+    static Set<String> referencedTables(String statement) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(statement);
+        while(matcher.find()) {
+            tables.add(matcher.group(1).toUpperCase());
+        }
+        return tables;
+    }
+
+    /**
+     * Receives every chunk of a table as soon as it is loaded. Implementations are called by concurrent workers.
+     */
+    public interface LoadProgress {
+        void chunkLoaded(long rows, long bytes);
+    }
+
+    public interface LoadAction {
+        /**
+         * Loads the table, reports its chunks to the progress and returns the total number of rows.
+         */
+        long load(LoadProgress progress) throws Exception;
+    }
+
+    private class TableProgress implements LoadProgress {
+        private final TpchTable table;
+        private final long startTime;
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private TableProgress(TpchTable table, long startTime) {
+            this.table = table;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void chunkLoaded(long chunkRows, long chunkBytes) {
+            long loadedRows = rows.addAndGet(chunkRows);
+            long loadedBytes = bytes.addAndGet(chunkBytes);
+            if(benchmarkMetrics != null) {
+                benchmarkMetrics.recordLoadProgress(table, chunkRows, chunkBytes, loadedRows, loadedBytes, secondsSince(startTime));
+            }
+        }
+    }
+
+    public static class TableLoad {
+        private final TpchTable table;
+        private final long bytes;
+        private final LoadAction action;
+
+        public TableLoad(TpchTable table, long bytes, LoadAction action) {
+            this.table = table;
+            this.bytes = bytes;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.plan.PlanOperator;
+import at.sessa.thesisbenchmark.plan.QueryPlan;
+import at.sessa.thesisbenchmark.query.BoundQuery;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes a query and pulls every row of every result set to the client without keeping it, so that the
+ * measured time covers the full transfer regardless of how eagerly the driver fetches. With a watchdog every
+ * execution is cancelled once it exceeds its budget and then fails with an SQLTimeoutException.
+ * The time to get the connection is measured on its own and not part of the execution time. The rows of a successful
+ * execution are checksummed on the way, for comparing the answers of the targets.
+ */
+public class MeasuringQueryExecutor {
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private final QueryWatchdog watchdog;
+
+    public MeasuringQueryExecutor(DataSource dataSource, int fetchSize, QueryWatchdog watchdog) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+        this.watchdog = watchdog;
+    }
+
+    public QueryMeasurement execute(String query) {
+        return execute(BoundQuery.literal(query), 0);
+    }
+
+    /**
+     * Executes a query with bind markers as prepared statement, preparing it is part of the measured time.
+     * A budget of 0 disables the watchdog for this execution.
+     */
+    public QueryMeasurement execute(BoundQuery query, long budgetInMs) {
+        long acquisitionStartTime = System.nanoTime();
+        long startTime = acquisitionStartTime;
+        MeasuringRowHandler rowHandler = null;
+        Exception failure = null;
+        QueryWatchdog.Watch watch = null;
+
+        try (Connection connection = dataSource.getConnection()) {
+            startTime = System.nanoTime();
+            rowHandler = new MeasuringRowHandler(startTime);
+            boolean autoCommit = connection.getAutoCommit();
+            // The postgres driver only uses a cursor, and therefore honours the fetch size, inside a transaction
+            connection.setAutoCommit(false);
+            try (Statement statement = query.isPrepared() ? prepare(connection, query) : createStatement(connection)) {
+                statement.setFetchSize(fetchSize);
+                watch = watch(connection, statement, budgetInMs);
+                boolean isResultSet = query.isPrepared() ? ((PreparedStatement) statement).execute() : statement.execute(query.getSql());
+                consumeAllResults(statement, isResultSet, rowHandler);
+                connection.commit();
+            } finally {
+                if(watch != null) {
+                    watch.close();
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            failure = e;
+        }
+
+        long endTime = System.nanoTime();
+        if(watch != null && watch.isExpired()) {
+            failure = watch.timeout(failure);
+        }
+        if(rowHandler == null) {
+            // Getting the connection failed
+            return new QueryMeasurement(0, 0, 0, 0, failure, endTime - acquisitionStartTime);
+        }
+        long timeToFirstRow = rowHandler.firstRowTime == 0 ? endTime - startTime : rowHandler.firstRowTime - startTime;
+        return new QueryMeasurement(timeToFirstRow, endTime - startTime, rowHandler.rowCount, rowHandler.bytesDecoded, failure,
+                startTime - acquisitionStartTime, failure == null ? rowHandler.checksum.getValue() : null);
+    }
+
+    /**
+     * Executes the query with the instrumentation of the given capture. The elapsed time includes the overhead of
+     * the instrumentation and of parsing the plans.
+     */
+    public QueryPlan executeWithPlan(String query, PlanCapture planCapture, long budgetInMs) {
+        long startTime = System.nanoTime();
+        List<String> rawPlans = new ArrayList<>();
+        long rowCount = 0;
+        Exception failure = null;
+        QueryWatchdog.Watch watch = null;
+
+        try (Connection connection = dataSource.getConnection()) {
+            // The capture creates its own statements, so an execution over its budget can only be killed
+            watch = watch(connection, null, budgetInMs);
+            try {
+                rowCount = planCapture.execute(connection, query, rawPlans);
+            } finally {
+                if(watch != null) {
+                    watch.close();
+                }
+            }
+        } catch (SQLException e) {
+            failure = e;
+        }
+        if(watch != null && watch.isExpired()) {
+            failure = watch.timeout(failure);
+        }
+
+        List<PlanOperator> operators = new ArrayList<>();
+        rawPlans.forEach(rawPlan -> operators.addAll(planCapture.parse(rawPlan)));
+        return new QueryPlan(planCapture.getFormat(), rawPlans, operators, rowCount, System.nanoTime() - startTime, failure);
+    }
+
+    private QueryWatchdog.Watch watch(Connection connection, Statement statement, long budgetInMs) throws SQLException {
+        if(watchdog == null || budgetInMs <= 0) {
+            return null;
+        }
+        return watchdog.watch(connection, statement, budgetInMs);
+    }
+
+    private static Statement createStatement(Connection connection) throws SQLException {
+        return connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    private static PreparedStatement prepare(Connection connection, BoundQuery query) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        for(int i = 0; i < query.getParameters().size(); i++) {
+            Object value = query.getParameters().get(i);
+            statement.setObject(i + 1, value instanceof LocalDate ? Date.valueOf((LocalDate) value) : value);
+        }
+        return statement;
+    }
+
+    private void consumeAllResults(Statement statement, boolean isResultSet, MeasuringRowHandler rowHandler) throws SQLException {
+        while(isResultSet || statement.getUpdateCount() != -1) {
+            if(isResultSet) {
+                try (ResultSet resultSet = statement.getResultSet()) {
+                    // Every result set is counted with its own shape, should a statement return several
+                    rowHandler.columnCount = resultSet.getMetaData().getColumnCount();
+                    while(resultSet.next()) {
+                        rowHandler.processRow(resultSet);
+                    }
+                }
+            }
+            isResultSet = statement.getMoreResults();
+        }
+    }
+
+    private static class MeasuringRowHandler implements RowCallbackHandler {
+        private final long startTime;
+        private final ResultChecksum checksum = new ResultChecksum();
+        private long firstRowTime;
+        private long rowCount;
+        private long bytesDecoded;
+        private int columnCount;
+
+        private MeasuringRowHandler(long startTime) {
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            if(firstRowTime == 0) {
+                firstRowTime = Math.max(System.nanoTime(), startTime + 1);
+            }
+            for(int i = 1; i <= columnCount; i++) {
+                Object value = resultSet.getObject(i);
+                bytesDecoded += approximateSize(value);
+                checksum.addValue(value);
+            }
+            checksum.endRow();
+            rowCount++;
+        }
+
+        private static long approximateSize(Object value) {
+            if(value == null) {
+                return 0;
+            } else if(value instanceof String) {
+                return ((String) value).length();
+            } else if(value instanceof BigDecimal) {
+                return ((BigDecimal) value).unscaledValue().bitLength() / 8 + 1;
+            } else if(value instanceof Integer || value instanceof Float) {
+                return 4;
+            } else if(value instanceof Number || value instanceof java.util.Date) {
+                return 8;
+            } else if(value instanceof byte[]) {
+                return ((byte[]) value).length;
+            }
+            return value.toString().length();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVFileRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class MssqlBulkCopySink implements TableSink {
+    // Batches of this size are compressed directly into columnstore row groups instead of the delta store
+    private static final int BATCH_SIZE = 1_048_576;
+
+    private final DataSource dataSource;
+
+    public MssqlBulkCopySink(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long load(TpchTable table, InputStream data) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return load(connection, table, data);
+        }
+    }
+
+    @Override
+    public long load(Connection connection, TpchTable table, InputStream data) throws SQLException {
+        LineCountingInputStream lineCountingInputStream = new LineCountingInputStream(data);
+
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class))) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setTableLock(true);
+            options.setBatchSize(BATCH_SIZE);
+            options.setBulkCopyTimeout(0);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(table.name());
+
+            // The delimiter is used as a regular expression by the driver
+            SQLServerBulkCSVFileRecord record = new SQLServerBulkCSVFileRecord(lineCountingInputStream, StandardCharsets.UTF_8.name(), "\\|", false);
+            List<TpchTable.Column> columns = table.getColumns();
+            for(int i = 0; i < columns.size(); i++) {
+                TpchTable.Column column = columns.get(i);
+                record.addColumnMetadata(i + 1, column.getName(), column.getJdbcType(), column.getPrecision(), 0);
+            }
+            bulkCopy.writeToServer(record);
+        }
+
+        return lineCountingInputStream.lines;
+    }
+
+    private static class LineCountingInputStream extends FilterInputStream {
+        private long lines;
+
+        private LineCountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if(b == '\n') {
+                lines++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            for(int i = off; i < off + read; i++) {
+                if(b[i] == '\n') {
+                    lines++;
+                }
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package at.sessa.thesisbenchmark.service;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class MssqlSessionTerminator implements SessionTerminator {
+    /**
+     * The client connection id is known to the driver, the session id would need a query on the connection.
+     */
+    @Override
+    public Object sessionOf(Connection connection) throws SQLException {
+        return connection.unwrap(ISQLServerConnection.class).getClientConnectionId().toString();
+    }
+
+    @Override
+    public void terminate(DataSource dataSource, Object session) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Integer> sessionIds = jdbcTemplate.queryForList(
+                "SELECT session_id FROM sys.dm_exec_connections WHERE connection_id = ?", Integer.class, session);
+        // KILL does not take parameters, the id is an integer from the server
+        sessionIds.forEach(sessionId -> jdbcTemplate.execute("KILL " + sessionId));
+    }
+}
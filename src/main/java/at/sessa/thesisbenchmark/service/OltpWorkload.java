@@ -0,0 +1,282 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.OltpResult;
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.configuration.HtapProperties;
+import at.sessa.thesisbenchmark.generator.TpchGenerator;
+import at.sessa.thesisbenchmark.monitoring.BenchmarkMetrics;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues OLTP transactions at a fixed rate on a data source of its own while the analytic queries run: point lookups
+ * of loaded orders, new orders with their line items and status updates of those new orders. The generator is open
+ * loop, every transaction is scheduled at start + k / rate whether or not the earlier ones completed, and its latency
+ * is measured from that time. A stall of the engine therefore shows up in the latency of every transaction queued behind it
+ * instead of only delaying the generator, which is the coordinated omission a closed loop hides.
+ */
+public class OltpWorkload {
+    Logger logger = LoggerFactory.getLogger(OltpWorkload.class);
+
+    private static final String LOOKUP_ORDER = "SELECT o_custkey, o_orderstatus, o_totalprice, o_orderdate FROM orders WHERE o_orderkey = ?";
+    private static final String UPDATE_STATUS = "UPDATE orders SET o_orderstatus = ? WHERE o_orderkey = ?";
+    private static final char[] STATUSES = {'F', 'O', 'P'};
+
+    public enum Operation {
+        LOOKUP, INSERT, UPDATE
+    }
+
+    private final DataSource dataSource;
+    private final TpchGenerator generator;
+    private final HtapProperties htapProperties;
+    private final BenchmarkMetrics benchmarkMetrics;
+    private final long loadedOrders;
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private final Map<Operation, Statistics> statistics = new EnumMap<>(Operation.class);
+    // New orders take refresh keys from the middle of their range, the refresh functions use those from the start
+    private final long firstInsertIndex;
+    private final AtomicLong nextInsertIndex;
+
+    private volatile boolean running;
+    private Thread scheduler;
+    private ExecutorService executorService;
+    private long startTime;
+
+    /**
+     * Updates are left out if the target cannot update the loaded tables. They only touch orders the workload inserted
+     * itself, so the loaded data the queries are verified against stays as it is.
+     */
+    public OltpWorkload(DataSource dataSource, boolean supportsUpdates, double scaleFactor, HtapProperties htapProperties,
+                        BenchmarkMetrics benchmarkMetrics) {
+        this.dataSource = dataSource;
+        this.generator = new TpchGenerator(scaleFactor);
+        this.htapProperties = htapProperties;
+        this.benchmarkMetrics = benchmarkMetrics;
+        this.loadedOrders = generator.unitCount(TpchTable.ORDERS);
+        this.firstInsertIndex = loadedOrders / 2;
+        this.nextInsertIndex = new AtomicLong(firstInsertIndex);
+
+        weights.put(Operation.LOOKUP, Math.max(htapProperties.getLookupWeight(), 0));
+        weights.put(Operation.INSERT, Math.max(htapProperties.getInsertWeight(), 0));
+        weights.put(Operation.UPDATE, supportsUpdates ? Math.max(htapProperties.getUpdateWeight(), 0) : 0);
+        if(!supportsUpdates && htapProperties.getUpdateWeight() > 0) {
+            logger.warn("Leaving out order status updates, the target does not support updates");
+        } else if(weights.get(Operation.UPDATE) > 0 && weights.get(Operation.INSERT) == 0) {
+            logger.warn("Order status updates only touch inserted orders, without inserts they update no rows");
+        }
+        if(weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one OLTP operation needs a positive weight");
+        }
+        if(htapProperties.getRatePerSecond() <= 0) {
+            throw new IllegalArgumentException("The OLTP rate needs to be positive");
+        }
+        for(Operation operation : Operation.values()) {
+            statistics.put(operation, new Statistics());
+        }
+    }
+
+    public void start() {
+        executorService = Executors.newFixedThreadPool(Math.max(htapProperties.getWorkers(), 1));
+        running = true;
+        startTime = System.nanoTime();
+        scheduler = new Thread(this::schedule, "oltp-scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+        logger.info("Started OLTP workload at {} transactions per second", htapProperties.getRatePerSecond());
+    }
+
+    /**
+     * Stops scheduling transactions and waits for the queued ones up to the drain timeout. Transactions that did not
+     * complete by then count as scheduled only.
+     */
+    public OltpResult stop(String targetName) {
+        running = false;
+        long elapsedInNs = System.nanoTime() - startTime;
+        try {
+            scheduler.join();
+            executorService.shutdown();
+            if(!executorService.awaitTermination(htapProperties.getDrainTimeoutInMs(), TimeUnit.MILLISECONDS)) {
+                logger.warn("OLTP transactions still queued after {} ms, abandoning them", htapProperties.getDrainTimeoutInMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        OltpResult result = new OltpResult(targetName, htapProperties.getRatePerSecond(), elapsedInNs);
+        statistics.forEach((operation, s) -> {
+            if(weights.get(operation) > 0) {
+                result.addOperation(new OltpResult.OperationResult(operation.name().toLowerCase(), s.scheduled.get(), s.errors.get(),
+                        s.latency.copy(), s.serviceTime.copy()));
+            }
+        });
+        logger.info(result.toString());
+        return result;
+    }
+
+    private void schedule() {
+        SplittableRandom random = new SplittableRandom(htapProperties.getSeed());
+        long intervalInNs = 1_000_000_000L / htapProperties.getRatePerSecond();
+        for(long k = 0; running; k++) {
+            long intendedStartTime = startTime + k * intervalInNs;
+            long waitInNs = intendedStartTime - System.nanoTime();
+            while(running && waitInNs > 0) {
+                LockSupport.parkNanos(waitInNs);
+                waitInNs = intendedStartTime - System.nanoTime();
+            }
+            if(!running) {
+                break;
+            }
+            Operation operation = pick(random);
+            // Keys are drawn here so that the sequence of transactions only depends on the seed
+            long key;
+            if(operation == Operation.INSERT) {
+                key = nextInsertIndex.getAndIncrement();
+            } else if(operation == Operation.UPDATE) {
+                // An order whose insert is still queued is not there yet, its update then updates no rows
+                long inserted = nextInsertIndex.get() - firstInsertIndex;
+                key = generator.refreshOrderKey(firstInsertIndex + (inserted == 0 ? 0 : random.nextLong(inserted)));
+            } else {
+                key = generator.orderKey(random.nextLong(loadedOrders));
+            }
+            char status = STATUSES[random.nextInt(STATUSES.length)];
+            statistics.get(operation).scheduled.incrementAndGet();
+            executorService.execute(() -> execute(operation, key, status, intendedStartTime));
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int value = random.nextInt(total);
+        for(Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            value -= weight.getValue();
+            if(value < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void execute(Operation operation, long key, char status, long intendedStartTime) {
+        Statistics operationStatistics = statistics.get(operation);
+        long serviceStartTime = System.nanoTime();
+        boolean failed = false;
+        try (Connection connection = dataSource.getConnection()) {
+            switch (operation) {
+                case LOOKUP: lookup(connection, key); break;
+                case INSERT: insert(connection, key); break;
+                case UPDATE: update(connection, key, status); break;
+                default: throw new IllegalArgumentException(operation.name());
+            }
+        } catch (SQLException | RuntimeException e) {
+            failed = true;
+            // Only the first error is logged, an engine that is down fails every transaction the same way
+            if(operationStatistics.errors.incrementAndGet() == 1) {
+                logger.warn("OLTP {} failed", operation.name().toLowerCase(), e);
+            }
+        }
+        long endTime = System.nanoTime();
+        if(!failed) {
+            operationStatistics.latency.recordValue(endTime - intendedStartTime);
+            operationStatistics.serviceTime.recordValue(endTime - serviceStartTime);
+        }
+        if(benchmarkMetrics != null) {
+            benchmarkMetrics.recordOltp(operation.name().toLowerCase(), endTime - intendedStartTime, failed);
+        }
+    }
+
+    private static void lookup(Connection connection, long orderKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LOOKUP_ORDER)) {
+            statement.setLong(1, orderKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while(resultSet.next()) {
+                    resultSet.getString(2);
+                }
+            }
+        }
+    }
+
+    // The order and its line items are inserted in one transaction
+    private void insert(Connection connection, long index) throws SQLException {
+        TpchGenerator.Order order = generator.generateRefreshOrder(index);
+        StringBuilder orderRow = new StringBuilder();
+        order.appendOrder(orderRow);
+        StringBuilder lineitemRows = new StringBuilder();
+        order.appendLineitems(lineitemRows);
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            insertRows(connection, TpchTable.ORDERS, orderRow);
+            insertRows(connection, TpchTable.LINEITEM, lineitemRows);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void update(Connection connection, long orderKey, char status) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+            statement.setString(1, String.valueOf(status));
+            statement.setLong(2, orderKey);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void insertRows(Connection connection, TpchTable table, CharSequence rows) throws SQLException {
+        List<TpchTable.Column> columns = table.getColumns();
+        String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + table.name().toLowerCase() + " (" + table.getColumnList() + ") VALUES (" + placeholders + ")")) {
+            for(String row : rows.toString().split("\n")) {
+                String[] values = row.split("\\|", -1);
+                for(int i = 0; i < columns.size(); i++) {
+                    bind(statement, i + 1, columns.get(i), values[i]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int index, TpchTable.Column column, String value) throws SQLException {
+        switch (column.getJdbcType()) {
+            case Types.INTEGER: statement.setInt(index, Integer.parseInt(value)); break;
+            case Types.BIGINT: statement.setLong(index, Long.parseLong(value)); break;
+            case Types.DOUBLE: statement.setDouble(index, Double.parseDouble(value)); break;
+            case Types.DATE: statement.setDate(index, Date.valueOf(value)); break;
+            default: statement.setString(index, value);
+        }
+    }
+
+    private static class Statistics {
+        private final AtomicLong scheduled = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram serviceTime = new ConcurrentHistogram(3);
+    }
+}
@@ -0,0 +1,34 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.jdbc.PgConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class PostgresCopySink implements TableSink {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final DataSource dataSource;
+
+    public PostgresCopySink(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long load(TpchTable table, InputStream data) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            return load(connection, table, data);
+        }
+    }
+
+    @Override
+    public long load(Connection connection, TpchTable table, InputStream data) throws SQLException, IOException {
+        CopyManager copyManager = connection.unwrap(PgConnection.class).getCopyAPI();
+        return copyManager.copyIn("COPY "+table+"("+table.getColumnList()+") FROM STDIN DELIMITER '|'", data, BUFFER_SIZE);
+    }
+}
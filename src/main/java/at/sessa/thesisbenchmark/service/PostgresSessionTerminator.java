@@ -0,0 +1,20 @@
+package at.sessa.thesisbenchmark.service;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class PostgresSessionTerminator implements SessionTerminator {
+    @Override
+    public Object sessionOf(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getBackendPID();
+    }
+
+    @Override
+    public void terminate(DataSource dataSource, Object session) {
+        new JdbcTemplate(dataSource).queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, session);
+    }
+}
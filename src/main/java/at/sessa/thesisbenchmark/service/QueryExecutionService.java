@@ -1,93 +1,321 @@
 package at.sessa.thesisbenchmark.service;
 
+import at.sessa.thesisbenchmark.CacheState;
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.QueryOutcome;
 import at.sessa.thesisbenchmark.Result;
+import at.sessa.thesisbenchmark.Statistics;
+import at.sessa.thesisbenchmark.configuration.CacheProperties;
+import at.sessa.thesisbenchmark.generator.SubstitutionParameters;
+import at.sessa.thesisbenchmark.configuration.RepetitionProperties;
+import at.sessa.thesisbenchmark.monitoring.BenchmarkMetrics;
+import at.sessa.thesisbenchmark.monitoring.ResourceSampler;
+import at.sessa.thesisbenchmark.monitoring.ResourceUsage;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.plan.QueryPlan;
+import at.sessa.thesisbenchmark.query.BoundQuery;
+import at.sessa.thesisbenchmark.query.QueryCatalog;
+import at.sessa.thesisbenchmark.query.QueryTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.DefaultResourceLoader;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.util.StreamUtils;
 
 import javax.sql.DataSource;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class QueryExecutionService {
     Logger logger = LoggerFactory.getLogger(QueryExecutionService.class);
 
+    public static final int QUERY_COUNT = 22;
+    private static final String QUERY_15_VIEW_NAME = "revenue0";
+    private static final QueryTemplate MSSQL_QUERY_15_VIEW = new QueryTemplate(15, "create view " + QUERY_15_VIEW_NAME + " (supplier_no, total_revenue) as\n" +
+            "\tselect\n" +
+            "\t\tl_suppkey,\n" +
+            "\t\tsum(l_extendedprice * (1 - l_discount))\n" +
+            "\tfrom\n" +
+            "\t\tlineitem\n" +
+            "\twhere\n" +
+            "\t\tl_shipdate >= CAST(:1 AS datetime)\n" +
+            "\t\tand l_shipdate < DATEADD(MONTH, 3, :1)\n" +
+            "\tgroup by\n" +
+            "\t\tl_suppkey;");
+
     private final JdbcTemplate jdbcTemplate;
+    private final MeasuringQueryExecutor measuringQueryExecutor;
+    private final RepetitionProperties repetitionProperties;
+    private final PlanCapture planCapture;
+    private final CacheControl cacheControl;
+    private final CacheProperties cacheProperties;
+    private final ResourceSampler resourceSampler;
+    private final QueryCatalog queryCatalog;
+    private volatile SubstitutionParameters substitutionParameters;
+    private final QueryWatchdog queryWatchdog;
+    private final BenchmarkMetrics benchmarkMetrics;
 
-    public QueryExecutionService(DataSource dataSource) {
+    /**
+     * With a plan capture every query is executed instrumented after its cold execution, on caches flushed again if
+     * they are flushed at all, and once more after the measured executions for the hot plan. The instrumented
+     * executions are kept apart from the cold and hot times.
+     * The cache control, if given, sets up the caches before the cold and the hot executions as configured.
+     * The resource sampler, if given, records the resources used by every measured execution.
+     * Every pass of the benchmark draws its substitution parameters from a fresh sequence, so reruns on the same
+     * service, e.g. after the refresh functions, issue the same parameters as the first pass.
+     * The watchdog, if given, cancels every execution that exceeds the budget of its query.
+     * The metrics, if given, are updated after every execution of the benchmark.
+     */
+    public QueryExecutionService(DataSource dataSource, int fetchSize, RepetitionProperties repetitionProperties, PlanCapture planCapture,
+                                 CacheControl cacheControl, CacheProperties cacheProperties, ResourceSampler resourceSampler,
+                                 QueryCatalog queryCatalog, QueryWatchdog queryWatchdog, BenchmarkMetrics benchmarkMetrics) {
+        this.repetitionProperties = repetitionProperties;
+        this.planCapture = planCapture;
+        this.cacheControl = cacheControl;
+        this.cacheProperties = cacheProperties;
+        this.resourceSampler = resourceSampler;
+        this.queryCatalog = queryCatalog;
+        this.substitutionParameters = queryCatalog.newSubstitutionParameters();
+        this.queryWatchdog = queryWatchdog;
+        this.benchmarkMetrics = benchmarkMetrics;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
-        this.jdbcTemplate.setFetchSize(1);
-        // Will not be respected by SQL Server driver
-        this.jdbcTemplate.setQueryTimeout(180000);
+        this.measuringQueryExecutor = new MeasuringQueryExecutor(dataSource, fetchSize, queryWatchdog);
     }
 
-    public void benchmark(String databaseVendor, String databaseType) {
-        Result result = new Result(databaseVendor + "/" + databaseType);
+    public Result benchmark(String queryDialect, String targetName) {
+        return benchmark(queryDialect, targetName, new Result(targetName), (queryId, tuples) -> {});
+    }
 
+    /**
+     * Continues the partial result of an interrupted benchmark, the queries it already contains are not executed
+     * again. The listener receives the new tuples of every query once all its executions are done.
+     */
+    public Result benchmark(String queryDialect, String targetName, Result result,
+                            BiConsumer<Integer, List<Result.ResultTuple>> onQueryCompleted) {
         long startTime = System.currentTimeMillis();
-        logger.info("Starting benchmark for {} on {}", databaseVendor, startTime);
+        logger.info("Starting benchmark for {} on {}", targetName, startTime);
+        substitutionParameters = queryCatalog.newSubstitutionParameters();
+        if(benchmarkMetrics != null) {
+            benchmarkMetrics.startQueries(QUERY_COUNT);
+        }
 
-        for(int i = 1; i <= 22; i++) {
-            result.addQueryExecutionTime(executeBenchmark(databaseVendor, i, Result.ResultType.COLD));
-            result.addQueryExecutionTime(executeBenchmark(databaseVendor, i, Result.ResultType.HOT));
+        for(int i = 1; i <= QUERY_COUNT; i++) {
+            int queryId = i;
+            if(result.getQueryExecutionTimes().stream().anyMatch(t -> t.getQueryId() == queryId)) {
+                logger.info("Skipping query {}, it was measured before the benchmark was interrupted", i);
+                completeQuery();
+                continue;
+            }
+            int previousSize = result.getQueryExecutionTimes().size();
+            benchmarkQuery(result, queryDialect, i);
+            completeQuery();
+            List<Result.ResultTuple> tuples = result.getQueryExecutionTimes();
+            onQueryCompleted.accept(i, new ArrayList<>(tuples.subList(previousSize, tuples.size())));
         }
 
         long endTime = System.currentTimeMillis();
-        logger.info("Ended benchmark for {} on {}", databaseVendor, endTime);
+        logger.info("Ended benchmark for {} on {}", targetName, endTime);
         logger.info(result.toString());
+        logger.info(result.histogramSummary());
+        if(planCapture != null) {
+            logger.info(result.planSummary());
+        }
+        return result;
+    }
+
+    private void benchmarkQuery(Result result, String queryDialect, int i) {
+        Result.ResultTuple cold = executeBenchmark(queryDialect, i, Result.ResultType.COLD, prepareColdCaches());
+        addQueryExecutionTime(result, cold);
+        if(cold.getOutcome() == QueryOutcome.TIMEOUT) {
+            // Repeating a query that already exceeded its budget would only spend the budget again
+            logger.warn("Skipping the hot executions of query {} after its cold execution timed out", i);
+            return;
+        }
+        if(planCapture != null) {
+            CacheState instrumentedState = prepareColdCaches() == CacheState.FLUSHED ? CacheState.FLUSHED : CacheState.WARM;
+            result.addQueryExecutionTime(executeInstrumentedBenchmark(result, queryDialect, i, instrumentedState));
+        }
+        for(int warmup = 0; warmup < repetitionProperties.getWarmupIterations(); warmup++) {
+            logger.info("Warm-up iteration {} of query {}", warmup + 1, i);
+            executeQuery(queryDialect, i, QUERY_15_VIEW_NAME);
+        }
+        executeMeasuredIterations(result, queryDialect, i, prepareHotCaches());
+        if(planCapture != null) {
+            result.addPlan(i, Result.ResultType.HOT, executePlan(queryDialect, i));
+        }
+    }
+
+    private CacheState prepareColdCaches() {
+        if(cacheControl == null || !cacheProperties.isTrueCold()) {
+            return CacheState.FIRST_EXECUTION;
+        }
+        long startTime = System.currentTimeMillis();
+        cacheControl.flushCaches();
+        logger.info("Flushed caches in {} ms", System.currentTimeMillis() - startTime);
+        return CacheState.FLUSHED;
+    }
+
+    private CacheState prepareHotCaches() {
+        if(cacheControl == null || !cacheProperties.isPrewarm()) {
+            return CacheState.WARM;
+        }
+        long startTime = System.currentTimeMillis();
+        cacheControl.prewarm();
+        logger.info("Prewarmed caches in {} ms", System.currentTimeMillis() - startTime);
+        return CacheState.PREWARMED;
+    }
+
+    private void executeMeasuredIterations(Result result, String queryDialect, int i, CacheState cacheState) {
+        int measuredIterations = Math.max(repetitionProperties.getMeasuredIterations(), 1);
+        int maxIterations = repetitionProperties.isAdaptive()
+                ? Math.max(repetitionProperties.getMaxIterations(), measuredIterations)
+                : measuredIterations;
+        List<Long> samples = new ArrayList<>();
+        int failures = 0;
+
+        while(samples.size() < maxIterations) {
+            Result.ResultTuple resultTuple = executeBenchmark(queryDialect, i, Result.ResultType.HOT, cacheState);
+            addQueryExecutionTime(result, resultTuple);
+            if(resultTuple.getOutcome() == QueryOutcome.TIMEOUT) {
+                logger.warn("Stopping the measured iterations of query {} after a timeout", i);
+                break;
+            }
+            if(resultTuple.getOutcome() == QueryOutcome.SUCCESS) {
+                samples.add(resultTuple.getTimeInNs());
+            } else if(++failures >= maxIterations) {
+                break;
+            }
+
+            if(repetitionProperties.isAdaptive() && samples.size() >= Math.max(measuredIterations, 2) && isPreciseEnough(samples)) {
+                break;
+            }
+        }
+
+        if(repetitionProperties.isAdaptive() && !samples.isEmpty()) {
+            logger.info("Query {} measured {} times, mean {} ms +/- {} ms", i, samples.size(),
+                    Statistics.mean(samples) / 1e6,
+                    Statistics.confidenceIntervalHalfWidth(samples, repetitionProperties.getConfidenceLevel()) / 1e6);
+        }
+    }
+
+    private void addQueryExecutionTime(Result result, Result.ResultTuple resultTuple) {
+        result.addQueryExecutionTime(resultTuple);
+        if(benchmarkMetrics != null) {
+            benchmarkMetrics.recordQuery(resultTuple.getQueryId(), resultTuple.getCacheState(), resultTuple.getMeasurement());
+        }
     }
 
-    private Result.ResultTuple executeBenchmark(String databaseVendor, int i, Result.ResultType resultType) {
-        String query = "";
-        String classPathLocation = "classpath:db/queries/"+databaseVendor+"/"+i+".sql";
+    private void completeQuery() {
+        if(benchmarkMetrics != null) {
+            benchmarkMetrics.completeQuery();
+        }
+    }
+
+    private boolean isPreciseEnough(List<Long> samples) {
+        double halfWidth = Statistics.confidenceIntervalHalfWidth(samples, repetitionProperties.getConfidenceLevel());
+        return halfWidth <= repetitionProperties.getTargetRelativeError() * Statistics.mean(samples);
+    }
+
+    private Result.ResultTuple executeBenchmark(String queryDialect, int i, Result.ResultType resultType, CacheState cacheState) {
+        ResourceSampler.Sampling sampling = resourceSampler == null ? null : resourceSampler.start();
+        QueryMeasurement measurement = executeQuery(queryDialect, i, QUERY_15_VIEW_NAME);
+        ResourceUsage resourceUsage = sampling == null ? null : sampling.stop();
+        logger.info("Duration of query {} on {}", i, measurement.getTimeInMs());
+        logger.info("Query {} returned {} rows ({} bytes), first row after {} ms, connection acquired in {} us", i, measurement.getRowCount(),
+                measurement.getBytesDecoded(), measurement.getTimeToFirstRowInNs() / 1_000_000, measurement.getConnectionAcquisitionInNs() / 1_000);
+        return new Result.ResultTuple(i, measurement.getTimeInNs(), resultType, measurement, cacheState, resourceUsage);
+    }
+
+    private Result.ResultTuple executeInstrumentedBenchmark(Result result, String queryDialect, int i, CacheState cacheState) {
+        QueryPlan plan = executePlan(queryDialect, i);
+        result.addPlan(i, Result.ResultType.COLD, plan);
+        logger.info("Duration of instrumented query {} on {}", i, plan.getTimeInNs() / 1_000_000);
+        QueryMeasurement measurement = new QueryMeasurement(plan.getTimeInNs(), plan.getTimeInNs(), plan.getRowCount(), 0, plan.getFailure());
+        return new Result.ResultTuple(i, plan.getTimeInNs(), Result.ResultType.INSTRUMENTED, measurement, cacheState, null);
+    }
+
+    private QueryPlan executePlan(String queryDialect, int i) {
+        // Plans are captured with literals, the instrumentation cannot bind parameters
+        QueryPlan plan = executeQuery(queryDialect, i, QUERY_15_VIEW_NAME, false, q -> measuringQueryExecutor.executeWithPlan(q.getSql(), planCapture, budgetInMs(i)));
+        logFailure(i, plan.getOutcome(), plan.getFailure());
+        return plan;
+    }
+
+    /**
+     * Executes a single query and streams its full result. Concurrent callers must pass distinct view names
+     * because query 15 creates and drops its view around the measured statement. Of a script only the SELECT is
+     * measured, the statements before it are executed first and those after it in any case afterwards.
+     */
+    QueryMeasurement executeQuery(String queryDialect, int i, String query15ViewName) {
+        QueryMeasurement measurement = executeQuery(queryDialect, i, query15ViewName, queryCatalog.isPrepared(),
+                q -> measuringQueryExecutor.execute(q, budgetInMs(i)));
+        logFailure(i, measurement.getOutcome(), measurement.getFailure());
+        return measurement;
+    }
+
+    private long budgetInMs(int i) {
+        return queryWatchdog == null ? 0 : queryWatchdog.getBudgetInMs(i);
+    }
+
+    private void logFailure(int i, QueryOutcome outcome, Exception failure) {
+        if(outcome == QueryOutcome.TIMEOUT) {
+            logger.warn("Query {} exceeded its time budget and was cancelled", i);
+        } else if(outcome == QueryOutcome.ERROR) {
+            logger.error("Exception occurred during execution of query {}", i, failure);
+        }
+    }
+
+    private <T> T executeQuery(String queryDialect, int i, String query15ViewName, boolean prepare, Function<BoundQuery, T> executor) {
+        List<QueryTemplate> statements = queryCatalog.get(queryDialect, i).getStatements();
+        List<Object> parameters = substitutionParameters.next(i);
+        int measured = statements.size() == 1 ? 0 : indexOfSelect(statements, i);
+        QueryTemplate template = statements.get(measured);
+        BoundQuery query = prepare ? template.bind(parameters) : BoundQuery.literal(template.inline(parameters));
+        if(i == 15) {
+            query = query.withSql(query.getSql().replace(QUERY_15_VIEW_NAME, query15ViewName));
+        }
+        logger.info("Starting query {} on {}", i, System.currentTimeMillis());
+        boolean mssqlQuery15 = queryDialect.equals("mssql") && i == 15;
+        if(mssqlQuery15) {
+            createViewForMssqlQuery15(query15ViewName, parameters);
+        }
+        T outcome;
         try {
-            ResourceLoader resourceLoader = new DefaultResourceLoader();
-            Resource resource = resourceLoader.getResource(classPathLocation);
-            query = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            logger.error("Error executing query {}", i, e);
-        }
-        long queryStartTime = System.currentTimeMillis();
-        logger.info("Starting query {} on {}", i, queryStartTime);
-        if(databaseVendor.equals("mssql") && i == 15) {
-            createViewForMssqlQuery15();
-        } try {
-            jdbcTemplate.execute(query);
-        } catch (DataAccessException e) {
-            logger.error("Exception occurred during query execution, probably timed out", e);
-        }
-        if(databaseVendor.equals("mssql") && i == 15) {
-            dropViewForMssqlQuery15();
-        }
-        long queryEndTime = System.currentTimeMillis();
-        logger.info("Ended query {} on {}", i, queryEndTime);
-        long queryDuration = queryEndTime - queryStartTime;
-        logger.info("Duration of query {} on {}", i, queryDuration);
-        return new Result.ResultTuple(i, queryDuration, resultType);
-    }
-
-    private void createViewForMssqlQuery15() {
-        String query = "create view revenue0 (supplier_no, total_revenue) as\n" +
-                "\tselect\n" +
-                "\t\tl_suppkey,\n" +
-                "\t\tsum(l_extendedprice * (1 - l_discount))\n" +
-                "\tfrom\n" +
-                "\t\tlineitem\n" +
-                "\twhere\n" +
-                "\t\tl_shipdate >= CAST('1996-01-01' AS datetime)\n" +
-                "\t\tand l_shipdate < DATEADD(MONTH, 3, '1996-01-01')\n" +
-                "\tgroup by\n" +
-                "\t\tl_suppkey;";
+            statements.subList(0, measured).forEach(s -> executeStatement(s, parameters, query15ViewName));
+            try {
+                outcome = executor.apply(query);
+            } finally {
+                statements.subList(measured + 1, statements.size()).forEach(s -> executeStatement(s, parameters, query15ViewName));
+            }
+        } finally {
+            // A view left behind would make the next CREATE VIEW of query 15 fail
+            if(mssqlQuery15) {
+                dropViewForMssqlQuery15(query15ViewName);
+            }
+        }
+        logger.info("Ended query {} on {}", i, System.currentTimeMillis());
+        return outcome;
+    }
 
-        jdbcTemplate.execute(query);
+    private static int indexOfSelect(List<QueryTemplate> statements, int i) {
+        for(int index = 0; index < statements.size(); index++) {
+            if(statements.get(index).isSelect()) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException("Query " + i + " has no SELECT statement");
+    }
+
+    private void executeStatement(QueryTemplate statement, List<Object> parameters, String query15ViewName) {
+        jdbcTemplate.execute(statement.inline(parameters).replace(QUERY_15_VIEW_NAME, query15ViewName));
+    }
+
+    private void createViewForMssqlQuery15(String viewName, List<Object> parameters) {
+        jdbcTemplate.execute(MSSQL_QUERY_15_VIEW.inline(parameters).replace(QUERY_15_VIEW_NAME, viewName));
     }
 
-    private void dropViewForMssqlQuery15() {
-        String query = "drop view revenue0;";
+    private void dropViewForMssqlQuery15(String viewName) {
+        String query = "drop view "+viewName+";";
 
         jdbcTemplate.execute(query);
     }
@@ -0,0 +1,126 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.configuration.WatchdogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces per-query time budgets from a scheduler thread, independent of driver support for query timeouts.
+ * An execution over its budget is cancelled with Statement.cancel(). If it is still running after a grace period,
+ * or if its statement is not accessible, the server side session is killed through the session terminator.
+ */
+public class QueryWatchdog implements AutoCloseable {
+    Logger logger = LoggerFactory.getLogger(QueryWatchdog.class);
+
+    private final DataSource dataSource;
+    private final SessionTerminator sessionTerminator;
+    private final WatchdogProperties watchdogProperties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "query-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public QueryWatchdog(DataSource dataSource, SessionTerminator sessionTerminator, WatchdogProperties watchdogProperties) {
+        this.dataSource = dataSource;
+        this.sessionTerminator = sessionTerminator;
+        this.watchdogProperties = watchdogProperties;
+    }
+
+    public long getBudgetInMs(int queryId) {
+        return watchdogProperties.getBudgetInSeconds(queryId) * 1000;
+    }
+
+    /**
+     * Starts watching an execution on the connection, statement may be null if the caller cannot access it.
+     */
+    public Watch watch(Connection connection, Statement statement, long budgetInMs) throws SQLException {
+        Object session = sessionTerminator == null ? null : sessionTerminator.sessionOf(connection);
+        return new Watch(statement, session, budgetInMs);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public class Watch implements AutoCloseable {
+        private final Statement statement;
+        private final Object session;
+        private final long budgetInMs;
+        private final ScheduledFuture<?> expiry;
+        private volatile boolean expired;
+        private volatile boolean closed;
+
+        private Watch(Statement statement, Object session, long budgetInMs) {
+            this.statement = statement;
+            this.session = session;
+            this.budgetInMs = budgetInMs;
+            this.expiry = scheduler.schedule(this::expire, budgetInMs, TimeUnit.MILLISECONDS);
+        }
+
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * The failure to record for an expired execution, whatever the execution itself ended with.
+         */
+        public SQLTimeoutException timeout(Exception cause) {
+            SQLTimeoutException timeout = new SQLTimeoutException("Query exceeded its budget of " + budgetInMs + " ms");
+            if(cause != null) {
+                timeout.initCause(cause);
+            }
+            return timeout;
+        }
+
+        private void expire() {
+            if(closed) {
+                return;
+            }
+            expired = true;
+            if(statement == null) {
+                logger.warn("Query exceeded its budget of {} ms, killing its session", budgetInMs);
+                kill();
+                return;
+            }
+            logger.warn("Query exceeded its budget of {} ms, cancelling it", budgetInMs);
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.warn("Could not cancel query", e);
+            }
+            if(session != null) {
+                scheduler.schedule(this::kill, watchdogProperties.getKillGraceInSeconds(), TimeUnit.SECONDS);
+            }
+        }
+
+        private void kill() {
+            if(closed || session == null) {
+                return;
+            }
+            logger.warn("Killing session {} of a query over its budget", session);
+            try {
+                sessionTerminator.terminate(dataSource, session);
+            } catch (Exception e) {
+                logger.error("Could not kill session {}", session, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            expiry.cancel(false);
+        }
+    }
+}
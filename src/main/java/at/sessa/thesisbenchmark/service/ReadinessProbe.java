@@ -0,0 +1,83 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.configuration.ReadinessProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls a datasource with exponential backoff until it answers a query and accepts writes. An engine that is
+ * still recovering or starting up usually accepts connections and reads before it accepts writes.
+ */
+public class ReadinessProbe {
+    Logger logger = LoggerFactory.getLogger(ReadinessProbe.class);
+
+    // DDL is transactional on all targets, so rolling back leaves nothing behind
+    private static final String WRITE_PROBE = "CREATE TABLE readiness_probe (id INTEGER)";
+
+    private final ReadinessProperties readinessProperties;
+
+    public ReadinessProbe(ReadinessProperties readinessProperties) {
+        this.readinessProperties = readinessProperties;
+    }
+
+    /**
+     * Blocks until the datasource is ready, running beforeRetry, if given, after each failed attempt.
+     */
+    public void waitUntilReady(DataSource dataSource, Runnable beforeRetry) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.SECONDS.toNanos(readinessProperties.getTimeoutInSeconds());
+        long backoff = Math.max(readinessProperties.getInitialBackoffInMs(), 1);
+
+        for(int attempt = 1; ; attempt++) {
+            SQLException failure;
+            try {
+                probe(dataSource);
+                logger.info("Datasource ready after {} attempts and {} ms", attempt, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                return;
+            } catch (SQLException e) {
+                failure = e;
+            }
+
+            if(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff) > deadline) {
+                throw new IllegalStateException("Datasource not ready after " + readinessProperties.getTimeoutInSeconds() + " s", failure);
+            }
+            logger.info("Waiting {} ms for datasource to become ready: {}", backoff, failure.getMessage());
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if(beforeRetry != null) {
+                beforeRetry.run();
+            }
+            backoff = Math.min(backoff * 2, readinessProperties.getMaxBackoffInMs());
+        }
+    }
+
+    private void probe(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+                if(!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Unexpected answer to SELECT 1");
+                }
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                statement.execute(WRITE_PROBE);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.RefreshResult;
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.configuration.RefreshProperties;
+import at.sessa.thesisbenchmark.generator.TpchGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Runs the TPC-H refresh functions. RF1 inserts new orders with their line items through the table sink of the
+ * target, RF2 deletes as many of the loaded orders with their line items, each in one transaction, so every pair
+ * leaves the number of orders unchanged. Each function of a pair handles 0.1% of the orders (clause 2.5).
+ */
+public class RefreshExecutionService {
+    Logger logger = LoggerFactory.getLogger(RefreshExecutionService.class);
+
+    // Loaded orders use the first 8 of every 32 keys, refresh orders the next 8
+    private static final String DELETE_LINEITEMS = "DELETE FROM lineitem WHERE l_orderkey BETWEEN ? AND ? AND (l_orderkey - 1) % 32 < 8";
+    private static final String DELETE_ORDERS = "DELETE FROM orders WHERE o_orderkey BETWEEN ? AND ? AND (o_orderkey - 1) % 32 < 8";
+
+    private final DataSource dataSource;
+    private final TableSink tableSink;
+    private final boolean supportsDeletes;
+    private final TpchGenerator generator;
+    private final RefreshProperties refreshProperties;
+    private final long ordersPerFunction;
+
+    public RefreshExecutionService(DataSource dataSource, TableSink tableSink, boolean supportsDeletes, double scaleFactor,
+                                   RefreshProperties refreshProperties) {
+        this.dataSource = dataSource;
+        this.tableSink = tableSink;
+        this.supportsDeletes = supportsDeletes;
+        this.generator = new TpchGenerator(scaleFactor);
+        this.refreshProperties = refreshProperties;
+        this.ordersPerFunction = Math.max(generator.unitCount(TpchTable.ORDERS) / 1000, 1);
+    }
+
+    public RefreshResult refresh(String targetName) {
+        RefreshResult result = new RefreshResult(targetName);
+        logger.info("Starting {} refresh pairs of {} orders each for {}", refreshProperties.getPairs(), ordersPerFunction, targetName);
+
+        for(int pair = 0; pair < refreshProperties.getPairs(); pair++) {
+            result.addMeasurement(insertNewOrders(pair));
+            result.addMeasurement(deleteOldOrders(pair));
+        }
+
+        logger.info(result.toString());
+        return result;
+    }
+
+    private RefreshResult.RefreshMeasurement insertNewOrders(int pair) {
+        long firstIndex = pair * ordersPerFunction;
+        long endIndex = firstIndex + ordersPerFunction;
+        long startTime = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // Orders first, their line items reference them
+                long rows = tableSink.load(connection, TpchTable.ORDERS, generator.openRefreshChunk(TpchTable.ORDERS, firstIndex, endIndex));
+                rows += tableSink.load(connection, TpchTable.LINEITEM, generator.openRefreshChunk(TpchTable.LINEITEM, firstIndex, endIndex));
+                connection.commit();
+                long timeInNs = System.nanoTime() - startTime;
+                logger.info("RF1 of pair {} inserted {} rows in {} ms", pair + 1, rows, timeInNs / 1_000_000);
+                return new RefreshResult.RefreshMeasurement("RF1", pair + 1, RefreshResult.Status.OK, ordersPerFunction, rows, timeInNs);
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (Exception e) {
+            logger.error("RF1 of pair {} failed", pair + 1, e);
+            return new RefreshResult.RefreshMeasurement("RF1", pair + 1, RefreshResult.Status.FAILED, ordersPerFunction, 0, System.nanoTime() - startTime);
+        }
+    }
+
+    private RefreshResult.RefreshMeasurement deleteOldOrders(int pair) {
+        if(!supportsDeletes) {
+            logger.warn("RF2 of pair {} skipped, the target does not support deletes", pair + 1);
+            return new RefreshResult.RefreshMeasurement("RF2", pair + 1, RefreshResult.Status.UNSUPPORTED, ordersPerFunction, 0, 0);
+        }
+
+        long firstKey = generator.orderKey(pair * ordersPerFunction);
+        long lastKey = generator.orderKey((pair + 1) * ordersPerFunction - 1);
+        long startTime = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                // Line items first, they reference their orders
+                long rows = delete(connection, DELETE_LINEITEMS, firstKey, lastKey);
+                rows += delete(connection, DELETE_ORDERS, firstKey, lastKey);
+                connection.commit();
+                long timeInNs = System.nanoTime() - startTime;
+                logger.info("RF2 of pair {} deleted {} rows in {} ms", pair + 1, rows, timeInNs / 1_000_000);
+                return new RefreshResult.RefreshMeasurement("RF2", pair + 1, RefreshResult.Status.OK, ordersPerFunction, rows, timeInNs);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("RF2 of pair {} failed", pair + 1, e);
+            return new RefreshResult.RefreshMeasurement("RF2", pair + 1, RefreshResult.Status.FAILED, ordersPerFunction, 0, System.nanoTime() - startTime);
+        }
+    }
+
+    private static long delete(Connection connection, String statement, long firstKey, long lastKey) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+            preparedStatement.setLong(1, firstKey);
+            preparedStatement.setLong(2, lastKey);
+            return preparedStatement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package at.sessa.thesisbenchmark.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Order insensitive checksum of the rows of a result, computed while they stream past without keeping them. The
+ * values of a row are hashed in column order and the row hashes are summed, so that the same rows in any order give
+ * the same checksum while duplicates still count. Values are normalized first so that engines agree on equal
+ * answers: numbers of any type are rounded to FRACTION_DIGITS decimal places, the precision of the TPC-H answer sets,
+ * which absorbs the differing scales of decimal division, dates become days since the epoch and the padding of
+ * CHAR columns is stripped. Doubles are first rounded to DOUBLE_DIGITS significant digits, so that a double that
+ * misses a decimal value by its binary error rounds like that value. A hash cannot compare with a tolerance, two
+ * answers that differ only in the last digits of the engine can still fall on both sides of a rounding boundary,
+ * but with a fixed scale instead of significant digits this is limited to values computed inexactly.
+ */
+public class ResultChecksum {
+    private static final int FRACTION_DIGITS = 2;
+    private static final int DOUBLE_DIGITS = 15;
+
+    private static final MathContext DOUBLE_CONTEXT = new MathContext(DOUBLE_DIGITS, RoundingMode.HALF_EVEN);
+    private static final long ROW_SEED = 0x2545F4914F6CDD1DL;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long NULL_HASH = 0x6A09E667F3BCC908L;
+    // Distinguish the kinds of values, so that e.g. a date and the number of its epoch day differ
+    private static final long NUMBER_TAG = 1;
+    private static final long DATE_TAG = 2;
+    private static final long TIMESTAMP_TAG = 3;
+    private static final long TEXT_TAG = 4;
+
+    private long checksum;
+    private long rowHash = ROW_SEED;
+
+    public void addValue(Object value) {
+        rowHash = mix(rowHash * MULTIPLIER + hash(value));
+    }
+
+    public void endRow() {
+        checksum += mix(rowHash);
+        rowHash = ROW_SEED;
+    }
+
+    public long getValue() {
+        return checksum;
+    }
+
+    public static String format(long checksum) {
+        return String.format("%016x", checksum);
+    }
+
+    private static long hash(Object value) {
+        if(value == null) {
+            return NULL_HASH;
+        } else if(value instanceof Number) {
+            BigDecimal decimal = normalize((Number) value);
+            return decimal == null ? hash(value.toString()) : hash(decimal);
+        } else if(value instanceof Timestamp) {
+            return hash(((Timestamp) value).toLocalDateTime());
+        } else if(value instanceof Date) {
+            return mix(DATE_TAG * MULTIPLIER + ((Date) value).toLocalDate().toEpochDay());
+        } else if(value instanceof LocalDate) {
+            return mix(DATE_TAG * MULTIPLIER + ((LocalDate) value).toEpochDay());
+        } else if(value instanceof LocalDateTime) {
+            return hash((LocalDateTime) value);
+        } else if(value instanceof String || value instanceof Character) {
+            return hash(stripTrailingSpaces(value.toString()));
+        }
+        return hash(value.toString());
+    }
+
+    // Dates that come back as timestamps at midnight hash like dates
+    private static long hash(LocalDateTime value) {
+        if(value.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return mix(DATE_TAG * MULTIPLIER + value.toLocalDate().toEpochDay());
+        }
+        return mix(mix(TIMESTAMP_TAG * MULTIPLIER + value.toLocalDate().toEpochDay()) + value.toLocalTime().toNanoOfDay());
+    }
+
+    private static long hash(BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        long unscaledHash = unscaled.bitLength() < 64 ? unscaled.longValue() : unscaled.hashCode();
+        return mix(mix(NUMBER_TAG * MULTIPLIER + unscaledHash) + value.scale());
+    }
+
+    // FNV-1a over the characters
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for(int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(TEXT_TAG * MULTIPLIER + hash);
+    }
+
+    // Null for NaN and infinities, which have no decimal representation
+    private static BigDecimal normalize(Number value) {
+        BigDecimal decimal;
+        if(value instanceof BigDecimal) {
+            decimal = (BigDecimal) value;
+        } else if(value instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) value);
+        } else if(value instanceof Double || value instanceof Float) {
+            if(Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue())) {
+                return null;
+            }
+            // Through the shortest decimal representation, a float widened to double would carry binary noise
+            decimal = new BigDecimal(value.toString()).round(DOUBLE_CONTEXT);
+        } else {
+            decimal = BigDecimal.valueOf(value.longValue());
+        }
+        return decimal.setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).stripTrailingZeros();
+    }
+
+    private static String stripTrailingSpaces(String value) {
+        int end = value.length();
+        while(end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+
+    // Finalizer of SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,68 @@
+package at.sessa.thesisbenchmark.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client and session side configuration of the connections queries run on: the fetch size, additional driver
+ * properties and a statement run on every new connection, like SET work_mem.
+ */
+public class SessionSettings {
+    private final int fetchSize;
+    private final Map<String, String> connectionProperties;
+    private final String sessionStatement;
+
+    public SessionSettings(int fetchSize, Map<String, String> connectionProperties, String sessionStatement) {
+        this.fetchSize = fetchSize;
+        this.connectionProperties = Collections.unmodifiableMap(connectionProperties);
+        this.sessionStatement = sessionStatement;
+    }
+
+    /**
+     * Parses driver properties in the form key=value;key=value, null or blank for none.
+     */
+    public static Map<String, String> parseConnectionOptions(String connectionOptions) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if(connectionOptions == null || connectionOptions.isBlank()) {
+            return properties;
+        }
+        for(String option : connectionOptions.split(";")) {
+            String[] keyValue = option.split("=", 2);
+            if(keyValue.length != 2) {
+                throw new IllegalArgumentException("Connection option " + option + " is not of the form key=value");
+            }
+            properties.put(keyValue[0].trim(), keyValue[1].trim());
+        }
+        return properties;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public Map<String, String> getConnectionProperties() {
+        return connectionProperties;
+    }
+
+    public String getSessionStatement() {
+        return sessionStatement;
+    }
+
+    /**
+     * Whether the connections of the target as set up can be used, only the fetch size differs.
+     */
+    public boolean isDefaultSession() {
+        return connectionProperties.isEmpty() && sessionStatement == null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("fetchSize=").append(fetchSize);
+        connectionProperties.forEach((key, value) -> stringBuilder.append(";").append(key).append("=").append(value));
+        if(sessionStatement != null) {
+            stringBuilder.append(";").append(sessionStatement);
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package at.sessa.thesisbenchmark.service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Ends the server side session of a connection from another connection, for queries that ignore a cancel request.
+ */
+public interface SessionTerminator {
+    /**
+     * Identifies the session of the connection without a round trip to the server.
+     */
+    Object sessionOf(Connection connection) throws SQLException;
+
+    void terminate(DataSource dataSource, Object session) throws SQLException;
+}
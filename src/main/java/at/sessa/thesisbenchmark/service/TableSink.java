@@ -0,0 +1,19 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.TpchTable;
+
+import java.io.InputStream;
+import java.sql.Connection;
+
+/**
+ * Pushes '|' delimited TPC-H rows from the client into a table and returns the number of rows written.
+ * Implementations open their own connection per call so that several chunks can be loaded concurrently.
+ */
+public interface TableSink {
+    long load(TpchTable table, InputStream data) throws Exception;
+
+    /**
+     * Loads on the given connection instead, so that several loads can share its transaction.
+     */
+    long load(Connection connection, TpchTable table, InputStream data) throws Exception;
+}
@@ -0,0 +1,126 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.ThroughputResult;
+import at.sessa.thesisbenchmark.configuration.ThroughputProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ThroughputExecutionService {
+    Logger logger = LoggerFactory.getLogger(ThroughputExecutionService.class);
+
+    private final QueryExecutionService queryExecutionService;
+    private final ThroughputProperties throughputProperties;
+
+    public ThroughputExecutionService(QueryExecutionService queryExecutionService, ThroughputProperties throughputProperties) {
+        this.queryExecutionService = queryExecutionService;
+        this.throughputProperties = throughputProperties;
+    }
+
+    public List<ThroughputResult> throughput(String queryDialect, String targetName) {
+        List<ThroughputResult> results = new ArrayList<>();
+
+        for(int streams : throughputProperties.getStreams()) {
+            ThroughputResult result = runStreams(queryDialect, targetName, streams);
+            logger.info(result.toString());
+            results.add(result);
+        }
+
+        if(!results.isEmpty()) {
+            // The configured stream counts need not be ascending, the baseline is the run with the fewest streams
+            ThroughputResult baseline = Collections.min(results, Comparator.comparingInt(ThroughputResult::getStreams));
+            results.forEach(r -> logger.info(r.degradationRelativeTo(baseline)));
+        }
+
+        return results;
+    }
+
+    private ThroughputResult runStreams(String queryDialect, String targetName, int streams) {
+        logger.info("Starting throughput test with {} streams for {}", streams, targetName);
+
+        ExecutorService executorService = createExecutor(streams);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<ThroughputResult.StreamResult>> futures = new ArrayList<>();
+
+        for(int streamId = 0; streamId < streams; streamId++) {
+            List<Integer> queryOrder = permutation(streamId);
+            int id = streamId;
+            futures.add(executorService.submit(() -> {
+                startSignal.await();
+                return executeStream(queryDialect, id, queryOrder);
+            }));
+        }
+
+        long startTime = System.currentTimeMillis();
+        startSignal.countDown();
+
+        List<ThroughputResult.StreamResult> streamResults = new ArrayList<>();
+        try {
+            for(Future<ThroughputResult.StreamResult> future : futures) {
+                streamResults.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        ThroughputResult result = new ThroughputResult(targetName, streams, endTime - startTime);
+        streamResults.forEach(result::addStreamResult);
+        return result;
+    }
+
+    private ThroughputResult.StreamResult executeStream(String queryDialect, int streamId, List<Integer> queryOrder) {
+        logger.info("Stream {} executing queries in order {}", streamId, queryOrder);
+        LinkedHashMap<Integer, QueryMeasurement> measurements = new LinkedHashMap<>();
+
+        long startTime = System.currentTimeMillis();
+        for(int queryId : queryOrder) {
+            measurements.put(queryId, queryExecutionService.executeQuery(queryDialect, queryId, "revenue" + streamId));
+        }
+        long endTime = System.currentTimeMillis();
+
+        logger.info("Stream {} finished after {} ms", streamId, endTime - startTime);
+        return new ThroughputResult.StreamResult(streamId, endTime - startTime, measurements);
+    }
+
+    private List<Integer> permutation(int streamId) {
+        List<Integer> queryOrder = IntStream.rangeClosed(1, QueryExecutionService.QUERY_COUNT)
+                .boxed()
+                .collect(Collectors.toList());
+        Collections.shuffle(queryOrder, new Random(throughputProperties.getSeed() + streamId));
+        return queryOrder;
+    }
+
+    private ExecutorService createExecutor(int streams) {
+        if("virtual".equalsIgnoreCase(throughputProperties.getExecutor())) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on this JVM, falling back to platform threads");
+            }
+        }
+        return Executors.newFixedThreadPool(streams);
+    }
+}
@@ -0,0 +1,133 @@
+package at.sessa.thesisbenchmark.service;
+
+import at.sessa.thesisbenchmark.QueryMeasurement;
+import at.sessa.thesisbenchmark.QueryOutcome;
+import at.sessa.thesisbenchmark.Statistics;
+import at.sessa.thesisbenchmark.TuningResult;
+import at.sessa.thesisbenchmark.configuration.CacheProperties;
+import at.sessa.thesisbenchmark.configuration.RepetitionProperties;
+import at.sessa.thesisbenchmark.configuration.TuningProperties;
+import at.sessa.thesisbenchmark.configuration.WatchdogProperties;
+import at.sessa.thesisbenchmark.query.QueryCatalog;
+import at.sessa.thesisbenchmark.target.BenchmarkTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a subset of the queries under every combination of fetch size, driver properties and session statement
+ * configured for the vendor of the target. The driver and server defaults are always part of the grid, so the
+ * result shows how much they cost.
+ */
+public class TuningExecutionService {
+    Logger logger = LoggerFactory.getLogger(TuningExecutionService.class);
+
+    private static final String TUNING_VIEW_NAME = "revenue_tuning";
+
+    private final BenchmarkTarget target;
+    private final QueryCatalog queryCatalog;
+    private final RepetitionProperties repetitionProperties;
+    private final TuningProperties tuningProperties;
+    private final WatchdogProperties watchdogProperties;
+
+    public TuningExecutionService(BenchmarkTarget target, QueryCatalog queryCatalog, RepetitionProperties repetitionProperties,
+                                  TuningProperties tuningProperties, WatchdogProperties watchdogProperties) {
+        this.target = target;
+        this.queryCatalog = queryCatalog;
+        this.repetitionProperties = repetitionProperties;
+        this.tuningProperties = tuningProperties;
+        this.watchdogProperties = watchdogProperties;
+    }
+
+    public TuningResult tune() {
+        TuningResult result = new TuningResult(target.getName());
+        List<SessionSettings> grid = grid();
+        logger.info("Tuning {} with {} configurations on queries {}", target.getName(), grid.size(), tuningProperties.getQueries());
+
+        for(SessionSettings settings : grid) {
+            DataSource dataSource = dataSourceFor(settings);
+            if(dataSource == null) {
+                logger.warn("Skipping {}, {} does not support connection options or session statements", settings, target.getName());
+                continue;
+            }
+            try (QueryWatchdog queryWatchdog = watchdogProperties.isEnabled()
+                    ? new QueryWatchdog(dataSource, target.getSessionTerminator(), watchdogProperties) : null) {
+                QueryExecutionService queryExecutionService = new QueryExecutionService(dataSource, settings.getFetchSize(),
+                        repetitionProperties, null, null, new CacheProperties(), null, queryCatalog, queryWatchdog, null);
+                for(int queryId : tuningProperties.getQueries()) {
+                    result.addMeasurement(new TuningResult.TuningMeasurement(settings, queryId, medianTimeInNs(queryExecutionService, queryId)));
+                }
+            } finally {
+                close(dataSource);
+            }
+        }
+
+        logger.info(result.toString());
+        return result;
+    }
+
+    /**
+     * The data source to run queries with the given settings on, null if the target cannot provide it.
+     * Close it with close once done.
+     */
+    public DataSource dataSourceFor(SessionSettings settings) {
+        if(settings.isDefaultSession()) {
+            return target.getDataSource();
+        }
+        return target.createDataSource(settings.getConnectionProperties(), settings.getSessionStatement());
+    }
+
+    public void close(DataSource dataSource) {
+        if(dataSource != target.getDataSource() && dataSource instanceof Closeable) {
+            try {
+                ((Closeable) dataSource).close();
+            } catch (IOException e) {
+                logger.warn("Could not close data source", e);
+            }
+        }
+    }
+
+    private double medianTimeInNs(QueryExecutionService queryExecutionService, int queryId) {
+        QueryMeasurement warmup = queryExecutionService.executeQuery(target.getQueryDialect(), queryId, TUNING_VIEW_NAME);
+        if(warmup.isFailed()) {
+            return Double.NaN;
+        }
+        List<Long> samples = new ArrayList<>();
+        for(int iteration = 0; iteration < tuningProperties.getIterations(); iteration++) {
+            QueryMeasurement measurement = queryExecutionService.executeQuery(target.getQueryDialect(), queryId, TUNING_VIEW_NAME);
+            if(measurement.getOutcome() != QueryOutcome.SUCCESS) {
+                return Double.NaN;
+            }
+            samples.add(measurement.getTimeInNs());
+        }
+        return Statistics.median(samples);
+    }
+
+    private List<SessionSettings> grid() {
+        List<String> connectionOptions = withDefault(tuningProperties.getConnectionOptions().getOrDefault(target.getVendor(), List.of()));
+        List<String> sessionStatements = withDefault(tuningProperties.getSessionStatements().getOrDefault(target.getVendor(), List.of()));
+
+        List<SessionSettings> grid = new ArrayList<>();
+        for(String connectionOption : connectionOptions) {
+            for(String sessionStatement : sessionStatements) {
+                for(int fetchSize : tuningProperties.getFetchSizes()) {
+                    grid.add(new SessionSettings(fetchSize, SessionSettings.parseConnectionOptions(connectionOption), sessionStatement));
+                }
+            }
+        }
+        return grid;
+    }
+
+    // The default is represented by null and comes first
+    private static List<String> withDefault(List<String> alternatives) {
+        List<String> values = new ArrayList<>();
+        values.add(null);
+        alternatives.stream().filter(a -> !a.isBlank()).forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,159 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.monitoring.ResourceProbe;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.service.CacheControl;
+import at.sessa.thesisbenchmark.service.SessionTerminator;
+import at.sessa.thesisbenchmark.service.TableSink;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A database engine and storage layout the queries are benchmarked against. Implementations own the whole
+ * lifecycle of the engine, from starting it to removing it and its data again.
+ */
+public interface BenchmarkTarget extends CacheControl {
+    /**
+     * Name used to select the target in at.sessa.thesisbenchmark.targets, e.g. postgres-row.
+     */
+    default String getName() {
+        return getVendor() + "-" + getLayout();
+    }
+
+    String getVendor();
+
+    String getLayout();
+
+    /**
+     * Directory under db/queries holding the query texts for this target.
+     */
+    String getQueryDialect();
+
+    /**
+     * Instrumentation returning the actual execution plans, or null if plans cannot be captured on this target.
+     */
+    default PlanCapture getPlanCapture() {
+        return null;
+    }
+
+    /**
+     * Kills the server side session of a query the watchdog could not cancel, or null if only cancelling is possible.
+     */
+    default SessionTerminator getSessionTerminator() {
+        return null;
+    }
+
+    /**
+     * Probe for the resources used by the engine, reading the cgroups below cgroupRoot where it runs in a container.
+     */
+    ResourceProbe createResourceProbe(String cgroupRoot);
+
+    /**
+     * Classpath patterns of the scripts that define the loaded dataset, a snapshot is only reused while they are unchanged.
+     */
+    List<String> getSchemaResources();
+
+    /**
+     * Starts the engine and waits until it accepts connections.
+     */
+    void start();
+
+    /**
+     * Reattaches to the engine and data left behind by an interrupted run, starting the engine if it is down.
+     */
+    void resume();
+
+    DataSource getDataSource();
+
+    /**
+     * A new data source like getDataSource with additional driver properties, whose connections run the session
+     * statement first if it is not null. Null if the target does not support this. The caller closes it if closeable.
+     */
+    default DataSource createDataSource(Map<String, String> connectionProperties, String sessionStatement) {
+        return null;
+    }
+
+    void migrate();
+
+    void load();
+
+    /**
+     * Adds the keys, constraints and statistics after the load, nothing where the engine does not use them.
+     */
+    default void addKeys() {
+    }
+
+    /**
+     * Empties the loaded tables, so that a load that was interrupted midway can be started over.
+     */
+    default void truncateTables() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource());
+        for(TpchTable table : TpchTable.values()) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+    }
+
+    /**
+     * Restarts the engine after loading so that the benchmark does not start with the caches of the load.
+     */
+    void restart();
+
+    void reportSize();
+
+    /**
+     * On-disk size in bytes of every loaded table including its indexes, by table name. Empty if the target cannot
+     * report it.
+     */
+    default Map<String, Long> getTableSizes() {
+        return Map.of();
+    }
+
+    /**
+     * Sink writing client side rows into the loaded tables, used for the inserts of the refresh functions.
+     */
+    TableSink createTableSink();
+
+    /**
+     * Whether rows can be deleted from the loaded tables, which the refresh function RF2 needs.
+     */
+    default boolean supportsDeletes() {
+        return true;
+    }
+
+    /**
+     * Whether rows of the loaded tables can be updated, which the order status updates of the HTAP workload need.
+     */
+    default boolean supportsUpdates() {
+        return true;
+    }
+
+    /**
+     * Archives the loaded data to the given file and leaves the engine running again, restarted like by restart.
+     */
+    void saveSnapshot(Path file);
+
+    /**
+     * Recreates the data from an archive written by saveSnapshot. Called before start, while the engine is down.
+     */
+    void restoreSnapshot(Path file);
+
+    /**
+     * Stops the engine and removes its data.
+     */
+    void tearDown();
+
+    default DataSource setUp() {
+        start();
+        migrate();
+        load();
+        addKeys();
+        restart();
+        reportSize();
+        return getDataSource();
+    }
+}
@@ -0,0 +1,273 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.configuration.GenericProperties;
+import at.sessa.thesisbenchmark.configuration.SnapshotProperties;
+import at.sessa.thesisbenchmark.configuration.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps snapshots of fully loaded and analyzed targets, keyed by target, scale factor and a hash of the scripts that
+ * define the dataset with their storage options filled in, and sets targets up from a matching snapshot instead of loading them. The modification time of
+ * a snapshot file marks its last use.
+ */
+@Component
+public class DatasetCache {
+    Logger logger = LoggerFactory.getLogger(DatasetCache.class);
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    private final SnapshotProperties snapshotProperties;
+    private final GenericProperties genericProperties;
+    private final StorageProperties storageProperties;
+
+    public DatasetCache(SnapshotProperties snapshotProperties, GenericProperties genericProperties, StorageProperties storageProperties) {
+        this.snapshotProperties = snapshotProperties;
+        this.genericProperties = genericProperties;
+        this.storageProperties = storageProperties;
+    }
+
+    /**
+     * Names of the storage option placeholders used by the schema scripts of the target.
+     */
+    public Set<String> getStoragePlaceholders(BenchmarkTarget target) {
+        Set<String> placeholders = new TreeSet<>();
+        for(Map.Entry<String, String> script : schemaScripts(target)) {
+            Matcher matcher = PLACEHOLDER.matcher(script.getValue());
+            while(matcher.find()) {
+                placeholders.add(matcher.group(1));
+            }
+        }
+        return placeholders;
+    }
+
+    public DataSource setUp(BenchmarkTarget target) {
+        return setUp(target, SetupProgress.NONE);
+    }
+
+    /**
+     * Sets the target up like setUp, skipping the steps the progress reports as completed and marking every step
+     * once it is done. A target with completed steps is resumed instead of started.
+     */
+    public DataSource setUp(BenchmarkTarget target, SetupProgress progress) {
+        if(progress.isCompleted(SetupProgress.Step.STARTED)) {
+            return resume(target, progress);
+        }
+
+        Path snapshot = snapshotFile(target);
+        if(snapshotProperties.isEnabled() && Files.exists(snapshot) && !snapshotProperties.isForceReload()) {
+            logger.info("Restoring {} from snapshot {}", target.getName(), snapshot);
+            touch(snapshot);
+            restoreSnapshot(target, snapshot);
+            target.start();
+            for(SetupProgress.Step step : SetupProgress.Step.values()) {
+                progress.complete(step);
+            }
+            target.reportSize();
+            return target.getDataSource();
+        }
+
+        target.start();
+        progress.complete(SetupProgress.Step.STARTED);
+        completeSetUp(target, progress);
+        return target.getDataSource();
+    }
+
+    /**
+     * Continues with the first incomplete step. A load that was interrupted midway is started over on empty tables.
+     */
+    private DataSource resume(BenchmarkTarget target, SetupProgress progress) {
+        logger.info("Resuming the setup of {}", target.getName());
+        target.resume();
+        if(progress.isCompleted(SetupProgress.Step.KEYED)) {
+            target.reportSize();
+            return target.getDataSource();
+        }
+        if(progress.isCompleted(SetupProgress.Step.MIGRATED) && !progress.isCompleted(SetupProgress.Step.LOADED)) {
+            logger.info("Emptying the tables of {} after an incomplete load", target.getName());
+            target.truncateTables();
+        }
+        completeSetUp(target, progress);
+        return target.getDataSource();
+    }
+
+    private void completeSetUp(BenchmarkTarget target, SetupProgress progress) {
+        if(!progress.isCompleted(SetupProgress.Step.MIGRATED)) {
+            target.migrate();
+            progress.complete(SetupProgress.Step.MIGRATED);
+        }
+        if(!progress.isCompleted(SetupProgress.Step.LOADED)) {
+            target.load();
+            progress.complete(SetupProgress.Step.LOADED);
+        }
+        if(!progress.isCompleted(SetupProgress.Step.KEYED)) {
+            target.addKeys();
+            progress.complete(SetupProgress.Step.KEYED);
+        }
+        // Saving a snapshot restarts the target as well
+        if(snapshotProperties.isEnabled()) {
+            saveSnapshot(target, snapshotFile(target));
+        } else {
+            target.restart();
+        }
+        target.reportSize();
+    }
+
+    // A failed archive is deleted, the target goes on without a snapshot
+    private void saveSnapshot(BenchmarkTarget target, Path snapshot) {
+        long startTime = System.currentTimeMillis();
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshot.getParent());
+            target.saveSnapshot(temporary);
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved snapshot {} ({} MB) in {} ms", snapshot, Files.size(snapshot) / 1024 / 1024, System.currentTimeMillis() - startTime);
+            evict(snapshot);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not save snapshot of {}", target.getName(), e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    // A snapshot that cannot be restored is deleted, so that the next attempt loads the data again
+    private void restoreSnapshot(BenchmarkTarget target, Path snapshot) {
+        try {
+            target.restoreSnapshot(snapshot);
+        } catch (RuntimeException e) {
+            deleteQuietly(snapshot);
+            throw new IllegalStateException("Could not restore " + target.getName() + " from snapshot " + snapshot + ", deleted it", e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", file, e);
+        }
+    }
+
+    /**
+     * Deletes least recently used snapshots until the total size fits the budget again. The snapshot just written
+     * is kept even if it alone exceeds the budget.
+     */
+    private void evict(Path keep) throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(keep.getParent())) {
+            snapshots = files.filter(f -> f.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted(Comparator.comparing(DatasetCache::lastModified))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        long budget = snapshotProperties.getDiskBudgetInGb() * 1024 * 1024 * 1024;
+        long total = 0;
+        for(Path snapshot : snapshots) {
+            total += Files.size(snapshot);
+        }
+        for(Path snapshot : snapshots) {
+            if(total <= budget) {
+                break;
+            }
+            if(snapshot.equals(keep)) {
+                continue;
+            }
+            total -= Files.size(snapshot);
+            Files.delete(snapshot);
+            logger.info("Evicted snapshot {}", snapshot);
+        }
+    }
+
+    private Path snapshotFile(BenchmarkTarget target) {
+        String key = target.getName() + "-" + genericProperties.getScaleFactor() + "-" + schemaHash(target);
+        return Paths.get(snapshotProperties.getDirectory()).toAbsolutePath().resolve(key + SNAPSHOT_SUFFIX);
+    }
+
+    private String schemaHash(BenchmarkTarget target) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for(Map.Entry<String, String> script : schemaScripts(target)) {
+                digest.update(script.getKey().getBytes());
+                // Placeholders filled in like by the migration, so that every storage option has its own snapshot
+                Matcher matcher = PLACEHOLDER.matcher(script.getValue());
+                StringBuilder resolved = new StringBuilder();
+                while(matcher.find()) {
+                    String value = storageProperties.getOptions().getOrDefault(matcher.group(1), matcher.group());
+                    matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+                }
+                matcher.appendTail(resolved);
+                digest.update(resolved.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hash = new StringBuilder();
+            for(byte b : Arrays.copyOf(digest.digest(), 6)) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // File names and contents of the schema scripts
+    private static List<Map.Entry<String, String>> schemaScripts(BenchmarkTarget target) {
+        List<Map.Entry<String, String>> scripts = new ArrayList<>();
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            for(String pattern : target.getSchemaResources()) {
+                Resource[] resources = resolver.getResources("classpath*:" + pattern);
+                Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
+                for(Resource resource : resources) {
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        scripts.add(Map.entry(resource.getFilename(), new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return scripts;
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package at.sessa.thesisbenchmark.target;
+
+import org.duckdb.DuckDBConnection;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections to one embedded database instance. DuckDB allows a single process to open a database file
+ * only once, so every connection is a duplicate of the root connection, which keeps the database open until close.
+ * Reopening keeps this data source usable for everyone holding it, like a restarted server.
+ */
+class DuckDbDataSource extends AbstractDataSource {
+    private final String databasePath;
+    private volatile DuckDBConnection rootConnection;
+
+    DuckDbDataSource(String databasePath) {
+        this.databasePath = databasePath;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DuckDBConnection connection = rootConnection;
+        if(connection == null) {
+            throw new SQLException("Database " + databasePath + " is not open");
+        }
+        return connection.duplicate();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    void open() throws SQLException {
+        rootConnection = DriverManager.getConnection("jdbc:duckdb:" + databasePath).unwrap(DuckDBConnection.class);
+    }
+
+    void close() throws SQLException {
+        if(rootConnection != null) {
+            rootConnection.close();
+            rootConnection = null;
+        }
+    }
+}
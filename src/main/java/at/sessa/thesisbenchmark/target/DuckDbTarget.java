@@ -0,0 +1,196 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.configuration.DuckDbProperties;
+import at.sessa.thesisbenchmark.monitoring.ProcessResourceProbe;
+import at.sessa.thesisbenchmark.monitoring.ResourceProbe;
+import at.sessa.thesisbenchmark.service.BenchmarkSetupService;
+import at.sessa.thesisbenchmark.service.DuckDbAppenderSink;
+import at.sessa.thesisbenchmark.service.TableSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Embedded columnar engine running inside the benchmark process. It uses the postgres query texts and row schema,
+ * its storage is columnar regardless, and needs no container.
+ */
+public class DuckDbTarget implements BenchmarkTarget {
+    Logger logger = LoggerFactory.getLogger(DuckDbTarget.class);
+
+    private final BenchmarkSetupService benchmarkSetupService;
+    private final DuckDbProperties duckDbProperties;
+    private final Path databaseFile;
+    private final DuckDbDataSource dataSource;
+
+    public DuckDbTarget(BenchmarkSetupService benchmarkSetupService, DuckDbProperties duckDbProperties) {
+        this.benchmarkSetupService = benchmarkSetupService;
+        this.duckDbProperties = duckDbProperties;
+        this.databaseFile = Paths.get(duckDbProperties.getDatabasePath()).toAbsolutePath();
+        this.dataSource = new DuckDbDataSource(databaseFile.toString());
+    }
+
+    @Override
+    public String getVendor() {
+        return "duckdb";
+    }
+
+    @Override
+    public String getLayout() {
+        return "column";
+    }
+
+    @Override
+    public String getQueryDialect() {
+        return "postgres";
+    }
+
+    /**
+     * The engine runs inside this process, whose counters include the benchmark client itself.
+     */
+    @Override
+    public ResourceProbe createResourceProbe(String cgroupRoot) {
+        return ProcessResourceProbe.self();
+    }
+
+    @Override
+    public List<String> getSchemaResources() {
+        return List.of("db/migration/postgres/row/*.sql");
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(databaseFile.getParent());
+            open();
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The database file outlives the process, opening it again is all there is to resume.
+     */
+    @Override
+    public void resume() {
+        start();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void migrate() {
+        logger.info("Initializing duckdb schema");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/postgres/row/V1__schema.sql"));
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void load() {
+        benchmarkSetupService.loadDuckDbData(dataSource);
+    }
+
+    @Override
+    public void restart() {
+        try {
+            dataSource.close();
+            open();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void reportSize() {
+        try {
+            logger.info("Size of {}: {} MB", databaseFile, Files.size(databaseFile) / 1024 / 1024);
+        } catch (IOException e) {
+            logger.error("Could not determine size of {}", databaseFile, e);
+        }
+    }
+
+    @Override
+    public TableSink createTableSink() {
+        return new DuckDbAppenderSink(dataSource);
+    }
+
+    @Override
+    public void flushCaches() {
+        try {
+            dataSource.close();
+            benchmarkSetupService.dropOsCaches();
+            open();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void prewarm() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for(TpchTable table : TpchTable.values()) {
+            jdbcTemplate.queryForObject("SELECT sum(hash("+table.getColumnList()+")) FROM "+table, Object.class);
+        }
+    }
+
+    /**
+     * Closing the database checkpoints it, which leaves a single self-contained file to copy.
+     */
+    @Override
+    public void saveSnapshot(Path file) {
+        try {
+            dataSource.close();
+            Files.copy(databaseFile, file, StandardCopyOption.REPLACE_EXISTING);
+            open();
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(Path file) {
+        try {
+            Files.createDirectories(databaseFile.getParent());
+            Files.copy(file, databaseFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        try {
+            logger.info("Cleaning up {}", databaseFile);
+            dataSource.close();
+            Files.deleteIfExists(databaseFile);
+            Files.deleteIfExists(Paths.get(databaseFile + ".wal"));
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void open() throws SQLException {
+        dataSource.open();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("SET memory_limit = '" + duckDbProperties.getMemoryLimit() + "'");
+        jdbcTemplate.execute("SET threads = " + duckDbProperties.getThreads());
+    }
+}
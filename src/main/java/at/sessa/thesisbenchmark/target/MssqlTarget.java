@@ -0,0 +1,198 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.monitoring.CgroupResourceProbe;
+import at.sessa.thesisbenchmark.monitoring.ResourceProbe;
+import at.sessa.thesisbenchmark.plan.MssqlPlanCapture;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.service.BenchmarkSetupService;
+import at.sessa.thesisbenchmark.service.MssqlBulkCopySink;
+import at.sessa.thesisbenchmark.service.MssqlSessionTerminator;
+import at.sessa.thesisbenchmark.service.SessionTerminator;
+import at.sessa.thesisbenchmark.service.TableSink;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MssqlTarget implements BenchmarkTarget {
+    private final BenchmarkSetupService benchmarkSetupService;
+    private final String layout;
+    private final String containerName = "mssql";
+    private final String volumeName;
+    private DataSource dataSource;
+
+    public MssqlTarget(BenchmarkSetupService benchmarkSetupService, String layout) {
+        this.benchmarkSetupService = benchmarkSetupService;
+        this.layout = layout;
+        this.volumeName = "mssql" + layout;
+    }
+
+    @Override
+    public String getVendor() {
+        return "mssql";
+    }
+
+    @Override
+    public String getLayout() {
+        return layout;
+    }
+
+    @Override
+    public String getQueryDialect() {
+        return "mssql";
+    }
+
+    @Override
+    public PlanCapture getPlanCapture() {
+        return new MssqlPlanCapture();
+    }
+
+    @Override
+    public SessionTerminator getSessionTerminator() {
+        return new MssqlSessionTerminator();
+    }
+
+    @Override
+    public ResourceProbe createResourceProbe(String cgroupRoot) {
+        return new CgroupResourceProbe(containerName, cgroupRoot);
+    }
+
+    @Override
+    public List<String> getSchemaResources() {
+        return List.of("db/migration/mssql/" + layout + "/*.sql");
+    }
+
+    @Override
+    public void start() {
+        benchmarkSetupService.startContainer(volumeName, String.format("docker run --name %s -e ACCEPT_EULA=Y -e SA_PASSWORD=Password1 -e MSSQL_MEMORY_LIMIT_MB=32768 -p 1433:1433 --shm-size=4g --cpus=8 -m=32g %s--mount source="+volumeName+",target=/var/opt/mssql -d mcr.microsoft.com/mssql/server:2019-CU5-ubuntu-16.04", containerName, benchmarkSetupService.getTestdataMountOption()));
+        connect(() -> benchmarkSetupService.createMssqlDatabase(containerName));
+    }
+
+    @Override
+    public void resume() {
+        benchmarkSetupService.startStoppedContainer(containerName);
+        connect(null);
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public DataSource createDataSource(Map<String, String> connectionProperties, String sessionStatement) {
+        return benchmarkSetupService.pool(benchmarkSetupService.createMssqlDataSource(connectionProperties), containerName + "-tuned", sessionStatement);
+    }
+
+    @Override
+    public void migrate() {
+        benchmarkSetupService.migrate(dataSource, "db/migration/mssql/" + layout);
+    }
+
+    @Override
+    public void load() {
+        benchmarkSetupService.loadMsSqlData(dataSource);
+    }
+
+    @Override
+    public void addKeys() {
+        benchmarkSetupService.addMsSqlKeys(dataSource, layout);
+    }
+
+    @Override
+    public void restart() {
+        benchmarkSetupService.restartContainer(containerName);
+        connect(null);
+    }
+
+    @Override
+    public void reportSize() {
+        benchmarkSetupService.printVolumeSizes();
+    }
+
+    /**
+     * The reserved space reported by sp_spaceused, which covers data, indexes and unused pages, e.g. "1032 KB".
+     */
+    @Override
+    public Map<String, Long> getTableSizes() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        for(TpchTable table : TpchTable.values()) {
+            String name = table.name().toLowerCase();
+            String reserved = (String) jdbcTemplate.queryForMap("EXEC sp_spaceused '"+name+"'").get("reserved");
+            sizes.put(name, Long.parseLong(reserved.replace("KB", "").trim()) * 1024);
+        }
+        return sizes;
+    }
+
+    /**
+     * Refresh batches of less than 102400 rows land in the delta store of a columnstore, larger ones are
+     * compressed directly like the initial load.
+     */
+    @Override
+    public TableSink createTableSink() {
+        return new MssqlBulkCopySink(dataSource);
+    }
+
+    /**
+     * DROPCLEANBUFFERS empties the buffer pool and the columnstore object pool once dirty pages are written by the
+     * checkpoint, which makes a restart of the engine unnecessary.
+     */
+    @Override
+    public void flushCaches() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CHECKPOINT");
+        jdbcTemplate.execute("DBCC DROPCLEANBUFFERS");
+        jdbcTemplate.execute("DBCC FREEPROCCACHE");
+        benchmarkSetupService.dropOsCaches();
+    }
+
+    /**
+     * CHECKSUM(*) reads every column, so columnstore tables are primed with all their segments.
+     */
+    @Override
+    public void prewarm() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for(TpchTable table : TpchTable.values()) {
+            jdbcTemplate.queryForObject("SELECT CHECKSUM_AGG(CHECKSUM(*)) FROM "+table, Integer.class);
+        }
+    }
+
+    @Override
+    public void saveSnapshot(Path file) {
+        benchmarkSetupService.stopContainer(containerName);
+        try {
+            benchmarkSetupService.archiveVolume(volumeName, file);
+        } finally {
+            benchmarkSetupService.startStoppedContainer(containerName);
+            connect(null);
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(Path file) {
+        benchmarkSetupService.restoreVolume(volumeName, file);
+    }
+
+    @Override
+    public void tearDown() {
+        benchmarkSetupService.closeDataSource(dataSource);
+        dataSource = null;
+        benchmarkSetupService.cleanUpContainer(containerName, volumeName);
+    }
+
+    // The data source is kept until tearDown, services that got it before a restart go on using it
+    private void connect(Runnable onFirstConnection) {
+        DataSource driverDataSource = benchmarkSetupService.createMssqlDataSource();
+        benchmarkSetupService.waitUntilDatasourceReady(driverDataSource, onFirstConnection);
+        if(dataSource == null) {
+            dataSource = benchmarkSetupService.pool(driverDataSource, containerName);
+        } else {
+            benchmarkSetupService.evictConnections(dataSource);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.monitoring.CgroupResourceProbe;
+import at.sessa.thesisbenchmark.monitoring.ResourceProbe;
+import at.sessa.thesisbenchmark.plan.PostgresPlanCapture;
+import at.sessa.thesisbenchmark.TpchTable;
+import at.sessa.thesisbenchmark.plan.PlanCapture;
+import at.sessa.thesisbenchmark.service.BenchmarkSetupService;
+import at.sessa.thesisbenchmark.service.PostgresCopySink;
+import at.sessa.thesisbenchmark.service.PostgresSessionTerminator;
+import at.sessa.thesisbenchmark.service.SessionTerminator;
+import at.sessa.thesisbenchmark.service.TableSink;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PostgresTarget implements BenchmarkTarget {
+    private final BenchmarkSetupService benchmarkSetupService;
+    private final String layout;
+    private final String containerName;
+    private final String volumeName;
+    private DataSource dataSource;
+
+    public PostgresTarget(BenchmarkSetupService benchmarkSetupService, String layout) {
+        this.benchmarkSetupService = benchmarkSetupService;
+        this.layout = layout;
+        this.containerName = isRow() ? "postgres12" : "postgres12cstore";
+        this.volumeName = isRow() ? "postgres" : "postgrescolumn";
+    }
+
+    @Override
+    public String getVendor() {
+        return "postgres";
+    }
+
+    @Override
+    public String getLayout() {
+        return layout;
+    }
+
+    @Override
+    public String getQueryDialect() {
+        return "postgres";
+    }
+
+    @Override
+    public PlanCapture getPlanCapture() {
+        return new PostgresPlanCapture();
+    }
+
+    @Override
+    public SessionTerminator getSessionTerminator() {
+        return new PostgresSessionTerminator();
+    }
+
+    @Override
+    public ResourceProbe createResourceProbe(String cgroupRoot) {
+        return new CgroupResourceProbe(containerName, cgroupRoot);
+    }
+
+    @Override
+    public List<String> getSchemaResources() {
+        return List.of("db/migration/postgres/" + layout + "/*.sql", "db/migration/postgres/keys.sql");
+    }
+
+    @Override
+    public void start() {
+        String mountOption = benchmarkSetupService.getTestdataMountOption();
+        if(isRow()) {
+            benchmarkSetupService.startContainer(volumeName, String.format("docker run -d -p 5432:5432 --shm-size=4g --cpus=8 -m=32G --name %s -e POSTGRES_PASSWORD=password -e PGDATA=/var/lib/postgresql/data/pgdata %s--mount source=postgres,target=/var/lib/postgresql/data postgres:12.3 -c shared_buffers=8192MB -c effective_cache_size=163848MB -c work_mem=512MB", containerName, mountOption));
+        } else {
+            benchmarkSetupService.startContainer(volumeName, String.format("docker run -d -p 5432:5432 --shm-size=16g --cpus=8 -m=32g --name %s -e POSTGRES_PASSWORD=password -e PGDATA=/var/lib/postgresql/data/pgdata %s--mount source=postgrescolumn,target=/var/lib/postgresql/data postgres_12_cstore -c shared_buffers=8192MB -c effective_cache_size=163848MB -c work_mem=512MB", containerName, mountOption));
+        }
+        connect();
+    }
+
+    @Override
+    public void resume() {
+        benchmarkSetupService.startStoppedContainer(containerName);
+        connect();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public DataSource createDataSource(Map<String, String> connectionProperties, String sessionStatement) {
+        return benchmarkSetupService.pool(benchmarkSetupService.createPostgresDataSource(connectionProperties), containerName + "-tuned", sessionStatement);
+    }
+
+    @Override
+    public void migrate() {
+        benchmarkSetupService.migrate(dataSource, "db/migration/postgres/" + layout);
+    }
+
+    @Override
+    public void load() {
+        benchmarkSetupService.loadPostgresData(dataSource);
+    }
+
+    @Override
+    public void addKeys() {
+        benchmarkSetupService.addPostgresKeys(dataSource);
+    }
+
+    @Override
+    public void restart() {
+        benchmarkSetupService.restartContainer(containerName);
+        connect();
+    }
+
+    @Override
+    public void reportSize() {
+        benchmarkSetupService.printVolumeSizes();
+    }
+
+    /**
+     * pg_total_relation_size does not see the files of cstore foreign tables, cstore_table_size reports them instead.
+     */
+    @Override
+    public Map<String, Long> getTableSizes() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String sizeFunction = isRow() ? "pg_total_relation_size" : "cstore_table_size";
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        for(TpchTable table : TpchTable.values()) {
+            String name = table.name().toLowerCase();
+            sizes.put(name, jdbcTemplate.queryForObject("SELECT "+sizeFunction+"('"+name+"')", Long.class));
+        }
+        return sizes;
+    }
+
+    @Override
+    public TableSink createTableSink() {
+        return new PostgresCopySink(dataSource);
+    }
+
+    /**
+     * cstore_fdw tables are append only, they support COPY and INSERT but neither DELETE nor UPDATE.
+     */
+    @Override
+    public boolean supportsDeletes() {
+        return isRow();
+    }
+
+    @Override
+    public boolean supportsUpdates() {
+        return isRow();
+    }
+
+    @Override
+    public void flushCaches() {
+        benchmarkSetupService.stopContainer(containerName);
+        benchmarkSetupService.dropOsCaches();
+        benchmarkSetupService.startStoppedContainer(containerName);
+        connect();
+    }
+
+    /**
+     * Heap tables and their indexes are loaded into shared buffers with pg_prewarm. The cstore foreign tables bypass
+     * shared buffers, a scan that reads every column loads their files into the page cache instead.
+     */
+    @Override
+    public void prewarm() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if(isRow()) {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_prewarm");
+        }
+        for(TpchTable table : TpchTable.values()) {
+            if(isRow()) {
+                jdbcTemplate.queryForList("SELECT pg_prewarm(c.oid::regclass) FROM pg_class c WHERE c.oid = '"+table+"'::regclass " +
+                        "OR c.oid IN (SELECT indexrelid FROM pg_index WHERE indrelid = '"+table+"'::regclass)");
+            } else {
+                jdbcTemplate.queryForObject("SELECT count(*) FROM "+table+" t WHERE t IS NOT NULL", Long.class);
+            }
+        }
+    }
+
+    @Override
+    public void saveSnapshot(Path file) {
+        benchmarkSetupService.stopContainer(containerName);
+        try {
+            benchmarkSetupService.archiveVolume(volumeName, file);
+        } finally {
+            benchmarkSetupService.startStoppedContainer(containerName);
+            connect();
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(Path file) {
+        benchmarkSetupService.restoreVolume(volumeName, file);
+    }
+
+    @Override
+    public void tearDown() {
+        benchmarkSetupService.closeDataSource(dataSource);
+        dataSource = null;
+        benchmarkSetupService.cleanUpContainer(containerName, volumeName);
+    }
+
+    // The data source is kept until tearDown, services that got it before a restart go on using it
+    private void connect() {
+        DataSource driverDataSource = benchmarkSetupService.createPostgresDataSource();
+        benchmarkSetupService.waitUntilDatasourceReady(driverDataSource, null);
+        if(dataSource == null) {
+            dataSource = benchmarkSetupService.pool(driverDataSource, containerName);
+        } else {
+            benchmarkSetupService.evictConnections(dataSource);
+        }
+    }
+
+    private boolean isRow() {
+        return "row".equals(layout);
+    }
+}
@@ -0,0 +1,25 @@
+package at.sessa.thesisbenchmark.target;
+
+/**
+ * The setup steps of a target that are completed, possibly by an earlier attempt of an interrupted run.
+ */
+public interface SetupProgress {
+    enum Step {
+        STARTED, MIGRATED, LOADED, KEYED
+    }
+
+    SetupProgress NONE = new SetupProgress() {
+        @Override
+        public boolean isCompleted(Step step) {
+            return false;
+        }
+
+        @Override
+        public void complete(Step step) {
+        }
+    };
+
+    boolean isCompleted(Step step);
+
+    void complete(Step step);
+}
@@ -0,0 +1,38 @@
+package at.sessa.thesisbenchmark.target;
+
+import at.sessa.thesisbenchmark.configuration.DuckDbProperties;
+import at.sessa.thesisbenchmark.service.BenchmarkSetupService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers every available target. Which of them are benchmarked, and in which order, is selected by
+ * at.sessa.thesisbenchmark.targets.
+ */
+@Configuration
+public class TargetConfiguration {
+    @Bean
+    public BenchmarkTarget postgresRowTarget(BenchmarkSetupService benchmarkSetupService) {
+        return new PostgresTarget(benchmarkSetupService, "row");
+    }
+
+    @Bean
+    public BenchmarkTarget postgresColumnTarget(BenchmarkSetupService benchmarkSetupService) {
+        return new PostgresTarget(benchmarkSetupService, "column");
+    }
+
+    @Bean
+    public BenchmarkTarget mssqlRowTarget(BenchmarkSetupService benchmarkSetupService) {
+        return new MssqlTarget(benchmarkSetupService, "row");
+    }
+
+    @Bean
+    public BenchmarkTarget mssqlColumnTarget(BenchmarkSetupService benchmarkSetupService) {
+        return new MssqlTarget(benchmarkSetupService, "column");
+    }
+
+    @Bean
+    public BenchmarkTarget duckDbColumnTarget(BenchmarkSetupService benchmarkSetupService, DuckDbProperties duckDbProperties) {
+        return new DuckDbTarget(benchmarkSetupService, duckDbProperties);
+    }
+}
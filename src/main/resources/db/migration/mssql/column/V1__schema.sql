@@ -4,7 +4,7 @@ CREATE TABLE nation
     n_name       CHAR(25) not null,
     n_regionkey  INTEGER not null,
     n_comment    VARCHAR(152),
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE region
@@ -12,7 +12,7 @@ CREATE TABLE region
     r_regionkey  INTEGER not null CONSTRAINT region_pkey PRIMARY KEY,
     r_name       CHAR(25) not null,
     r_comment    VARCHAR(152),
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE part
@@ -26,7 +26,7 @@ CREATE TABLE part
     p_container   CHAR(10) not null,
     p_retailprice DOUBLE PRECISION not null,
     p_comment     VARCHAR(23) not null,
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE supplier
@@ -38,7 +38,7 @@ CREATE TABLE supplier
     s_phone       CHAR(15) not null,
     s_acctbal     DOUBLE PRECISION not null,
     s_comment     VARCHAR(101) not null,
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE partsupp
@@ -49,7 +49,7 @@ CREATE TABLE partsupp
     ps_supplycost  DOUBLE PRECISION  not null,
     ps_comment     VARCHAR(199) not null,
     CONSTRAINT partsupp_pkey PRIMARY KEY (PS_PARTKEY, PS_SUPPKEY),
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE customer
@@ -62,7 +62,7 @@ CREATE TABLE customer
     c_acctbal     DOUBLE PRECISION   not null,
     c_mktsegment  CHAR(10) not null,
     c_comment     VARCHAR(117) not null,
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE orders
@@ -76,7 +76,7 @@ CREATE TABLE orders
     o_clerk          CHAR(15) not null,
     o_shippriority   INTEGER not null,
     o_comment        VARCHAR(79) not null,
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
 
 CREATE TABLE lineitem
@@ -98,5 +98,5 @@ CREATE TABLE lineitem
     l_shipmode     CHAR(10) not null,
     l_comment      VARCHAR(44) not null,
     CONSTRAINT lineitem_pkey PRIMARY KEY (L_ORDERKEY, L_LINENUMBER),
-    INDEX ci CLUSTERED COLUMNSTORE
+    INDEX ci CLUSTERED COLUMNSTORE WITH (DATA_COMPRESSION = ${columnstore-compression})
 );
\ No newline at end of file
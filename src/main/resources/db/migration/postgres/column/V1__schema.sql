@@ -8,7 +8,8 @@ CREATE FOREIGN TABLE nation
     n_regionkey  INTEGER not null,
     n_comment    VARCHAR(152)
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE region
 (
@@ -16,7 +17,8 @@ CREATE FOREIGN TABLE region
     r_name       CHAR(25) not null,
     r_comment    VARCHAR(152)
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE part
 (
@@ -30,7 +32,8 @@ CREATE FOREIGN TABLE part
     p_retailprice DOUBLE PRECISION not null,
     p_comment     VARCHAR(23) not null
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE supplier
 (
@@ -42,7 +45,8 @@ CREATE FOREIGN TABLE supplier
     s_acctbal     DOUBLE PRECISION not null,
     s_comment     VARCHAR(101) not null
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE partsupp
 (
@@ -52,7 +56,8 @@ CREATE FOREIGN TABLE partsupp
     ps_supplycost  DOUBLE PRECISION  not null,
     ps_comment     VARCHAR(199) not null
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE customer
 (
@@ -65,7 +70,8 @@ CREATE FOREIGN TABLE customer
     c_mktsegment  CHAR(10) not null,
     c_comment     VARCHAR(117) not null
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE orders
 (
@@ -79,7 +85,8 @@ CREATE FOREIGN TABLE orders
     o_shippriority   INTEGER not null,
     o_comment        VARCHAR(79) not null
 )
-SERVER cstore_server;
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
 
 CREATE FOREIGN TABLE lineitem
 (
@@ -100,4 +107,5 @@ CREATE FOREIGN TABLE lineitem
     l_shipmode     CHAR(10) not null,
     l_comment      VARCHAR(44) not null
 )
-SERVER cstore_server;
\ No newline at end of file
+SERVER cstore_server
+OPTIONS(compression '${cstore-compression}', stripe_row_count '${cstore-stripe-row-count}', block_row_count '${cstore-block-row-count}');
\ No newline at end of file
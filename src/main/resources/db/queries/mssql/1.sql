@@ -12,7 +12,7 @@ select
 from
 	lineitem
 where
-	l_shipdate <=  DATEADD(DAY, -90, '1998-12-01')
+	l_shipdate <=  DATEADD(DAY, -:1, '1998-12-01')
 group by
 	l_returnflag,
 	l_linestatus
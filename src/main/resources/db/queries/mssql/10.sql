@@ -16,8 +16,8 @@ from
 where
 	c_custkey = o_custkey
 	and l_orderkey = o_orderkey
-	and o_orderdate >= CAST('1993-10-01' AS datetime)
-	and o_orderdate < DATEADD(MONTH, 3, '1993-10-01')
+	and o_orderdate >= CAST(:1 AS datetime)
+	and o_orderdate < DATEADD(MONTH, 3, :1)
 	and l_returnflag = 'R'
 	and c_nationkey = n_nationkey
 group by
@@ -17,11 +17,11 @@ from
 	lineitem
 where
 	o_orderkey = l_orderkey
-	and l_shipmode in ('MAIL', 'SHIP')
+	and l_shipmode in (:1, :2)
 	and l_commitdate < l_receiptdate
 	and l_shipdate < l_commitdate
-	and l_receiptdate >= CAST('1994-01-01' AS datetime)
-	and l_receiptdate < DATEADD(YEAR, 1, '1994-01-01')
+	and l_receiptdate >= CAST(:3 AS datetime)
+	and l_receiptdate < DATEADD(YEAR, 1, :3)
 group by
 	l_shipmode
 order by
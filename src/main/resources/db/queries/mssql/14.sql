@@ -9,5 +9,5 @@ from
 	part
 where
 	l_partkey = p_partkey
-	and l_shipdate >= CAST('1995-09-01' AS datetime)
-	and l_shipdate < DATEADD(MONTH, 1, '1995-09-01');
\ No newline at end of file
+	and l_shipdate >= CAST(:1 AS datetime)
+	and l_shipdate < DATEADD(MONTH, 1, :1);
\ No newline at end of file
@@ -17,7 +17,7 @@ where
 				from
 					part
 				where
-					p_name like 'forest%'
+					p_name like :1
 			)
 			and ps_availqty > (
 				select
@@ -27,11 +27,11 @@ where
 				where
 					l_partkey = ps_partkey
 					and l_suppkey = ps_suppkey
-					and l_shipdate >= CAST('1994-01-01' AS datetime)
-					and l_shipdate < DATEADD(MONTH, 3, '1994-01-01')
+					and l_shipdate >= CAST(:2 AS datetime)
+					and l_shipdate < DATEADD(MONTH, 3, :2)
 			)
 	)
 	and s_nationkey = n_nationkey
-	and n_name = 'CANADA'
+	and n_name = :3
 order by
 	s_name;
\ No newline at end of file
@@ -9,11 +9,11 @@ from
 	orders,
 	lineitem
 where
-	c_mktsegment = 'BUILDING'
+	c_mktsegment = :1
 	and c_custkey = o_custkey
 	and l_orderkey = o_orderkey
-	and o_orderdate < CAST('1995-03-15' AS datetime)
-	and l_shipdate > CAST('1995-03-15' AS datetime)
+	and o_orderdate < CAST(:2 AS datetime)
+	and l_shipdate > CAST(:2 AS datetime)
 group by
 	l_orderkey,
 	o_orderdate,
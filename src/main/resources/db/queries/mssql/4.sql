@@ -4,8 +4,8 @@ select
 from
 	orders
 where
-	o_orderdate >= CAST('1993-07-01' AS datetime)
-	and o_orderdate < DATEADD(MONTH, 3, '1993-07-01')
+	o_orderdate >= CAST(:1 AS datetime)
+	and o_orderdate < DATEADD(MONTH, 3, :1)
 	and exists (
 		select
 			*
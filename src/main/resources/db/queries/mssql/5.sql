@@ -15,9 +15,9 @@ where
 	and c_nationkey = s_nationkey
 	and s_nationkey = n_nationkey
 	and n_regionkey = r_regionkey
-	and r_name = 'ASIA'
-	and o_orderdate >= CAST('1994-01-01' AS datetime)
-	and o_orderdate < DATEADD(YEAR, 1, '1994-01-01')
+	and r_name = :1
+	and o_orderdate >= CAST(:2 AS datetime)
+	and o_orderdate < DATEADD(YEAR, 1, :2)
 group by
 	n_name
 order by
@@ -3,7 +3,7 @@ select
 from
 	lineitem
 where
-	l_shipdate >= CAST('1994-01-01' AS datetime)
-	and l_shipdate < DATEADD(YEAR, 1, '1994-01-01')
-	and l_discount between .06 - 0.01 and .06 + 0.01
-	and l_quantity < 24;
\ No newline at end of file
+	l_shipdate >= CAST(:1 AS datetime)
+	and l_shipdate < DATEADD(YEAR, 1, :1)
+	and l_discount between :2 - 0.01 and :2 + 0.01
+	and l_quantity < :3;
\ No newline at end of file
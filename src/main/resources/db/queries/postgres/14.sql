@@ -9,5 +9,5 @@ from
 	part
 where
 	l_partkey = p_partkey
-	and l_shipdate >= date '1995-09-01'
-	and l_shipdate < date '1995-09-01' + interval '1' month;
\ No newline at end of file
+	and l_shipdate >= cast(:1 as date)
+	and l_shipdate < cast(:1 as date) + interval '1' month;
\ No newline at end of file
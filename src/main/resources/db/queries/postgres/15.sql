@@ -5,8 +5,8 @@ create view revenue0 (supplier_no, total_revenue) as
 	from
 		lineitem
 	where
-		l_shipdate >= date '1996-01-01'
-		and l_shipdate < date '1996-01-01' + interval '3' month
+		l_shipdate >= cast(:1 as date)
+		and l_shipdate < cast(:1 as date) + interval '3' month
 	group by
 		l_suppkey;
 
@@ -17,7 +17,7 @@ where
 				from
 					part
 				where
-					p_name like 'forest%'
+					p_name like :1
 			)
 			and ps_availqty > (
 				select
@@ -27,11 +27,11 @@ where
 				where
 					l_partkey = ps_partkey
 					and l_suppkey = ps_suppkey
-					and l_shipdate >= date '1994-01-01'
-					and l_shipdate < date '1994-01-01' + interval '1' year
+					and l_shipdate >= cast(:2 as date)
+					and l_shipdate < cast(:2 as date) + interval '1' year
 			)
 	)
 	and s_nationkey = n_nationkey
-	and n_name = 'CANADA'
+	and n_name = :3
 order by
 	s_name;
\ No newline at end of file
@@ -8,11 +8,11 @@ from
 	orders,
 	lineitem
 where
-	c_mktsegment = 'BUILDING'
+	c_mktsegment = :1
 	and c_custkey = o_custkey
 	and l_orderkey = o_orderkey
-	and o_orderdate < date '1995-03-15'
-	and l_shipdate > date '1995-03-15'
+	and o_orderdate < cast(:2 as date)
+	and l_shipdate > cast(:2 as date)
 group by
 	l_orderkey,
 	o_orderdate,